@@ -1,12 +1,15 @@
 package com.redfin.fuzzy;
 
 import com.redfin.fuzzy.cases.ExcludingCase;
+import com.redfin.fuzzy.cases.MemoizedCase;
 import com.redfin.fuzzy.cases.StringCase;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Cases are the principal building block of the fuzzy engine. They describe tests by producing instances of specific
@@ -45,6 +48,13 @@ public interface Case<T>
 	 * <p><strong>Note to implementors:</strong> cases should generally <em>not</em> include {@code null} values as
 	 * possible outputs. Instead, consumers are expected to use the {@link #orNull()} method (or, equivalently,
 	 * {@link Any#nullableOf}) to declare that their cases should also generate null values.</p>
+	 *
+	 * <p>The iteration order of the returned set is significant: composition modes number subcases in that order, so
+	 * a seed only reproduces the same test iterations (and a {@linkplain CaseComposition#withConstraints
+	 * constraint} only refers to the same subcase) if the order is the same every time, including across JVM runs. All
+	 * of the built-in cases return insertion-ordered sets (such as {@link java.util.LinkedHashSet}) whose order only
+	 * depends on how the case was configured. Implementors should do the same, and should avoid sets ordered by
+	 * identity hash codes, such as a {@link java.util.HashSet} of lambdas.</p>
 	 */
 	Set<Subcase<T>> getSubcases();
 
@@ -67,10 +77,23 @@ public interface Case<T>
 	default Case<T> excluding(T... values) { return excluding(values == null ? null : Arrays.asList(values)); }
 	default Case<T> excluding(Iterable<T> values) { return new ExcludingCase<>(this, values); }
 
+	/**
+	 * Returns a case that computes this case's subcases once, and returns the same set from every later call to
+	 * {@link #getSubcases()}.
+	 *
+	 * <p>The built-in cases already cache their subcases, and only rebuild them after they (or the cases they are
+	 * composed of) are reconfigured. Memoizing is useful for custom cases whose {@code getSubcases} is expensive, and
+	 * that are declared once and used by many tests. This case must not be reconfigured after it is memoized, and its
+	 * subcases must not hold mutable state, since every test that uses the memoized case shares them.</p>
+	 *
+	 * @see MemoizedCase
+	 */
+	default Case<T> memoized() { return new MemoizedCase<>(this); }
+
 	/**
 	 * Arbitrarily selects and returns the value of one of this case's subcases.
 	 */
-	default T generateAnyOnce() { return generateAnyOnce(new Random()); }
+	default T generateAnyOnce() { return generateAnyOnce(new FuzzyRandom()); }
 
 	/**
 	 * Arbitrarily selects and returns the value of one of this case's subcases.
@@ -91,7 +114,7 @@ public interface Case<T>
 	/**
 	 * Requests each of this case's subcases to generate and return a value.
 	 */
-	default Set<T> generateAllOnce() { return generateAllOnce(new Random()); }
+	default Set<T> generateAllOnce() { return generateAllOnce(new FuzzyRandom()); }
 
 	/**
 	 * Requests each of this case's subcases to generate and return a value.
@@ -109,4 +132,44 @@ public interface Case<T>
 		return subcases.stream().map(s -> s.generate(random)).collect(Collectors.toSet());
 	}
 
+	/**
+	 * Returns an endless stream of values generated by this case's subcases, in turn. Equivalent to
+	 * {@link #stream(long, long) stream(seed, Long.MAX_VALUE)}; use {@link Stream#limit} to bound it, or prefer the
+	 * two-argument method for large parallel streams, which split more evenly when their size is known.
+	 *
+	 * @param seed the seed from which every value in the stream is derived.
+	 */
+	default Stream<T> stream(long seed) { return stream(seed, Long.MAX_VALUE); }
+
+	/**
+	 * Returns a stream of {@code count} values generated by this case's subcases, in turn: the value at index
+	 * {@code k} is generated by the {@code k % n}-th of the {@code n} {@linkplain #getSubcases() subcases}, with a
+	 * random number generator seeded from {@code seed} and {@code k} alone. Unlike {@link #generateAllOnce()}, values
+	 * are not deduplicated.
+	 *
+	 * <p>The stream is intended for bulk data generation, such as producing synthetic records for load tests. It splits
+	 * evenly and without coordination, so {@linkplain Stream#parallel() parallel} streams keep every core busy, and
+	 * the values (and, for ordered operations, their order) are exactly the same whether the stream is sequential or
+	 * parallel, on any number of threads. Parallel streams call the subcases concurrently, so each value must depend
+	 * only on the random number generator passed to {@link Subcase#generate(Random)}, and not on state that the
+	 * subcases update as they generate (such as a counter of the values generated so far). The subcases of the
+	 * built-in cases, including those of collection cases, depend on nothing else.
+	 * </p>
+	 *
+	 * @param seed the seed from which every value in the stream is derived.
+	 * @param count the number of values in the stream. Cannot be negative.
+	 */
+	default Stream<T> stream(long seed, long count) {
+		if(count < 0)
+			throw new IllegalArgumentException("A stream cannot have a negative number of values.");
+
+		Set<Subcase<T>> subcases = getSubcases();
+		if(subcases == null || subcases.isEmpty())
+			throw new IllegalStateException(String.format("Case of type %s generated zero suppliers.", getClass()));
+
+		@SuppressWarnings("unchecked")
+		Subcase<T>[] ordered = subcases.toArray(new Subcase[subcases.size()]);
+		return StreamSupport.stream(new CaseSpliterator<>(ordered, seed, 0, count), false);
+	}
+
 }
@@ -0,0 +1,34 @@
+package com.redfin.fuzzy;
+
+import com.redfin.fuzzy.pairwise.Constraint;
+
+/**
+ * Describes how the fuzzy library permutes subcases when running tests or using one of the
+ * {@linkplain Cases#compose case composition functions}.
+ *
+ * <p>Every {@link CaseCompositionMode} is a case composition on its own. Compositions that need further configuration
+ * are built from the modes: {@link CaseCompositionMode#tWise(int)} covers combinations of more than two base cases,
+ * and {@link #withConstraints(Constraint...)} rules out combinations of subcases that the test cannot run.
+ * </p>
+ * <p>This interface is not meant to be implemented outside of the fuzzy library; only the compositions it provides are
+ * supported.
+ * </p>
+ */
+public interface CaseComposition {
+
+	/**
+	 * Returns a composition like this one that never combines subcases in a way that the given constraints forbid.
+	 * Iterations that would otherwise have to be skipped inside the test are never generated, while every permitted
+	 * combination is still covered.
+	 *
+	 * <p>Constraints identify subcases by position. Each permutation is given to the constraint as an array holding,
+	 * for each base case, the index of its chosen subcase (in the order returned by {@link Case#getSubcases()}), or
+	 * {@link Constraint#UNASSIGNED}. Base cases are numbered in the order they are passed to
+	 * {@linkplain Cases#compose composition functions}; when running tests, generators are numbered in the order they
+	 * are created within the test, and the subcases of a generator with several cases are numbered in order across all
+	 * of them.
+	 * </p>
+	 */
+	CaseComposition withConstraints(Constraint... constraints);
+
+}
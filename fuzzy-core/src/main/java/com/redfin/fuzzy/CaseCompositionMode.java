@@ -1,19 +1,26 @@
 package com.redfin.fuzzy;
 
+import com.redfin.fuzzy.pairwise.Constraint;
 import com.redfin.fuzzy.pairwise.Pairwise;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.Stack;
+import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Describes the different algorithms the fuzzy library can use to permute subcases when running tests or using one of
  * the {@linkplain Cases#compose case composition functions}.
+ *
+ * <p>Each mode is a {@link CaseComposition} on its own; see {@link #tWise(int)} and
+ * {@link #withConstraints(Constraint...)} for compositions that need further configuration.
+ * </p>
  */
-public enum CaseCompositionMode {
+public enum CaseCompositionMode implements CaseComposition {
 	/**
 	 * The composition will generate enough subcases so that each base case's suppliers are covered at least once, or
 	 * the a number equivalent to the maximum number of suppliers of any base case. Use this mode when you are concerned
@@ -52,31 +59,43 @@ public enum CaseCompositionMode {
 	 * tests.
 	 * </p>
 	 */
-	EACH_SUBCASE_AT_LEAST_ONCE(baseCases -> {
-		List<Subcase[]> permutations = new ArrayList<>();
-		int[] indices = new int[baseCases.length];
-		int completed = 0;
-
-		Subcase[][] suppliers = new Subcase[baseCases.length][];
-		for(int i = 0; i < baseCases.length; i++) {
-			@SuppressWarnings("unchecked")
-			Set<Function> subcases = baseCases[i].getSubcases();
-
-			Subcase[] subcasesArray = subcases.toArray(new Subcase[] {});
-			suppliers[i] = subcasesArray;
-		}
+	EACH_SUBCASE_AT_LEAST_ONCE(
+		(parameters, constraints) -> {
+			// The round-robin assignment below can't avoid forbidden combinations; one-wise coverage can.
+			if(!constraints.isEmpty())
+				return new Pairwise<>(parameters, Pairwise.Strategy.IN_PARAMETER_ORDER, 1)
+					.withConstraints(constraints)
+					.rows();
 
-		while(completed < baseCases.length) {
-			Subcase[] subcase = new Subcase[baseCases.length];
-			for(int i = 0; i < baseCases.length; i++) {
-				subcase[i] = suppliers[i][indices[i] % suppliers[i].length];
-				if(++indices[i] == suppliers[i].length) { completed++; }
+			int[] sizes = new int[parameters.size()];
+			int maxSize = 0;
+			for(int i = 0; i < sizes.length; i++) {
+				sizes[i] = parameters.get(i).size();
+				maxSize = Math.max(maxSize, sizes[i]);
 			}
-			permutations.add(subcase);
-		}
 
-		return permutations.toArray(new Subcase[][] {});
-	}),
+			int permutations = maxSize;
+			return new Iterator<int[]>() {
+				private int next;
+
+				@Override
+				public boolean hasNext() { return next < permutations; }
+
+				@Override
+				public int[] next() {
+					if(!hasNext())
+						throw new NoSuchElementException();
+
+					int[] permutation = new int[sizes.length];
+					for(int i = 0; i < sizes.length; i++) {
+						permutation[i] = next % sizes[i];
+					}
+					next++;
+					return permutation;
+				}
+			};
+		}
+	),
 
 	/**
 	 * The composition will generate enough subcases so that each possible pairing of any two base cases will be
@@ -120,27 +139,53 @@ public enum CaseCompositionMode {
 	 * tests.
 	 * </p>
 	 */
-	PAIRWISE_PERMUTATIONS_OF_SUBCASES(baseCases -> {
-		List<Set> parameters = Arrays
-			.stream(baseCases)
-			.map((Function<Case, Set>) Case::getSubcases)
-			.collect(Collectors.toList());
+	PAIRWISE_PERMUTATIONS_OF_SUBCASES(
+		(parameters, constraints) -> new Pairwise<>(parameters).withConstraints(constraints).rows()
+	),
 
-		Pairwise<Set> p = new Pairwise<>(parameters);
-		Stack<List<Object>> permutations = p.generate();
-
-		Subcase[][] subcases = new Subcase[permutations.size()][];
-		int i = 0;
-		for(List<Object> subcase : permutations) {
-			Subcase[] suppliers = new Subcase[baseCases.length];
-			for(int j = 0; j < baseCases.length; j++) {
-				suppliers[j] = (Subcase)subcase.get(j);
-			}
-			subcases[i++] = suppliers;
-		}
+	/**
+	 * Like {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES}, the composition will generate enough subcases so that each
+	 * possible pairing of any two base cases will be included at least once, but it builds them with the
+	 * {@linkplain Pairwise.Strategy#IN_PARAMETER_ORDER in-parameter-order} algorithm instead.
+	 *
+	 * <p>
+	 * This algorithm grows the set of composed subcases one base case at a time, and usually needs noticeably fewer
+	 * subcases to cover every pair than {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES} once there are more than a few base
+	 * cases. Prefer this mode when each test iteration is expensive.
+	 * </p>
+	 * <p>
+	 * Note that the specific distribution of subcases is not guaranteed by this algorithm and may change between
+	 * tests.
+	 * </p>
+	 */
+	PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER(
+		(parameters, constraints) -> new Pairwise<>(parameters, Pairwise.Strategy.IN_PARAMETER_ORDER)
+			.withConstraints(constraints)
+			.rows()
+	),
 
-		return subcases;
-	}),
+	/**
+	 * Like {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER}, the composition will generate enough subcases
+	 * so that each possible pairing of any two base cases will be included at least once, but it also runs a number of
+	 * randomized constructions searching for a smaller set of subcases with the
+	 * {@linkplain Pairwise.Strategy#MINIMIZE minimizing} strategy. The search is bounded by the work it does rather than
+	 * by time, so it plans the same subcases on every machine.
+	 *
+	 * <p>
+	 * This mode never needs more subcases than {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER}, and often
+	 * needs a few fewer. Since the planned subcases are cached by the shape of the base cases, the search is only paid
+	 * for once per shape. Prefer this mode when each test iteration is very expensive.
+	 * </p>
+	 * <p>
+	 * Note that the specific distribution of subcases is not guaranteed by this algorithm and may change between
+	 * tests.
+	 * </p>
+	 */
+	PAIRWISE_PERMUTATIONS_OF_SUBCASES_MINIMIZED(
+		(parameters, constraints) -> new Pairwise<>(parameters, Pairwise.Strategy.MINIMIZE)
+			.withConstraints(constraints)
+			.rows()
+	),
 
 	;
 
@@ -148,5 +193,89 @@ public enum CaseCompositionMode {
 
 	private CaseCompositionMode(Algorithm algorithm) { this.algorithm = algorithm; }
 
-	/* package */ interface Algorithm { Subcase[][] apply(Case[] baseCases); }
+	/**
+	 * Returns a case composition that will generate enough subcases so that every combination of subcases from any
+	 * {@code strength} base cases is included at least once. Use this mode when bugs may depend on the interaction of
+	 * more than two inputs at a time.
+	 *
+	 * <p>
+	 * A strength of 1 is equivalent to {@link #EACH_SUBCASE_AT_LEAST_ONCE}, and a strength of 2 is equivalent to
+	 * {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER}. Higher strengths use the same in-parameter-order
+	 * algorithm, generalized to tuples of {@code strength} base cases; refer to
+	 * {@link com.redfin.fuzzy.pairwise.Pairwise Pairwise} for more details. The number of composed subcases roughly
+	 * depends on the product of the subcase counts of the {@code strength} largest base cases, so each step up in
+	 * strength can multiply the number of test iterations.
+	 * </p>
+	 * <p>
+	 * Note that the specific distribution of subcases is not guaranteed by this algorithm and may change between
+	 * tests.
+	 * </p>
+	 *
+	 * @param strength the number of base cases whose subcases must appear together in every combination; must be at
+	 *                 least 1.
+	 */
+	public static CaseComposition tWise(int strength) {
+		if(strength < 1)
+			throw new IllegalArgumentException("The strength of a t-wise composition must be at least 1.");
+
+		switch(strength) {
+			case 1: return EACH_SUBCASE_AT_LEAST_ONCE;
+			case 2: return PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER;
+			default:
+				return new ConfiguredCaseComposition(
+					"T_WISE_PERMUTATIONS_OF_SUBCASES(" + strength + ")",
+					(parameters, constraints) -> new Pairwise<>(parameters, Pairwise.Strategy.IN_PARAMETER_ORDER, strength)
+						.withConstraints(constraints)
+						.rows()
+				);
+		}
+	}
+
+	@Override
+	public CaseComposition withConstraints(Constraint... constraints) {
+		return new ConfiguredCaseComposition(name(), algorithm).withConstraints(constraints);
+	}
+
+	/**
+	 * Returns the permutations of the given parameters that the composition chooses.
+	 */
+	/* package */ static Iterator<int[]> permutations(
+		CaseComposition composition,
+		List<? extends Collection> parameters
+	) {
+		if(composition instanceof CaseCompositionMode)
+			return ((CaseCompositionMode)composition).algorithm.apply(parameters, Collections.emptyList());
+		if(composition instanceof ConfiguredCaseComposition)
+			return ((ConfiguredCaseComposition)composition).permutations(parameters);
+
+		throw new IllegalArgumentException("Unsupported case composition: " + composition);
+	}
+
+	/* package */ static Subcase[][] compose(CaseComposition composition, Case[] baseCases) {
+		List<List<Subcase>> parameters = Arrays
+			.stream(baseCases)
+			.map((Function<Case, List<Subcase>>) c -> new ArrayList<Subcase>(c.getSubcases()))
+			.collect(Collectors.toList());
+
+		List<Subcase[]> subcases = new ArrayList<>();
+		for(Iterator<int[]> permutations = permutations(composition, parameters); permutations.hasNext(); ) {
+			int[] permutation = permutations.next();
+			Subcase[] suppliers = new Subcase[baseCases.length];
+			for(int j = 0; j < baseCases.length; j++) {
+				suppliers[j] = parameters.get(j).get(permutation[j]);
+			}
+			subcases.add(suppliers);
+		}
+
+		return subcases.toArray(new Subcase[subcases.size()][]);
+	}
+
+	/**
+	 * Builds the permutations of a list of parameters (such as the subcases of a set of base cases). Each permutation
+	 * is returned as an array holding, for each parameter, the index of the chosen value in that parameter's iteration
+	 * order. Permutations may be computed lazily, as they are requested, and must not violate any of the constraints.
+	 */
+	/* package */ interface Algorithm {
+		Iterator<int[]> apply(List<? extends Collection> parameters, List<Constraint> constraints);
+	}
 }
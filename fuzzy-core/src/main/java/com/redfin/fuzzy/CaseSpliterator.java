@@ -0,0 +1,70 @@
+package com.redfin.fuzzy;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * The spliterator behind {@link Case#stream(long, long)}. Element {@code k} is generated by subcase
+ * {@code k % subcases.length}, from a random number generator seeded with {@code seed} and {@code k} alone, so each
+ * element's value is the same however the stream is split, and splitting costs nothing but arithmetic.
+ */
+/*package*/ final class CaseSpliterator<T> implements Spliterator<T> {
+
+	private final Subcase<T>[] subcases;
+	private final long seed;
+	private final FuzzyRandom random = new FuzzyRandom(0);
+
+	private long index;
+	private final long fence;
+
+	/*package*/ CaseSpliterator(Subcase<T>[] subcases, long seed, long index, long fence) {
+		this.subcases = subcases;
+		this.seed = seed;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		FuzzyPreconditions.checkNotNull(action);
+
+		if(index >= fence)
+			return false;
+
+		action.accept(generate(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		FuzzyPreconditions.checkNotNull(action);
+
+		long i = index;
+		index = fence;
+		for(; i < fence; i++)
+			action.accept(generate(i));
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		long mid = index + (fence - index) / 2;
+		if(mid <= index)
+			return null;
+
+		Spliterator<T> prefix = new CaseSpliterator<>(subcases, seed, index, mid);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() { return fence - index; }
+
+	@Override
+	public int characteristics() { return ORDERED | SIZED | SUBSIZED | IMMUTABLE; }
+
+	private T generate(long i) {
+		random.setSeed(FuzzyRandom.seedFor(seed, i));
+		return subcases[(int)(i % subcases.length)].generate(random);
+	}
+
+}
@@ -1,7 +1,8 @@
 package com.redfin.fuzzy;
 
+import com.redfin.fuzzy.cases.MappedCase;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -55,6 +56,8 @@ public class Cases {
 	 *        for the individual algorithms for more information. In general, you should use
 	 *        {@link CaseCompositionMode#PAIRWISE_PERMUTATIONS_OF_SUBCASES} unless you experience performance issues.
 	 *        Use {@link CaseCompositionMode#EACH_SUBCASE_AT_LEAST_ONCE} to limit the total number of composed subcases.
+	 *        Use {@link CaseCompositionMode#tWise(int)} or {@link CaseComposition#withConstraints} for compositions
+	 *        that need further configuration.
 	 * @param baseCases - the cases that the overall case is comprised of.
 	 * @param composition - a function that produces an {@code OUTPUT} value based on the specific values chosen for
 	 *        each of the subcases. This function is supplied with the random number generator to use for the test as
@@ -67,7 +70,7 @@ public class Cases {
 	 * @return a case that can be used to generate values based on the composition function.
 	 */
 	public static <OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case[] baseCases,
 		BiFunction<Random, Object[], OUTPUT> composition
 	) {
@@ -75,23 +78,30 @@ public class Cases {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(baseCases);
 		FuzzyPreconditions.checkNotNull("composition function is required.", composition);
 
-		Subcase[][] composedSubcases = caseCompositionMode.algorithm.apply(baseCases);
-		Set<Subcase<OUTPUT>> subcases = new HashSet<>();
+		Subcase[][] composedSubcases = CaseCompositionMode.compose(caseCompositionMode, baseCases);
+		Set<Subcase<OUTPUT>> subcases = new LinkedHashSet<>();
 		for(final Subcase[] subcase : composedSubcases) {
-			subcases.add(r -> {
-				Object[] values = new Object[subcase.length];
-				for (int j = 0; j < subcase.length; j++) {
-					@SuppressWarnings("unchecked")
-					Subcase<?> supplier = (Subcase<?>) subcase[j];
-					values[j] = supplier.generate(r);
-				}
-				return composition.apply(r, values);
-			});
+			subcases.add(CompiledSubcase.combine(subcase, composition));
 		}
 
 		return () -> subcases;
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case[] baseCases,
+		BiFunction<Random, Object[], OUTPUT> composition
+	) {
+		return compose((CaseComposition)caseCompositionMode, baseCases, composition);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the subcases of the given base case. This can be useful for
 	 * quickly writing cases of complex objects that rely on various generators for their properties.
@@ -124,11 +134,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		TwoCaseCompositionFunction<INPUT1, INPUT2, OUTPUT> compositionFunction
@@ -143,16 +153,32 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		TwoCaseCompositionFunction<INPUT1, INPUT2, OUTPUT> compositionFunction
+	) {
+		return compose((CaseComposition)caseCompositionMode, baseCase1, baseCase2, compositionFunction);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -168,16 +194,33 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		ThreeCaseCompositionFunction<INPUT1, INPUT2, INPUT3, OUTPUT> compositionFunction
+	) {
+		return compose((CaseComposition)caseCompositionMode, baseCase1, baseCase2, baseCase3, compositionFunction);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -194,16 +237,38 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		FourCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4,
+			compositionFunction
+		);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -221,16 +286,39 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		FiveCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4, baseCase5,
+			compositionFunction
+		);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -249,16 +337,40 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5, INPUT6 input6);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		SixCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6,
+			compositionFunction
+		);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -278,16 +390,41 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5, INPUT6 input6, INPUT7 input7);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		SevenCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7,
+			compositionFunction
+		);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -308,16 +445,42 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5, INPUT6 input6, INPUT7 input7, INPUT8 input8);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		Case<INPUT8> baseCase8,
+		EightCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8,
+			compositionFunction
+		);
+	}
+
 	/**
 	 * Creates and returns a new case that is "composed" of the values returned by a collection of base cases, according
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CaseComposition, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CaseComposition caseCompositionMode,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -339,6 +502,33 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5, INPUT6 input6, INPUT7 input7, INPUT8 input8, INPUT9 input9);
 	}
 
+	/**
+	 * Composes cases with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as the
+	 * {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #compose(CaseComposition, Case[], BiFunction)
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		Case<INPUT8> baseCase8,
+		Case<INPUT9> baseCase9,
+		NineCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> compositionFunction
+	) {
+		return compose(
+			(CaseComposition)caseCompositionMode,
+			baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8, baseCase9,
+			compositionFunction
+		);
+	}
+
 	@SafeVarargs
 	public static <T> Case<T> of(Subcase<T>... subcases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(subcases);
@@ -350,7 +540,7 @@ public class Cases {
 	public static <T> Case<T> of(Supplier<T>... subcases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(subcases);
 
-		Set<Subcase<T>> subcasesSet = new HashSet<>(subcases.length);
+		Set<Subcase<T>> subcasesSet = new LinkedHashSet<>(subcases.length);
 		for(Supplier<T> supplier : subcases) {
 			subcasesSet.add(r -> supplier.get());
 		}
@@ -362,7 +552,7 @@ public class Cases {
 	public static <T> Case<T> of(T... literalCases) {
 		FuzzyPreconditions.checkNotNull(literalCases);
 
-		Set<Subcase<T>> subcases = new HashSet<>(literalCases.length);
+		Set<Subcase<T>> subcases = new LinkedHashSet<>(literalCases.length);
 		for(T t : literalCases) {
 			subcases.add(r -> t);
 		}
@@ -374,7 +564,7 @@ public class Cases {
 	public static <T> Case<T> ofDelegates(Supplier<Case<T>>... delegateCases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(delegateCases);
 
-		Set<Subcase<T>> subcases = new HashSet<>();
+		Set<Subcase<T>> subcases = new LinkedHashSet<>();
 		for(Supplier<Case<T>> delegate : delegateCases) {
 			subcases.addAll(delegate.get().getSubcases());
 		}
@@ -393,16 +583,7 @@ public class Cases {
 		FuzzyPreconditions.checkNotNull(original);
 		FuzzyPreconditions.checkNotNull(mapping);
 
-		return () -> {
-			Set<Subcase<T>> sourceSubcases = original.getSubcases();
-
-			Set<Subcase<U>> mappedSubcases = new HashSet<>(sourceSubcases.size());
-			for(Subcase<T> source : sourceSubcases) {
-				mappedSubcases.add(r -> mapping.apply(r, source.generate(r)));
-			}
-
-			return mappedSubcases;
-		};
+		return new MappedCase<>(original, mapping);
 	}
 
 }
@@ -0,0 +1,323 @@
+package com.redfin.fuzzy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A subcase that maps, filters or combines the values of other subcases, and that compiles itself, and all of the
+ * {@code CompiledSubcase}s beneath it, into a single <em>generation plan</em> once it has generated enough values.
+ *
+ * <p>The subcases of composed cases ({@link Cases#map}, {@link Cases#compose}, {@link Case#excluding} and the like)
+ * used to wrap one another in lambdas, so that generating a value from a deeply composed case passed through a chain of
+ * {@code generate} calls, one per layer, each of which the JIT sees with many different receivers and so cannot
+ * inline. A plan instead walks the tree of compositions once and builds a single method handle for all of it, which
+ * the JVM specializes for that plan: its leaf subcases, functions and predicates are constants in the specialized code,
+ * and can be inlined into it.
+ * </p>
+ * <p>Building a plan costs far more than generating a value, so a subcase only compiles itself after
+ * {@value #COMPILE_THRESHOLD} values (or when {@link #compile()} is called); until then, it evaluates its tree
+ * directly. Subcases that tests only use a few times are never compiled, and neither are the subcases beneath a
+ * compiled one, whose plan already contains theirs.
+ * </p>
+ * <p>Both ways of generating a value call the leaves, functions and predicates in exactly the order that the
+ * equivalent nested subcases would, so compiling a case does not change the values it generates for a given seed.
+ * </p>
+ *
+ * @param <T> the type of value generated by the subcase.
+ */
+public final class CompiledSubcase<T> implements Subcase<T> {
+
+	/**
+	 * The number of values a subcase generates before it compiles itself.
+	 */
+	public static final int COMPILE_THRESHOLD = 1000;
+
+	private static final int MAX_FILTER_ATTEMPTS = 100;
+
+	private static final byte MAP = 0;
+	private static final byte MAP_OUTPUT = 1;
+	private static final byte FILTER = 2;
+	private static final byte COMBINE2 = 3;
+	private static final byte COMBINE = 4;
+
+	private static final MethodType PLAN_TYPE = MethodType.methodType(Object.class, Random.class);
+
+	private static final MethodHandle GENERATE_HANDLE;
+	private static final MethodHandle MAP_HANDLE;
+	private static final MethodHandle MAP_OUTPUT_HANDLE;
+	private static final MethodHandle FILTER_HANDLE;
+	private static final MethodHandle COMBINE2_HANDLE;
+	private static final MethodHandle COMBINE_HANDLE;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodType apply = MethodType.methodType(Object.class, Object.class, Object.class);
+
+			GENERATE_HANDLE = lookup.findVirtual(Subcase.class, "generate", PLAN_TYPE);
+			MAP_HANDLE = lookup.findVirtual(BiFunction.class, "apply", apply)
+				.asType(MethodType.methodType(Object.class, BiFunction.class, Random.class, Object.class));
+			MAP_OUTPUT_HANDLE = lookup.findVirtual(
+				Function.class,
+				"apply",
+				MethodType.methodType(Object.class, Object.class)
+			);
+			FILTER_HANDLE = lookup.findStatic(
+				CompiledSubcase.class,
+				"filter",
+				MethodType.methodType(Object.class, MethodHandle.class, Filter.class, Random.class)
+			);
+			COMBINE2_HANDLE = lookup.findVirtual(
+				Subcases.BiPermutedSupplierFunction.class,
+				"generate",
+				MethodType.methodType(Object.class, Random.class, Object.class, Object.class)
+			);
+			COMBINE_HANDLE = lookup.findVirtual(BiFunction.class, "apply", apply)
+				.asType(MethodType.methodType(Object.class, BiFunction.class, Random.class, Object[].class));
+		}
+		catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final byte operation;
+	private final Object function;
+	private final Subcase<?>[] sources;
+	private final int size;
+
+	// Neither field needs to be volatile: a method handle is immutable, so a thread that sees a stale null only
+	// compiles the plan again, and a stale count only delays compilation.
+	private MethodHandle plan;
+	private int calls;
+
+	private CompiledSubcase(byte operation, Object function, Subcase<?>... sources) {
+		this.operation = operation;
+		this.function = function;
+		this.sources = sources;
+
+		int size = 1;
+		for(Subcase<?> source : sources)
+			size += source instanceof CompiledSubcase ? ((CompiledSubcase<?>) source).size : 1;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a subcase that generates a value from {@code source} and returns the result of applying {@code mapping}
+	 * to it.
+	 */
+	public static <T, R> CompiledSubcase<R> map(
+		Subcase<T> source,
+		BiFunction<Random, ? super T, ? extends R> mapping
+	) {
+		FuzzyPreconditions.checkNotNull(source);
+		FuzzyPreconditions.checkNotNull(mapping);
+		return new CompiledSubcase<>(MAP, mapping, source);
+	}
+
+	/**
+	 * Returns a subcase that generates a value from {@code source} and returns the result of applying {@code mapping}
+	 * to it.
+	 */
+	public static <T, R> CompiledSubcase<R> map(Subcase<T> source, Function<? super T, ? extends R> mapping) {
+		FuzzyPreconditions.checkNotNull(source);
+		FuzzyPreconditions.checkNotNull(mapping);
+		return new CompiledSubcase<>(MAP_OUTPUT, mapping, source);
+	}
+
+	/**
+	 * Returns a subcase that generates values from {@code source} until one satisfies {@code predicate}, and returns
+	 * it. After 100 rejected values, the subcase throws the exception returned by {@code failure}.
+	 */
+	public static <T> CompiledSubcase<T> filter(
+		Subcase<T> source,
+		Predicate<? super T> predicate,
+		Supplier<? extends RuntimeException> failure
+	) {
+		FuzzyPreconditions.checkNotNull(source);
+		FuzzyPreconditions.checkNotNull(predicate);
+		FuzzyPreconditions.checkNotNull(failure);
+		return new CompiledSubcase<>(FILTER, new Filter(predicate, failure), source);
+	}
+
+	/**
+	 * Returns a subcase that generates a value from each of {@code first} and {@code second}, in that order, and
+	 * returns the result of applying {@code combination} to them.
+	 */
+	public static <T, U, R> CompiledSubcase<R> combine(
+		Subcase<T> first,
+		Subcase<U> second,
+		Subcases.BiPermutedSupplierFunction<T, U, R> combination
+	) {
+		FuzzyPreconditions.checkNotNull(first);
+		FuzzyPreconditions.checkNotNull(second);
+		FuzzyPreconditions.checkNotNull(combination);
+		return new CompiledSubcase<>(COMBINE2, combination, first, second);
+	}
+
+	/**
+	 * Returns a subcase that generates a value from each of {@code sources}, in order, and returns the result of
+	 * applying {@code combination} to an array of them.
+	 */
+	public static <R> CompiledSubcase<R> combine(
+		Subcase<?>[] sources,
+		BiFunction<Random, Object[], ? extends R> combination
+	) {
+		FuzzyPreconditions.checkNotNullAndContainsNoNulls(sources);
+		FuzzyPreconditions.checkNotNull(combination);
+		return new CompiledSubcase<>(COMBINE, combination, sources.clone());
+	}
+
+	/**
+	 * Returns the number of operations (leaf subcases, mappings, filters and combinations) in this subcase's plan.
+	 */
+	public int size() { return size; }
+
+	/**
+	 * Returns {@code true} if this subcase has compiled its plan.
+	 */
+	public boolean isCompiled() { return plan != null; }
+
+	/**
+	 * Compiles this subcase's plan now, rather than after {@value #COMPILE_THRESHOLD} values, and returns this subcase.
+	 * Code that is about to generate many values from a subcase (for example, to fill a large data set) can call this
+	 * to start with the compiled plan.
+	 */
+	public CompiledSubcase<T> compile() {
+		if(plan == null)
+			plan = planOf(this);
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T generate(Random random) {
+		MethodHandle plan = this.plan;
+		if(plan == null) {
+			if(calls < COMPILE_THRESHOLD) {
+				calls++;
+				return (T) evaluate(random);
+			}
+			plan = compile().plan;
+		}
+
+		try {
+			return (T) plan.invokeExact(random);
+		}
+		catch(RuntimeException | Error e) {
+			throw e;
+		}
+		catch(Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	/** Generates a value by walking the tree of compositions, without counting towards compilation. */
+	@SuppressWarnings("unchecked")
+	/*package*/ Object evaluate(Random random) {
+		switch(operation) {
+			case MAP:
+				return ((BiFunction<Random, Object, Object>) function).apply(random, evaluate(sources[0], random));
+			case MAP_OUTPUT:
+				return ((Function<Object, Object>) function).apply(evaluate(sources[0], random));
+			case FILTER: {
+				Filter filter = (Filter) function;
+				for(int i = 0; i < MAX_FILTER_ATTEMPTS; i++) {
+					Object t = evaluate(sources[0], random);
+					if(filter.predicate.test(t)) {
+						return t;
+					}
+				}
+				throw filter.failure.get();
+			}
+			case COMBINE2: {
+				Object first = evaluate(sources[0], random);
+				Object second = evaluate(sources[1], random);
+				return ((Subcases.BiPermutedSupplierFunction<Object, Object, Object>) function)
+					.generate(random, first, second);
+			}
+			case COMBINE: {
+				Object[] values = new Object[sources.length];
+				for(int i = 0; i < sources.length; i++)
+					values[i] = evaluate(sources[i], random);
+				return ((BiFunction<Random, Object[], Object>) function).apply(random, values);
+			}
+			default:
+				throw new IllegalStateException("Unknown operation " + operation + ".");
+		}
+	}
+
+	private static Object evaluate(Subcase<?> source, Random random) {
+		return source instanceof CompiledSubcase ? ((CompiledSubcase<?>) source).evaluate(random) : source.generate(random);
+	}
+
+	/** Builds a method handle of type {@code (Random)Object} that generates the source's values. */
+	private static MethodHandle planOf(Subcase<?> source) {
+		if(!(source instanceof CompiledSubcase))
+			return GENERATE_HANDLE.bindTo(source);
+
+		CompiledSubcase<?> compiled = (CompiledSubcase<?>) source;
+		if(compiled.plan != null)
+			return compiled.plan;
+
+		Subcase<?>[] sources = compiled.sources;
+		switch(compiled.operation) {
+			case MAP: {
+				// function.apply(r, source(r))
+				MethodHandle apply = MAP_HANDLE.bindTo(compiled.function);
+				apply = MethodHandles.collectArguments(apply, 1, planOf(sources[0]));
+				return MethodHandles.permuteArguments(apply, PLAN_TYPE, 0, 0);
+			}
+			case MAP_OUTPUT:
+				// function.apply(source(r))
+				return MethodHandles.filterReturnValue(planOf(sources[0]), MAP_OUTPUT_HANDLE.bindTo(compiled.function));
+			case FILTER:
+				return MethodHandles.insertArguments(FILTER_HANDLE, 0, planOf(sources[0]), compiled.function);
+			case COMBINE2: {
+				// function.generate(r, first(r), second(r)); the outermost collected argument is evaluated first.
+				MethodHandle generate = COMBINE2_HANDLE.bindTo(compiled.function);
+				generate = MethodHandles.collectArguments(generate, 2, planOf(sources[1]));
+				generate = MethodHandles.collectArguments(generate, 1, planOf(sources[0]));
+				return MethodHandles.permuteArguments(generate, PLAN_TYPE, 0, 0, 0);
+			}
+			case COMBINE: {
+				// function.apply(r, new Object[] { sources[0](r), sources[1](r), ... })
+				MethodHandle apply = COMBINE_HANDLE.bindTo(compiled.function).asCollector(Object[].class, sources.length);
+				for(int i = sources.length - 1; i >= 0; i--)
+					apply = MethodHandles.collectArguments(apply, i + 1, planOf(sources[i]));
+				return MethodHandles.permuteArguments(apply, PLAN_TYPE, new int[sources.length + 1]);
+			}
+			default:
+				throw new IllegalStateException("Unknown operation " + compiled.operation + ".");
+		}
+	}
+
+	@SuppressWarnings("unused") // Called through FILTER_HANDLE.
+	private static Object filter(MethodHandle source, Filter filter, Random random) throws Throwable {
+		for(int i = 0; i < MAX_FILTER_ATTEMPTS; i++) {
+			Object t = source.invokeExact(random);
+			if(filter.predicate.test(t)) {
+				return t;
+			}
+		}
+		throw filter.failure.get();
+	}
+
+	private static final class Filter {
+		private final Predicate<Object> predicate;
+		private final Supplier<? extends RuntimeException> failure;
+
+		@SuppressWarnings("unchecked")
+		private Filter(Predicate<?> predicate, Supplier<? extends RuntimeException> failure) {
+			this.predicate = (Predicate<Object>) predicate;
+			this.failure = failure;
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.redfin.fuzzy;
+
+import com.redfin.fuzzy.pairwise.Constraint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A case composition that goes beyond one of the plain {@linkplain CaseCompositionMode modes}: a t-wise composition
+ * of a strength above two, or any composition with constraints.
+ */
+/*package*/ final class ConfiguredCaseComposition implements CaseComposition {
+
+	private final String name;
+	private final CaseCompositionMode.Algorithm algorithm;
+	private final List<Constraint> constraints;
+
+	/*package*/ ConfiguredCaseComposition(String name, CaseCompositionMode.Algorithm algorithm) {
+		this(name, algorithm, Collections.emptyList());
+	}
+
+	private ConfiguredCaseComposition(
+		String name,
+		CaseCompositionMode.Algorithm algorithm,
+		List<Constraint> constraints
+	) {
+		this.name = name;
+		this.algorithm = algorithm;
+		this.constraints = constraints;
+	}
+
+	@Override
+	public CaseComposition withConstraints(Constraint... constraints) {
+		FuzzyPreconditions.checkNotNullAndContainsNoNulls(constraints);
+
+		List<Constraint> combined = new ArrayList<>(this.constraints);
+		combined.addAll(Arrays.asList(constraints));
+		return new ConfiguredCaseComposition(name, algorithm, Collections.unmodifiableList(combined));
+	}
+
+	/*package*/ Iterator<int[]> permutations(List<? extends Collection> parameters) {
+		return algorithm.apply(parameters, constraints);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof ConfiguredCaseComposition)) return false;
+
+		ConfiguredCaseComposition other = (ConfiguredCaseComposition)o;
+		return name.equals(other.name) && constraints.equals(other.constraints);
+	}
+
+	@Override
+	public int hashCode() { return name.hashCode() * 31 + constraints.hashCode(); }
+
+	@Override
+	public String toString() {
+		return constraints.isEmpty() ? name : name + " with " + constraints.size() + " constraint(s)";
+	}
+
+}
@@ -1,12 +1,13 @@
 package com.redfin.fuzzy;
 
-import com.redfin.fuzzy.pairwise.Pairwise;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Stack;
 
 /**
  * The principal engine of the fuzzy evaluation workflow.
@@ -16,7 +17,8 @@ import java.util.Stack;
  * context manually.
  * </p>
  * <p>The context is backed by state stored in a thread local and therefore any generators must be initialized on the
- * same thread where {@code Context.init} is executed.
+ * same thread where {@code Context.init} is executed. Iterations after the first may be run on other threads by
+ * {@linkplain #fork() forking} them.
  * </p>
  *
  * <p>Example usage:</p>
@@ -55,14 +57,63 @@ public class Context {
 	 * @param randomSeed the seed to use for all randomized calls for this test; setting the seed consistently makes the
 	  *       randomization deterministic across different test passes.
 	 */
+	public static void init(CaseComposition caseCompositionMode, long randomSeed) {
+		init(caseCompositionMode, randomSeed, 0);
+	}
+
+	/**
+	 * Initializes the context with one of the plain {@linkplain CaseCompositionMode case composition modes}, exactly as
+	 * the {@link CaseComposition} overload does. Kept so that code compiled against versions that only accepted a mode
+	 * still links.
+	 *
+	 * @see #init(CaseComposition, long)
+	 */
 	public static void init(CaseCompositionMode caseCompositionMode, long randomSeed) {
-		if(CONTEXT.get() != null)
-			throw CONTEXT.get().newReinitializedException();
+		init((CaseComposition)caseCompositionMode, randomSeed);
+	}
 
-		Context c = new Context(caseCompositionMode);
-		c.random.setSeed(randomSeed);
+	/**
+	 * Initializes the context in preparation for running a single test, starting directly at the given iteration. Each
+	 * iteration draws its random values from its own seed, derived from {@code randomSeed} and the iteration's index, so
+	 * an iteration produces exactly the same values whether or not the iterations before it were run. Use this to
+	 * reproduce a failure reported for a specific iteration (see {@link #currentIteration()}) without running the
+	 * iterations that preceded it.
+	 *
+	 * @param caseCompositionMode the algorithm {@code Context} should use to build permutations of the test variables.
+	 * @param randomSeed the seed to use for all randomized calls for this test.
+	 * @param startAtIteration the zero-based index of the first iteration to run. Cannot be negative; if the test has
+	 *        fewer iterations, reading the first generator will fail.
+	 */
+	public static void init(CaseComposition caseCompositionMode, long randomSeed, int startAtIteration) {
+		init(caseCompositionMode, randomSeed, startAtIteration, Shard.ALL);
+	}
 
-		CONTEXT.set(c);
+	/**
+	 * Initializes the context in preparation for running a single shard of a test: only the iterations that belong to
+	 * the given shard are run, and the rest are skipped without generating any values. Running every shard of a test
+	 * (with the same seed) runs exactly the iterations an unsharded run would, each with the same values.
+	 *
+	 * <p>If none of the test's iterations belong to the shard, reading the first generator throws an
+	 * {@link EmptyShardException}; test framework integrations should report the test as skipped.
+	 * </p>
+	 *
+	 * @param caseCompositionMode the algorithm {@code Context} should use to build permutations of the test variables.
+	 * @param randomSeed the seed to use for all randomized calls for this test.
+	 * @param startAtIteration the zero-based index of the first iteration to consider. Cannot be negative.
+	 * @param shard the shard whose iterations should run. Cannot be {@code null}.
+	 */
+	public static void init(CaseComposition caseCompositionMode, long randomSeed, int startAtIteration, Shard shard) {
+		if(CONTEXT.get() != null)
+			throw CONTEXT.get().newReinitializedException();
+		if(startAtIteration < 0)
+			throw new IllegalArgumentException("The first iteration cannot be negative.");
+
+		CONTEXT.set(new Context(
+			caseCompositionMode,
+			randomSeed,
+			startAtIteration,
+			FuzzyPreconditions.checkNotNull("A shard is required.", shard)
+		));
 	}
 
 	/**
@@ -73,22 +124,98 @@ public class Context {
 		Context c = CONTEXT.get();
 		if(c == null)
 			throw newUninitializedException();
-		if(c.iterations == null || c.iterations.size() == 0)
+		if(c.iteration == null)
 			return false;
-		else if(c.iterations.size() > 1) {
+
+		Iteration[] next = c.nextIteration();
+		if(next != null) {
 			c.previousGenerators = c.generators;
-			c.generators = new HashMap<>();
+			c.generators = new LinkedHashMap<>();
 			c.locked = false;
-			c.iterations.pop();
+			c.iteration = next;
 
 			return true;
 		}
-		else { // c.iterations.size == 1
-			c.iterations.pop();
+		else {
+			// The plan is exhausted; let go of it rather than holding it until cleanUp(). The subcases are kept, so that
+			// the plan can still be captured.
+			c.iteration = null;
+			c.permutations = Collections.emptyIterator();
 			return false;
 		}
 	}
 
+	/**
+	 * Detaches the test's next iteration, so that it can be run on another thread, and returns {@code null} if there
+	 * are no more iterations. Forking lets independent iterations of a test run concurrently: the test's first iteration
+	 * runs on this thread as usual, which declares its generators and plans the rest of the iterations; after that,
+	 * each fork can be {@linkplain Fork#enter() entered} on any thread to run exactly one of the remaining iterations.
+	 *
+	 * <p>A fork's values are drawn from the same per-iteration seed as they would be by {@link #next()}, so every
+	 * iteration produces the same values whether it is run here or in a fork. The generators declared in a fork must be
+	 * consistent with those declared in the first iteration, exactly as they must be when calling {@code next()}.
+	 * </p>
+	 */
+	public static Fork fork() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+		if(c.iteration == null)
+			return null;
+
+		int[] permutation = c.nextPermutationInShard();
+		return permutation == null ? null : new Fork(new Context(c, permutation, c.lastPlannedIndex));
+	}
+
+	/**
+	 * A single iteration of a test, detached from the context that planned it by {@link Context#fork()}.
+	 */
+	public static final class Fork {
+		private final Context context;
+
+		private boolean entered;
+		private Context replaced;
+
+		private Fork(Context context) {
+			this.context = context;
+		}
+
+		/**
+		 * Returns the zero-based index of the iteration this fork runs, as reported by {@link Context#currentIteration()}.
+		 */
+		public int getIteration() { return context.iterationIndex; }
+
+		/**
+		 * Makes this fork's iteration the current thread's context, until {@link #exit()} is called. Generators created
+		 * on this thread in the meantime get their values from this iteration, and {@link Context#report()} describes
+		 * them. A fork may be entered again after exiting it (for example, on a different thread, in order to report
+		 * on the values that were generated); its values are generated only once.
+		 */
+		public void enter() {
+			if(entered)
+				throw new IllegalStateException("This fork of the fuzzy context has already been entered.");
+
+			entered = true;
+			replaced = CONTEXT.get();
+			CONTEXT.set(context);
+		}
+
+		/**
+		 * Restores the current thread's context to whatever it was before {@link #enter()} was called.
+		 */
+		public void exit() {
+			if(!entered)
+				throw new IllegalStateException("This fork of the fuzzy context has not been entered.");
+
+			entered = false;
+			if(replaced == null)
+				CONTEXT.remove();
+			else
+				CONTEXT.set(replaced);
+			replaced = null;
+		}
+	}
+
 	/**
 	 * Marks the completion of a single test execution and all iterations. {@code remove} must be called before
 	 * {@code init} can be called for the next test.
@@ -97,6 +224,121 @@ public class Context {
 		CONTEXT.remove();
 	}
 
+	/**
+	 * Returns the zero-based index of the current iteration among all of the test's iterations (including any that were
+	 * skipped with {@link #init(CaseComposition, long, int) startAtIteration}), or {@code -1} if no generator has
+	 * been read yet.
+	 */
+	public static int currentIteration() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+
+		return c.iteration == null ? -1 : c.iterationIndex;
+	}
+
+	/**
+	 * Returns the plan of the test's iterations, which can be {@linkplain #reusePlan(FuzzyPlan) reused} by later runs of
+	 * the same test to skip planning, or {@code null} if the test has not been planned yet (because no generator has
+	 * been read) or has no generators. The plan can be captured at any time after the first generator has been read,
+	 * including after the last iteration.
+	 *
+	 * <p>If the test {@linkplain #recordPlan() recorded its plan}, the plan is built from the permutations the test has
+	 * already taken, followed by the ones it has yet to take. Otherwise, the case composition is run again to build it.
+	 * </p>
+	 *
+	 * @see FuzzyPlan
+	 */
+	public static FuzzyPlan capturePlan() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+		if(c.variables == null)
+			return null;
+
+		if(c.plan == null) {
+			Iterator<int[]> permutations;
+			if(c.recordedPermutations != null) {
+				// Take the rest of the permutations now, and let the test carry on from the recorded copies.
+				List<int[]> recorded = c.recordedPermutations;
+				while(c.permutations.hasNext())
+					recorded.add(c.permutations.next());
+				c.permutations = recorded.subList(c.lastPlannedIndex + 1, recorded.size()).iterator();
+				c.recordedPermutations = null;
+				permutations = recorded.iterator();
+			}
+			else {
+				permutations = CaseCompositionMode.permutations(c.caseCompositionMode, c.variables);
+			}
+
+			c.plan = new FuzzyPlan(c.caseCompositionMode, c.plannedGenerators, c.variables, permutations);
+		}
+
+		return c.plan;
+	}
+
+	/**
+	 * Keeps every permutation the test takes from its case composition, so that {@link #capturePlan()} can build the
+	 * plan from them instead of running the composition a second time. Without this, only the current iteration's
+	 * permutation is held in memory; call it when the plan will be captured. Must be called after {@code init}, before
+	 * any generator is read. Has no effect if the test {@linkplain #reusePlan(FuzzyPlan) reuses a plan}.
+	 */
+	public static void recordPlan() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+		if(c.permutations != null)
+			throw new IllegalStateException("A plan can only be recorded before the test has read any generators.");
+
+		c.recordingPlan = true;
+	}
+
+	/**
+	 * Plans the current test with a plan captured by an earlier run of the same test, rather than getting the
+	 * subcases of its generators' cases and running the case composition mode again. Must be called after
+	 * {@code init}, before any generator is read.
+	 *
+	 * <p>When the first generator is read, the plan is only reused if it was built with the context's case composition
+	 * mode, for generators with the same names and case types as the ones the test has declared; otherwise, the test is
+	 * planned as usual. See {@link FuzzyPlan} for the assumptions this makes.
+	 * </p>
+	 *
+	 * @param plan the plan to reuse. Cannot be {@code null}.
+	 */
+	public static void reusePlan(FuzzyPlan plan) {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+		if(c.permutations != null)
+			throw new IllegalStateException("A plan can only be reused before the test has read any generators.");
+
+		c.reusablePlan = FuzzyPreconditions.checkNotNull("A plan is required.", plan);
+	}
+
+	/**
+	 * Returns the shard of the test's iterations that this context runs.
+	 */
+	public static Shard shard() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+
+		return c.shard;
+	}
+
+	/**
+	 * Returns the total number of iterations planned for the test, including those skipped because they belong to
+	 * other shards or precede the first iteration, or {@code -1} if the context has not reached the end of the plan
+	 * yet. Once a test has finished, the sum of the iterations run by each of its shards should equal this number.
+	 */
+	public static int plannedIterations() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+
+		return c.plannedIterations;
+	}
+
 	/**
 	 * Returns a map of the objects that have been chosen for the various generators created by the current test
 	 * iteration. Useful for collecting debugging information.
@@ -107,11 +349,11 @@ public class Context {
 			throw newUninitializedException();
 
 		Map<Generator, Object> res = new HashMap<>();
-		if(c.iterations != null && !c.iterations.isEmpty())
-			for(Map.Entry<Generator, Iteration> variable : c.iterations.peek().entrySet()) {
-				Iteration i = variable.getValue();
-				if(i.generated)
-					res.put(variable.getKey(), i.getCurrent());
+		if(c.iteration != null)
+			for(int ordinal = 0; ordinal < c.iteration.length; ordinal++) {
+				Iteration i = c.iteration[ordinal];
+				if(i.isGenerated())
+					res.put(c.generatorsByOrdinal[ordinal], i.getCurrent());
 			}
 
 		return res;
@@ -131,16 +373,16 @@ public class Context {
 	 */
 	public static void reportTo(StringBuilder sb) {
 		Context c = CONTEXT.get();
-		if(c == null || c.iterations == null || c.iterations.isEmpty())
+		if(c == null || c.iteration == null)
 			return;
 
-		for(Map.Entry<Generator, Iteration> variable : c.iterations.peek().entrySet()) {
-			Iteration i = variable.getValue();
-			if(i.generated) {
+		for(int ordinal = 0; ordinal < c.iteration.length; ordinal++) {
+			Iteration i = c.iteration[ordinal];
+			if(i.isGenerated()) {
 				sb.append("  ");
 				i.describeTo(sb);
 				sb.append(" from generator ");
-				sb.append(variable.getKey().getName());
+				sb.append(c.generatorsByOrdinal[ordinal].getName());
 				sb.append('\n');
 			}
 		}
@@ -161,28 +403,86 @@ public class Context {
 		}
 	}
 
-	private Context(CaseCompositionMode caseCompositionMode) {
+	private Context(CaseComposition caseCompositionMode, long seed, int startAtIteration, Shard shard) {
 		this.caseCompositionMode = FuzzyPreconditions.checkNotNull(
 			"A case composition mode is required.",
 			caseCompositionMode
 		);
+		this.seed = seed;
+		this.startAtIteration = startAtIteration;
+		this.shard = shard;
 
-		contextInitTrace = Thread.currentThread().getStackTrace();
+		contextInitTrace = StackCapture.capture();
 	}
 
-	private final Random random = new Random();
-	private final CaseCompositionMode caseCompositionMode;
-	private final StackTraceElement[] contextInitTrace;
+	/**
+	 * Creates the context for a {@linkplain #fork() fork}, which shares its parent's plan but runs only the given
+	 * iteration.
+	 */
+	private Context(Context parent, int[] permutation, int iterationIndex) {
+		caseCompositionMode = parent.caseCompositionMode;
+		seed = parent.seed;
+		startAtIteration = parent.startAtIteration;
+		shard = parent.shard;
+		contextInitTrace = parent.contextInitTrace;
+		lockTrace = parent.lockTrace;
+
+		variables = parent.variables;
+		generatorsByOrdinal = parent.generatorsByOrdinal;
+		ordinals = parent.ordinals;
+		plan = parent.plan;
+		plannedGenerators = parent.plannedGenerators;
+		previousGenerators = parent.plannedGenerators;
+		permutations = Collections.emptyIterator();
+
+		this.iterationIndex = iterationIndex;
+		iteration = iterationFor(permutation);
+	}
+
+	private final Random random = new FuzzyRandom();
+	private final CaseComposition caseCompositionMode;
+	private final long seed;
+	private final int startAtIteration;
+	private final Shard shard;
+	private final StackCapture contextInitTrace;
 
 	private boolean locked;
-	private StackTraceElement[] lockTrace;
+	private StackCapture lockTrace;
 
 	private Map<Generator, Case[]> previousGenerators;
-	private Map<Generator, Case[]> generators = new HashMap<>();
-
-	private Stack<Map<Generator, Iteration>> iterations;
+	// The generators declared by the first iteration, which planned the test.
+	private Map<Generator, Case[]> plannedGenerators;
+	// Kept in registration order, which is how case composition constraints refer to generators.
+	private Map<Generator, Case[]> generators = new LinkedHashMap<>();
+
+	// Permutations are pulled from the composition mode one iteration at a time, as the test advances, so only the
+	// current iteration is ever held in memory; until the first generator is read, there is no iterator at all.
+	// Variables hold the subcases of each generator, by ordinal.
+	private List<List<Subcase<?>>> variables;
+	private Generator[] generatorsByOrdinal;
+	private Iterator<int[]> permutations;
+
+	private FuzzyPlan reusablePlan;
+	private FuzzyPlan plan;
+	// Every permutation taken so far, if the test is recording its plan and has not captured it yet.
+	private boolean recordingPlan;
+	private List<int[]> recordedPermutations;
+
+	// The current iteration's values, indexed by generator ordinal (see register). Once the test cases have been
+	// planned, the ordinals of the first iteration's generators are fixed, and later generators are matched to them by
+	// name.
+	private Iteration[] iteration;
+	private int iterationIndex = -1;
+	// The index of the last iteration taken from the plan, either by next() or by fork().
+	private int lastPlannedIndex = -1;
+	private int plannedIterations = -1;
+	private Map<Generator, Integer> ordinals;
 
-	/*package*/ <T> void register(Generator<T> generator, Case<?>[] cases) {
+	/**
+	 * Registers a generator for the current iteration, and returns its ordinal: the slot that holds its value in every
+	 * iteration. Returns {@code -1} if the generator was not part of the first iteration; reading it will fail.
+	 */
+	/*package*/ <T> int register(Generator<T> generator, Case<?>[] cases) {
 		FuzzyPreconditions.checkNotNull(generator);
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(cases);
 
@@ -194,26 +494,59 @@ public class Context {
 		}
 
 		generators.put(generator, cases);
+
+		if(ordinals == null)
+			return generators.size() - 1;
+
+		Integer ordinal = ordinals.get(generator);
+		return ordinal == null ? -1 : ordinal;
 	}
 
-	/*package*/ <T> T currentValue(Generator<T> generator) {
+	/**
+	 * Returns the generator of the iteration that planned the test that the given generator of a later iteration stands
+	 * for, or {@code null} if the test hasn't been planned yet or the generator wasn't part of it.
+	 */
+	/*package*/ Generator<?> plannedGenerator(Generator<?> generator) {
+		Integer ordinal = ordinals == null ? null : ordinals.get(generator);
+		return ordinal == null ? null : generatorsByOrdinal[ordinal];
+	}
+
+	/*package*/ <T> T currentValue(Generator<T> generator, int ordinal) {
+		@SuppressWarnings("unchecked")
+		T value = (T)currentIteration(generator, ordinal).get(random);
+		return value;
+	}
+
+	/*package*/ int currentInt(Generator<?> generator, int ordinal) {
+		return currentIteration(generator, ordinal).getInt(random);
+	}
+
+	/*package*/ long currentLong(Generator<?> generator, int ordinal) {
+		return currentIteration(generator, ordinal).getLong(random);
+	}
+
+	/*package*/ double currentDouble(Generator<?> generator, int ordinal) {
+		return currentIteration(generator, ordinal).getDouble(random);
+	}
+
+	private Iteration currentIteration(Generator<?> generator, int ordinal) {
 		lock();
 
-		Iteration i = iterations.peek().get(generator);
-		if(i == null)
+		Iteration[] current = iteration;
+		if(current == null || ordinal < 0 || ordinal >= current.length)
 			throw newUnregisteredGeneratorException(generator);
 
-		@SuppressWarnings("unchecked")
-		T value = (T)i.get(random);
-		return value;
+		return current[ordinal];
 	}
 
 	/*package*/ void lock() {
 		if(!locked) {
 			locked = true;
-			lockTrace = Thread.currentThread().getStackTrace();
+			// Every iteration locks the context at the same point of the test, so only the first one records it.
+			if(lockTrace == null)
+				lockTrace = StackCapture.capture();
 
-			if (iterations == null) {
+			if (permutations == null) {
 				generateTestCases();
 			}
 			else {
@@ -240,60 +573,111 @@ public class Context {
 	}
 
 	private void generateTestCases() {
-		iterations = new Stack<>();
-
-		if(generators.isEmpty())
+		if(generators.isEmpty()) {
+			permutations = Collections.emptyIterator();
 			return;
-
-		List<Variable> variables = new ArrayList<>();
-		for(Map.Entry<Generator, Case[]> generator : generators.entrySet()) {
-			variables.add(new Variable(generator.getKey(), generator.getValue()));
 		}
 
-		if(!variables.isEmpty()) {
-			if (caseCompositionMode.equals(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES)) {
-				generatePairwiseTestCases(variables);
-			} else if (caseCompositionMode.equals(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE)) {
-				generateEachSubcaseAtLeastOnceCases(variables);
-			} else {
-				throw new IllegalStateException("Unexpected caseCompositionMode " + caseCompositionMode);
+		plannedGenerators = generators;
+		generatorsByOrdinal = generators.keySet().toArray(new Generator[0]);
+		ordinals = new HashMap<>();
+		for(int ordinal = 0; ordinal < generatorsByOrdinal.length; ordinal++)
+			ordinals.put(generatorsByOrdinal[ordinal], ordinal);
+
+		if(reusablePlan != null && reusablePlan.matches(caseCompositionMode, generators)) {
+			plan = reusablePlan;
+			variables = plan.subcases();
+			permutations = plan.permutations();
+		}
+		else {
+			variables = new ArrayList<>(generators.size());
+			for(Case[] cases : generators.values()) {
+				List<Subcase<?>> subcases = new ArrayList<>();
+				for(Case<?> c : cases)
+					subcases.addAll(c.getSubcases());
+				variables.add(subcases);
 			}
+
+			permutations = CaseCompositionMode.permutations(caseCompositionMode, variables);
+			if(recordingPlan)
+				recordedPermutations = new ArrayList<>();
+		}
+		reusablePlan = null;
+
+		iteration = nextIteration();
+		if(iteration == null && (plannedIterations > 0 || startAtIteration > 0)) {
+			if(startAtIteration >= plannedIterations)
+				throw newIterationOutOfRangeException(plannedIterations);
+			else
+				throw newEmptyShardException();
 		}
 	}
 
-	private void generatePairwiseTestCases(List<Variable> variables) {
-		Pairwise<Variable> permuter = new Pairwise<>(variables);
-		Stack<List<Object>> permutations = permuter.generate();
+	/**
+	 * Returns the next iteration of this context's shard, or {@code null} if there are no more.
+	 */
+	private Iteration[] nextIteration() {
+		int[] permutation = nextPermutationInShard();
+		if(permutation == null)
+			return null;
 
-		// Map the permutations back to something a bit more useful.
-		for(List<Object> permutation : permutations) {
-			Map<Generator, Iteration> wholeIteration = new HashMap<>(variables.size());
-			iterations.push(wholeIteration);
+		iterationIndex = lastPlannedIndex;
+		return iterationFor(permutation);
+	}
 
-			for(int i = 0; i < variables.size(); i++) {
-				@SuppressWarnings("unchecked")
-				Subcase<?> supplier = (Subcase<?>) permutation.get(i);
+	/**
+	 * Takes permutations from the plan until one belongs to this context's shard, and returns it, or returns {@code null}
+	 * (having counted the plan's iterations) if the plan is exhausted.
+	 */
+	private int[] nextPermutationInShard() {
+		// Skipping iterations only costs their permutations; no values are generated for them.
+		while(permutations.hasNext()) {
+			int[] permutation = permutations.next();
+			if(recordedPermutations != null)
+				recordedPermutations.add(permutation);
+			int index = ++lastPlannedIndex;
+			if(index >= startAtIteration && shard.contains(index))
+				return permutation;
+		}
 
-				Variable sourceVar = variables.get(i);
-				Iteration iteration = new Iteration(supplier);
+		plannedIterations = lastPlannedIndex + 1;
+		return null;
+	}
 
-				wholeIteration.put(sourceVar.g, iteration);
-			}
+	private Iteration[] iterationFor(int[] permutation) {
+		// Map the permutation back to something a bit more useful.
+		random.setSeed(iterationSeed(seed, iterationIndex));
+
+		Iteration[] wholeIteration = new Iteration[variables.size()];
+		for(int i = 0; i < wholeIteration.length; i++) {
+			Subcase<?> supplier = variables.get(i).get(permutation[i]);
+			wholeIteration[i] = new Iteration(supplier);
 		}
+
+		return wholeIteration;
 	}
 
-	private void generateEachSubcaseAtLeastOnceCases(List<Variable> variables) {
-		int maxSubcases = variables.stream().mapToInt(ArrayList::size).max().orElse(0);
+	/**
+	 * Derives the seed for a single iteration by scrambling the test's seed and the iteration's index (with the
+	 * finalizer from {@code SplittableRandom}), so that neighboring iterations get unrelated random sequences.
+	 */
+	/*package*/ static long iterationSeed(long seed, int iteration) {
+		return FuzzyRandom.seedFor(seed, iteration);
+	}
 
-		for(int iteration = 0; iteration < maxSubcases; iteration++) {
-			Map<Generator, Iteration> wholeIteration = new HashMap<>(variables.size());
-			iterations.push(wholeIteration);
+	private IllegalStateException newIterationOutOfRangeException(int iterations) {
+		return new IllegalStateException(
+			"The test was asked to start at iteration " + startAtIteration + ", but it only has " + iterations +
+			(iterations == 1 ? " iteration" : " iterations") + " (numbered from 0). Verify that the test and its " +
+			"generators have not changed since the iteration number was reported."
+		);
+	}
 
-			for(Variable v : variables) {
-				Subcase<?> supplier = v.get(iteration % v.size());
-				wholeIteration.put(v.g, new Iteration(supplier));
-			}
-		}
+	private EmptyShardException newEmptyShardException() {
+		return new EmptyShardException(
+			"None of the " + (plannedIterations - startAtIteration) + " iterations of this test" +
+			(startAtIteration > 0 ? " starting at iteration " + startAtIteration : "") + " belong to " + shard + "."
+		);
 	}
 
 	private static IllegalStateException newUninitializedException() {
@@ -370,11 +754,17 @@ public class Context {
 		message.append("before you call Context.init(...) a second time. See the documentation for Context for a ");
 		message.append("usage example.\n");
 		message.append("\n");
-		message.append("The context was previously initialized at the following location:\n");
-		message.append("\n");
+		if(contextInitTrace.isEmpty()) {
+			message.append("The location where the context was previously initialized was not recorded; set the ");
+			message.append(DiagnosticLevel.PROPERTY).append(" system property to LAZY or FULL to include it.\n");
+		}
+		else {
+			message.append("The context was previously initialized at the following location:\n");
+			message.append("\n");
 
-		for(StackTraceElement e : contextInitTrace)
-			message.append("  at ").append(e.toString()).append("\n");
+			for(StackTraceElement e : contextInitTrace.elements())
+				message.append("  at ").append(e.toString()).append("\n");
+		}
 
 		return new IllegalStateException(message.toString());
 	}
@@ -386,10 +776,10 @@ public class Context {
 		message.append("after getting the value of another generator in the same test. All generators for a test ");
 		message.append("must be declared before calling .get() on any of them.\n\n");
 
-		if(lockTrace != null) {
-			message.append("The context was locked at the following stack trace:\n");
+		if(lockTrace != null && !lockTrace.isEmpty()) {
+			message.append("The context was first locked at the following stack trace:\n");
 
-			for(StackTraceElement e : lockTrace)
+			for(StackTraceElement e : lockTrace.elements())
 				message.append("  at ").append(e.toString()).append("\n");
 
 			message.append("\n");
@@ -425,44 +815,102 @@ public class Context {
 		sb.append("\n");
 	}
 
-	private static class Variable extends ArrayList<Subcase<?>> {
+	/**
+	 * Thrown when a test is read in a {@linkplain #init(CaseComposition, long, int, Shard) shard} that none of
+	 * its iterations belong to. This is not an error in the test: it only means that other shards run all of its
+	 * iterations, so the test should be skipped in this one.
+	 */
+	public static class EmptyShardException extends IllegalStateException {
 		private static final long serialVersionUID = 1L;
-		transient final Generator g;
-		Variable(Generator g, Case<?>[] cases) {
-			this.g = g;
-			for(Case<?> c : cases) addAll(c.getSubcases());
+
+		private EmptyShardException(String message) {
+			super(message);
 		}
 	}
 
-	private static class Iteration {
-		private Object iterationValue;
-		private volatile boolean generated;
+	/**
+	 * Holds the value of one generator for one iteration, generating it the first time it is read.
+	 *
+	 * <p>An iteration is only ever used by one thread at a time: the thread that owns its context, or, for a fork, the
+	 * thread that has entered it. Handing a fork to another thread (for example, through an executor and a
+	 * {@link java.util.concurrent.Future}) already publishes its state safely, so iterations need no locks or volatile
+	 * fields, which keeps {@link Generator#get()} cheap.
+	 * </p>
+	 */
+	/*package*/ static final class Iteration {
+		private static final Object NOT_GENERATED = new Object();
+		// Marks a value generated by a primitive subcase, which is held in bits until someone asks for it boxed.
+		private static final Object PRIMITIVE = new Object();
+
 		private final Subcase<?> subcase;
+		private Object value = NOT_GENERATED;
+		private long bits;
 
-		public Iteration(Subcase<?> subcase) {
+		Iteration(Subcase<?> subcase) {
 			this.subcase = subcase;
 		}
 
-		synchronized Object getCurrent() {
-			return iterationValue;
+		boolean isGenerated() { return value != NOT_GENERATED; }
+
+		Object getCurrent() { return isGenerated() ? boxed() : null; }
+
+		Object get(Random random) {
+			Object current = value;
+			if(current == NOT_GENERATED)
+				value = current = subcase.generate(random);
+
+			return current == PRIMITIVE ? boxed() : current;
+		}
+
+		int getInt(Random random) {
+			if(value == NOT_GENERATED && subcase instanceof IntSubcase) {
+				bits = ((IntSubcase)subcase).generateInt(random);
+				value = PRIMITIVE;
+			}
+
+			return value == PRIMITIVE ? (int)bits : (Integer)get(random);
+		}
+
+		long getLong(Random random) {
+			if(value == NOT_GENERATED && subcase instanceof LongSubcase) {
+				bits = ((LongSubcase)subcase).generateLong(random);
+				value = PRIMITIVE;
+			}
+
+			return value == PRIMITIVE ? bits : (Long)get(random);
 		}
 
-		synchronized Object get(Random random) {
-			if(!generated) {
-				iterationValue = subcase.generate(random);
-				generated = true;
+		double getDouble(Random random) {
+			if(value == NOT_GENERATED && subcase instanceof DoubleSubcase) {
+				bits = Double.doubleToRawLongBits(((DoubleSubcase)subcase).generateDouble(random));
+				value = PRIMITIVE;
 			}
-			return iterationValue;
+
+			return value == PRIMITIVE ? Double.longBitsToDouble(bits) : (Double)get(random);
+		}
+
+		// Boxes a primitive value once it is needed as an object, and keeps the box for later reads.
+		private Object boxed() {
+			if(value == PRIMITIVE) {
+				if(subcase instanceof IntSubcase)
+					value = (int)bits;
+				else if(subcase instanceof LongSubcase)
+					value = bits;
+				else
+					value = Double.longBitsToDouble(bits);
+			}
+
+			return value;
 		}
 
-		synchronized void describeTo(StringBuilder sb) {
-			if(!generated) {
+		void describeTo(StringBuilder sb) {
+			if(!isGenerated()) {
 				sb.append("{not generated}");
 			}
 			else {
 				@SuppressWarnings("unchecked")
 				Subcase<Object> castSubcase = (Subcase<Object>) subcase;
-				castSubcase.describeTo(sb, iterationValue);
+				castSubcase.describeTo(sb, boxed());
 			}
 		}
 	}
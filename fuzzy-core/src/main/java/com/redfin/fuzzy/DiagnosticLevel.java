@@ -0,0 +1,65 @@
+package com.redfin.fuzzy;
+
+/**
+ * Controls how much stack trace information the fuzzy engine records for {@linkplain Generator#getCreationSite()
+ * generators} and for the error messages produced by {@link Context}.
+ *
+ * <p>Recording stack traces is relatively expensive, and they are only ever read when a test is set up incorrectly, so
+ * by default the engine records them {@linkplain #LAZY lazily}. The level can be changed with {@link #set} or with the
+ * {@code fuzzy.diagnostics} system property (for example, {@code -Dfuzzy.diagnostics=FULL}).
+ * </p>
+ */
+public enum DiagnosticLevel {
+
+	/**
+	 * Records no stack traces at all; creation sites are empty, and error messages do not include the location where a
+	 * context was initialized or locked. Generators are still named after the line where they were created.
+	 */
+	NONE,
+
+	/**
+	 * Records stack traces in their compact, internal form, and only converts them to {@link StackTraceElement}s when an
+	 * error message or {@link Generator#getCreationSite()} needs them. This is the default.
+	 *
+	 * <p>At this level and at {@link #FULL}, each trace is recorded once per test rather than once per iteration: the
+	 * generators that later iterations declare share the creation sites of the first iteration's, and only the first
+	 * iteration records where the context was locked.
+	 * </p>
+	 */
+	LAZY,
+
+	/**
+	 * Records full stack traces as soon as generators are created and contexts are initialized or locked.
+	 */
+	FULL;
+
+	/*package*/ static final String PROPERTY = "fuzzy.diagnostics";
+
+	private static volatile DiagnosticLevel current = fromSystemProperties();
+
+	/**
+	 * Returns the diagnostic level currently in effect.
+	 */
+	public static DiagnosticLevel get() { return current; }
+
+	/**
+	 * Sets the diagnostic level for all generators and contexts created from now on, on any thread.
+	 */
+	public static void set(DiagnosticLevel level) {
+		current = FuzzyPreconditions.checkNotNull("A diagnostic level is required.", level);
+	}
+
+	private static DiagnosticLevel fromSystemProperties() {
+		String level = System.getProperty(PROPERTY);
+		if(level == null || level.trim().isEmpty())
+			return LAZY;
+
+		for(DiagnosticLevel candidate : values())
+			if(candidate.name().equalsIgnoreCase(level.trim()))
+				return candidate;
+
+		// Diagnostics should never be the reason a test suite can't start; ignore values we don't understand.
+		return LAZY;
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+
+/**
+ * A {@link Subcase} of {@link Double} values that can generate them as a {@code double}, without boxing.
+ *
+ * <p>The numeric cases produce subcases of this type, and {@link Generator#getDouble()} uses them to obtain values
+ * without allocating. Implementations only need to provide {@link #generateDouble(Random)}; {@link #generate(Random)}
+ * boxes its result.
+ * </p>
+ */
+@FunctionalInterface
+public interface DoubleSubcase extends Subcase<Double> {
+
+	/**
+	 * Generates and returns a new value, following the same contract as {@link #generate(Random)}.
+	 */
+	double generateDouble(Random random);
+
+	@Override
+	default Double generate(Random random) { return generateDouble(random); }
+
+}
@@ -0,0 +1,115 @@
+package com.redfin.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The planned iterations of a test: the subcases of each of its generators, and the permutations of those subcases
+ * that its {@linkplain CaseComposition case composition} chose. Plans are immutable.
+ *
+ * <p>Planning a test calls {@link Case#getSubcases()} on every case and runs the composition mode, which can be
+ * expensive for tests with many generators. Test harnesses that run the same test many times (for example, repeated or
+ * soak runs) can {@linkplain Context#capturePlan() capture} the plan after the first run and
+ * {@linkplain Context#reusePlan(FuzzyPlan) reuse} it in later runs, which then skip both steps.
+ * </p>
+ * <p>A plan is only reused by a run whose generators have the same names, in the same order, and whose cases are of the
+ * same types, as the run that captured it. Beyond that, reusing a plan assumes that the test builds the same cases every
+ * time it runs: the reused subcases are those of the original run's cases, so a run that configures its cases
+ * differently (for example, from a test parameter) should not share a plan with other runs.
+ * </p>
+ */
+public final class FuzzyPlan {
+
+	private final CaseComposition caseComposition;
+	private final List<String> generatorNames;
+	private final List<List<Class<?>>> caseTypes;
+	private final List<List<Subcase<?>>> subcases;
+	private final List<int[]> permutations;
+
+	/*package*/ FuzzyPlan(
+		CaseComposition caseComposition,
+		Map<Generator, Case[]> generators,
+		List<List<Subcase<?>>> subcases,
+		Iterator<int[]> permutations
+	) {
+		this.caseComposition = caseComposition;
+
+		List<String> generatorNames = new ArrayList<>(generators.size());
+		List<List<Class<?>>> caseTypes = new ArrayList<>(generators.size());
+		for(Map.Entry<Generator, Case[]> generator : generators.entrySet()) {
+			generatorNames.add(generator.getKey().getName());
+			caseTypes.add(caseTypesOf(generator.getValue()));
+		}
+		this.generatorNames = Collections.unmodifiableList(generatorNames);
+		this.caseTypes = Collections.unmodifiableList(caseTypes);
+
+		List<List<Subcase<?>>> copiedSubcases = new ArrayList<>(subcases.size());
+		for(List<Subcase<?>> variable : subcases)
+			copiedSubcases.add(Collections.unmodifiableList(new ArrayList<>(variable)));
+		this.subcases = Collections.unmodifiableList(copiedSubcases);
+
+		List<int[]> copiedPermutations = new ArrayList<>();
+		while(permutations.hasNext())
+			copiedPermutations.add(permutations.next().clone());
+		this.permutations = Collections.unmodifiableList(copiedPermutations);
+	}
+
+	/**
+	 * Returns the case composition that the plan was built with.
+	 */
+	public CaseComposition getCaseComposition() { return caseComposition; }
+
+	/**
+	 * Returns the names of the generators the plan was built for, in the order they were declared.
+	 */
+	public List<String> getGeneratorNames() { return generatorNames; }
+
+	/**
+	 * Returns the number of iterations in the plan.
+	 */
+	public int size() { return permutations.size(); }
+
+	/**
+	 * Returns {@code true} if a run with the given composition and generators can reuse this plan.
+	 */
+	/*package*/ boolean matches(CaseComposition caseComposition, Map<Generator, Case[]> generators) {
+		if(!caseComposition.equals(this.caseComposition) || generators.size() != generatorNames.size())
+			return false;
+
+		int ordinal = 0;
+		for(Map.Entry<Generator, Case[]> generator : generators.entrySet()) {
+			if(!generatorNames.get(ordinal).equals(generator.getKey().getName()) ||
+				!caseTypes.get(ordinal).equals(caseTypesOf(generator.getValue()))
+			)
+				return false;
+
+			ordinal++;
+		}
+
+		return true;
+	}
+
+	/*package*/ List<List<Subcase<?>>> subcases() { return subcases; }
+
+	/**
+	 * Returns the plan's permutations. Callers must not modify them.
+	 */
+	/*package*/ Iterator<int[]> permutations() { return permutations.iterator(); }
+
+	@Override
+	public String toString() {
+		return "FuzzyPlan of " + permutations.size() + " iterations for " + generatorNames + " using " +
+			caseComposition;
+	}
+
+	private static List<Class<?>> caseTypesOf(Case[] cases) {
+		List<Class<?>> types = new ArrayList<>(cases.length);
+		for(Case c : cases)
+			types.add(c.getClass());
+		return types;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The fast, unsynchronized {@link Random} that the fuzzy engine passes to {@linkplain Subcase#generate(Random)
+ * subcases}.
+ *
+ * <p>{@code java.util.Random} updates its state with an atomic compare-and-set on every call, so that it can be shared
+ * between threads. The fuzzy engine never shares one: each test context (and each {@linkplain Context#fork() fork})
+ * has its own. This class keeps its state in a plain field instead, and generates values with the SplitMix64
+ * algorithm used by {@link java.util.SplittableRandom}, which is both faster and statistically stronger than
+ * {@code Random}'s linear congruential generator. Because it is a {@code Random}, existing subcases work with it
+ * unchanged.
+ * </p>
+ * <p>Instances are <em>not</em> thread safe. To hand randomness to another thread, {@link #split()} off an
+ * independent generator.
+ * </p>
+ */
+public final class FuzzyRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private long state;
+	private double nextNextGaussian;
+	private boolean haveNextNextGaussian;
+
+	/**
+	 * Creates a generator with an arbitrary seed.
+	 */
+	public FuzzyRandom() { this(ThreadLocalRandom.current().nextLong()); }
+
+	/**
+	 * Creates a generator with the given seed; generators with the same seed produce the same values.
+	 */
+	public FuzzyRandom(long seed) {
+		// Random's constructor calls setSeed, which initializes the state.
+		super(seed);
+	}
+
+	/**
+	 * Derives the seed for the element at a given index of a sequence of independently seeded values (such as the
+	 * iterations of a test, or the elements of a {@linkplain Case#stream(long) case's stream}), so that neighboring
+	 * elements get unrelated random sequences.
+	 */
+	public static long seedFor(long seed, long index) {
+		return mix(seed + GOLDEN_GAMMA * (index + 1));
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		// Random's own state is never used, so unlike Random.setSeed, this needs no synchronization.
+		state = seed;
+		haveNextNextGaussian = false;
+	}
+
+	/**
+	 * Returns a new generator whose values are independent of this one's, advancing this generator. The new generator
+	 * can be used on another thread.
+	 */
+	public FuzzyRandom split() { return new FuzzyRandom(nextLong()); }
+
+	@Override
+	protected int next(int bits) { return (int)(nextLong() >>> (64 - bits)); }
+
+	@Override
+	public int nextInt() { return (int)(nextLong() >>> 32); }
+
+	@Override
+	public int nextInt(int bound) {
+		if(bound <= 0)
+			throw new IllegalArgumentException("bound must be positive");
+
+		// Lemire's nearly divisionless method: the high half of a 32x32-bit product is uniform in [0, bound) once the
+		// few low halves that would bias it are rejected.
+		long product = (nextLong() >>> 32) * bound;
+		int low = (int)product;
+		if(Integer.compareUnsigned(low, bound) < 0) {
+			int threshold = Integer.remainderUnsigned(-bound, bound);
+			while(Integer.compareUnsigned(low, threshold) < 0) {
+				product = (nextLong() >>> 32) * bound;
+				low = (int)product;
+			}
+		}
+
+		return (int)(product >>> 32);
+	}
+
+	@Override
+	public long nextLong() { return mix(state += GOLDEN_GAMMA); }
+
+	@Override
+	public double nextDouble() { return (nextLong() >>> 11) * DOUBLE_UNIT; }
+
+	@Override
+	public double nextGaussian() {
+		// The same polar method as Random.nextGaussian, which generates values in pairs, without its lock.
+		if(haveNextNextGaussian) {
+			haveNextNextGaussian = false;
+			return nextNextGaussian;
+		}
+
+		double v1, v2, s;
+		do {
+			v1 = 2 * nextDouble() - 1;
+			v2 = 2 * nextDouble() - 1;
+			s = v1 * v1 + v2 * v2;
+		}
+		while(s >= 1 || s == 0);
+
+		double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+		nextNextGaussian = v2 * multiplier;
+		haveNextNextGaussian = true;
+		return v1 * multiplier;
+	}
+
+	@Override
+	public boolean nextBoolean() { return nextLong() < 0; }
+
+	// The finalizer from SplittableRandom (Stafford's "Mix13").
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -4,8 +4,8 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -15,7 +15,7 @@ public class FuzzyUtil {
 
 	@SafeVarargs
 	public static <T> Set<T> union(Set<T>... sets) {
-		Set<T> ret = new HashSet<>();
+		Set<T> ret = new LinkedHashSet<>();
 
 		if(sets != null)
 			for(Set<T> set : sets)
@@ -30,7 +30,7 @@ public class FuzzyUtil {
 		if(elements == null || elements.length == 0)
 			return Collections.emptySet();
 
-		Set<T> ret = new HashSet<>(elements.length);
+		Set<T> ret = new LinkedHashSet<>(elements.length);
 		ret.addAll(Arrays.asList(elements));
 
 		return ret;
@@ -40,7 +40,7 @@ public class FuzzyUtil {
 		if(chars == null || chars.length() == 0)
 			return Collections.emptySet();
 
-		Set<String> ret = new HashSet<>(chars.length());
+		Set<String> ret = new LinkedHashSet<>(chars.length());
 		for(int i = 0; i < chars.length(); i++)
 			ret.add(Character.toString(chars.charAt(i)));
 
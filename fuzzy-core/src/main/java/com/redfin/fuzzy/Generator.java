@@ -40,18 +40,61 @@ public class Generator<T> implements Comparable<Generator<T>> {
 
 	private final Context context;
 	private String name = "Unknown";
-	private StackTraceElement[] creationSite = new StackTraceElement[0];
+	private StackCapture creationSite = StackCapture.EMPTY;
+	private int ordinal = -1;
 
 	public final String getName() {
 		return name;
 	}
 
+	/**
+	 * Returns the stack trace of the code that created this generator. Depending on the {@link DiagnosticLevel}, the
+	 * trace may only be converted into {@code StackTraceElement}s on the first call, or may not have been recorded at
+	 * all (in which case the list is empty). The trace is recorded once per test: a generator declared again by a later
+	 * iteration shares the trace of the first iteration's generator with the same name.
+	 */
 	public final List<StackTraceElement> getCreationSite() {
-		return Collections.unmodifiableList(Arrays.asList(creationSite));
+		return Collections.unmodifiableList(Arrays.asList(creationSite.elements()));
 	}
 
 	public final T get() {
-		return context.currentValue(this);
+		return context.currentValue(this, ordinal);
+	}
+
+	/**
+	 * Returns the current value of a generator of {@link Integer}s as an {@code int}. For values generated by an
+	 * {@link IntSubcase} (such as those of {@link Any#integer()}), this avoids boxing the value altogether; otherwise it
+	 * is equivalent to unboxing {@link #get()}.
+	 *
+	 * @throws ClassCastException if the generator's value is not an {@code Integer}.
+	 * @throws NullPointerException if the generator's value is {@code null}.
+	 */
+	public final int getInt() {
+		return context.currentInt(this, ordinal);
+	}
+
+	/**
+	 * Returns the current value of a generator of {@link Long}s as a {@code long}, without boxing values generated by a
+	 * {@link LongSubcase}.
+	 *
+	 * @throws ClassCastException if the generator's value is not a {@code Long}.
+	 * @throws NullPointerException if the generator's value is {@code null}.
+	 * @see #getInt()
+	 */
+	public final long getLong() {
+		return context.currentLong(this, ordinal);
+	}
+
+	/**
+	 * Returns the current value of a generator of {@link Double}s as a {@code double}, without boxing values generated
+	 * by a {@link DoubleSubcase}.
+	 *
+	 * @throws ClassCastException if the generator's value is not a {@code Double}.
+	 * @throws NullPointerException if the generator's value is {@code null}.
+	 * @see #getInt()
+	 */
+	public final double getDouble() {
+		return context.currentDouble(this, ordinal);
 	}
 
 	public static GeneratorBuilder named(String name) {
@@ -87,16 +130,16 @@ public class Generator<T> implements Comparable<Generator<T>> {
 
 	public static class GeneratorBuilder {
 		private final String name;
-		private final StackTraceElement[] creationSite;
 
 		private GeneratorBuilder(String name) {
 			this.name = name;
-			this.creationSite = Thread.currentThread().getStackTrace();
 		}
 
 		private GeneratorBuilder() {
-			this.creationSite = Thread.currentThread().getStackTrace();
-			this.name = "at " + creationSite[4].toString();
+			// Unnamed generators are named after the line that created them, which we can find without recording (or
+			// even walking) the whole stack.
+			StackTraceElement caller = StackCapture.firstFrameOutside(Generator.class);
+			this.name = caller == null ? "Unknown" : "at " + caller.toString();
 		}
 
 		@SafeVarargs
@@ -107,11 +150,14 @@ public class Generator<T> implements Comparable<Generator<T>> {
 			// Build the generator
 			Context c = Context.getUnlocked();
 			Generator<X> g = new Generator<>(c);
-			g.creationSite = creationSite;
 			g.name = name;
 
+			// Every iteration declares the same generators again; only the first one records where they were created.
+			Generator<?> planned = c.plannedGenerator(g);
+			g.creationSite = planned == null ? StackCapture.capture() : planned.creationSite;
+
 			// Register and return
-			c.register(g, cases);
+			g.ordinal = c.register(g, cases);
 			return g;
 		}
 
@@ -0,0 +1,24 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+
+/**
+ * A {@link Subcase} of {@link Integer} values that can generate them as an {@code int}, without boxing.
+ *
+ * <p>The numeric cases produce subcases of this type, and {@link Generator#getInt()} uses them to obtain values without
+ * allocating. Implementations only need to provide {@link #generateInt(Random)}; {@link #generate(Random)} boxes its
+ * result.
+ * </p>
+ */
+@FunctionalInterface
+public interface IntSubcase extends Subcase<Integer> {
+
+	/**
+	 * Generates and returns a new value, following the same contract as {@link #generate(Random)}.
+	 */
+	int generateInt(Random random);
+
+	@Override
+	default Integer generate(Random random) { return generateInt(random); }
+
+}
@@ -0,0 +1,24 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+
+/**
+ * A {@link Subcase} of {@link Long} values that can generate them as a {@code long}, without boxing.
+ *
+ * <p>The numeric cases produce subcases of this type, and {@link Generator#getLong()} uses them to obtain values
+ * without allocating. Implementations only need to provide {@link #generateLong(Random)}; {@link #generate(Random)}
+ * boxes its result.
+ * </p>
+ */
+@FunctionalInterface
+public interface LongSubcase extends Subcase<Long> {
+
+	/**
+	 * Generates and returns a new value, following the same contract as {@link #generate(Random)}.
+	 */
+	long generateLong(Random random);
+
+	@Override
+	default Long generate(Random random) { return generateLong(random); }
+
+}
@@ -0,0 +1,129 @@
+package com.redfin.fuzzy;
+
+/**
+ * Selects a subset of each test's iterations, so that the iterations of a single test can be split across several
+ * JVMs (such as build tool forks or CI machines).
+ *
+ * <p>Iterations are assigned to shards round-robin: shard {@code i} of {@code n} runs every iteration whose zero-based
+ * index {@code k} satisfies {@code k % n == i}. Because test plans and per-iteration seeds are deterministic, the
+ * shards of a test are disjoint, and together they run exactly the iterations that an unsharded run would.
+ * </p>
+ * <p>Shards can be configured with the {@value #INDEX_PROPERTY} and {@value #COUNT_PROPERTY} system properties (for
+ * example, {@code -Dfuzzy.shard.index=2 -Dfuzzy.shard.count=4}); see {@link #fromSystemProperties()}.
+ * </p>
+ *
+ * @see Context#init(CaseComposition, long, int, Shard)
+ */
+public final class Shard {
+
+	/**
+	 * The system property holding the zero-based index of the current shard.
+	 */
+	public static final String INDEX_PROPERTY = "fuzzy.shard.index";
+
+	/**
+	 * The system property holding the total number of shards.
+	 */
+	public static final String COUNT_PROPERTY = "fuzzy.shard.count";
+
+	/**
+	 * The only shard of an unsharded run, which runs every iteration.
+	 */
+	public static final Shard ALL = new Shard(0, 1);
+
+	/**
+	 * Returns shard number {@code index} (counting from zero) of {@code count} shards.
+	 *
+	 * @throws IllegalArgumentException if {@code count} is not positive, or {@code index} is not between zero
+	 *         (inclusive) and {@code count} (exclusive).
+	 */
+	public static Shard of(int index, int count) {
+		if(count < 1)
+			throw new IllegalArgumentException("There must be at least one shard.");
+		if(index < 0 || index >= count)
+			throw new IllegalArgumentException(
+				"The shard index must be between 0 and " + (count - 1) + ", but was " + index + "."
+			);
+
+		return count == 1 ? ALL : new Shard(index, count);
+	}
+
+	/**
+	 * Returns the shard described by the {@value #INDEX_PROPERTY} and {@value #COUNT_PROPERTY} system properties, or
+	 * {@link #ALL} if neither is set.
+	 *
+	 * @throws IllegalArgumentException if only one of the properties is set, or if they do not describe a valid shard.
+	 */
+	public static Shard fromSystemProperties() {
+		String index = System.getProperty(INDEX_PROPERTY);
+		String count = System.getProperty(COUNT_PROPERTY);
+
+		boolean hasIndex = index != null && !index.trim().isEmpty();
+		boolean hasCount = count != null && !count.trim().isEmpty();
+		if(!hasIndex && !hasCount)
+			return ALL;
+		if(!hasIndex || !hasCount)
+			throw new IllegalArgumentException(
+				"The " + INDEX_PROPERTY + " and " + COUNT_PROPERTY + " system properties must be set together."
+			);
+
+		return of(parse(INDEX_PROPERTY, index), parse(COUNT_PROPERTY, count));
+	}
+
+	private final int index;
+	private final int count;
+
+	private Shard(int index, int count) {
+		this.index = index;
+		this.count = count;
+	}
+
+	/**
+	 * Returns the zero-based index of this shard.
+	 */
+	public int getIndex() { return index; }
+
+	/**
+	 * Returns the total number of shards that this shard is one of.
+	 */
+	public int getCount() { return count; }
+
+	/**
+	 * Returns {@code true} if this shard runs the iteration with the given zero-based index.
+	 */
+	public boolean contains(int iteration) { return iteration % count == index; }
+
+	/**
+	 * Returns the index of the first iteration that this shard runs at or after the given iteration.
+	 */
+	public int nextIteration(int from) {
+		if(from < 0)
+			throw new IllegalArgumentException("The iteration cannot be negative.");
+
+		return from + Math.floorMod(index - from, count);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj == this || (obj instanceof Shard && index == ((Shard)obj).index && count == ((Shard)obj).count);
+	}
+
+	@Override
+	public int hashCode() { return 31 * index + count; }
+
+	@Override
+	public String toString() { return "shard " + index + " of " + count; }
+
+	private static int parse(String property, String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException(
+				"The " + property + " system property must be an integer, but was \"" + value + "\".",
+				e
+			);
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.redfin.fuzzy;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A stack trace recorded according to the current {@link DiagnosticLevel}.
+ *
+ * <p>At the {@link DiagnosticLevel#LAZY LAZY} level, the trace is kept as an unthrown {@link Throwable}, whose frames the
+ * JVM records in a compact internal form; they are only converted into {@link StackTraceElement}s the first time
+ * {@link #elements()} is called, which normally only happens while reporting an error.
+ * </p>
+ */
+/*package*/ final class StackCapture {
+
+	private static final StackTraceElement[] NO_ELEMENTS = new StackTraceElement[0];
+
+	/*package*/ static final StackCapture EMPTY = new StackCapture(null);
+
+	// java.lang.StackWalker (Java 9 and later) can find a single frame without recording the whole stack. We compile
+	// against Java 8, so it is looked up reflectively; on older JVMs, all of these are null.
+	private static final Object WALKER;
+	private static final Method WALK;
+	private static final Method FRAME_CLASS_NAME;
+	private static final Method FRAME_TO_ELEMENT;
+
+	static {
+		Object walker = null;
+		Method walk = null, frameClassName = null, frameToElement = null;
+		try {
+			Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+			Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+			walker = walkerClass.getMethod("getInstance").invoke(null);
+			walk = walkerClass.getMethod("walk", Function.class);
+			frameClassName = frameClass.getMethod("getClassName");
+			frameToElement = frameClass.getMethod("toStackTraceElement");
+		}
+		catch(ReflectiveOperationException | RuntimeException e) {
+			walker = null;
+		}
+
+		WALKER = walker;
+		WALK = walker == null ? null : walk;
+		FRAME_CLASS_NAME = walker == null ? null : frameClassName;
+		FRAME_TO_ELEMENT = walker == null ? null : frameToElement;
+	}
+
+	private final Throwable backtrace;
+	private volatile StackTraceElement[] elements;
+
+	private StackCapture(Throwable backtrace) {
+		this.backtrace = backtrace;
+		this.elements = backtrace == null ? NO_ELEMENTS : null;
+	}
+
+	/**
+	 * Records the current thread's stack, as far as the current {@link DiagnosticLevel} requires.
+	 */
+	/*package*/ static StackCapture capture() {
+		switch(DiagnosticLevel.get()) {
+			case NONE:
+				return EMPTY;
+			case FULL:
+				StackCapture capture = new StackCapture(new Throwable());
+				capture.elements();
+				return capture;
+			default:
+				return new StackCapture(new Throwable());
+		}
+	}
+
+	/**
+	 * Returns the first frame of the current thread's stack that does not belong to this class or any of the given
+	 * classes (or their nested classes), or {@code null} if there is no such frame. Only that one frame is materialized
+	 * when the JVM supports it.
+	 */
+	/*package*/ static StackTraceElement firstFrameOutside(Class<?>... internalClasses) {
+		if(WALKER != null) {
+			Function<Stream<?>, StackTraceElement> first = frames -> frames
+				.filter(frame -> !isInternal(invoke(FRAME_CLASS_NAME, frame).toString(), internalClasses))
+				.findFirst()
+				.map(frame -> (StackTraceElement)invoke(FRAME_TO_ELEMENT, frame))
+				.orElse(null);
+
+			try {
+				return (StackTraceElement)WALK.invoke(WALKER, first);
+			}
+			catch(ReflectiveOperationException | RuntimeException e) {
+				// Fall through to the slow path below.
+			}
+		}
+
+		for(StackTraceElement element : new Throwable().getStackTrace())
+			if(!isInternal(element.getClassName(), internalClasses))
+				return element;
+
+		return null;
+	}
+
+	/**
+	 * Returns the recorded frames, starting with the caller of {@link #capture()}. The array must not be modified.
+	 */
+	/*package*/ StackTraceElement[] elements() {
+		StackTraceElement[] result = elements;
+		if(result == null) {
+			StackTraceElement[] all = backtrace.getStackTrace();
+			int skip = 0;
+			while(skip < all.length && all[skip].getClassName().equals(StackCapture.class.getName()))
+				skip++;
+
+			elements = result = Arrays.copyOfRange(all, skip, all.length);
+		}
+		return result;
+	}
+
+	/*package*/ boolean isEmpty() { return backtrace == null; }
+
+	private static boolean isInternal(String className, Class<?>[] internalClasses) {
+		if(className.equals(StackCapture.class.getName()) ||
+			className.startsWith("java.lang.reflect.") ||
+			className.startsWith("jdk.internal.reflect.") ||
+			className.startsWith("sun.reflect.")
+		)
+			return true;
+
+		for(Class<?> internal : internalClasses)
+			if(className.equals(internal.getName()) || className.startsWith(internal.getName() + "$"))
+				return true;
+
+		return false;
+	}
+
+	private static Object invoke(Method method, Object target) {
+		try {
+			return method.invoke(target);
+		}
+		catch(ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
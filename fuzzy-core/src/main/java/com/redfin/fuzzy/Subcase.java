@@ -22,6 +22,8 @@ public interface Subcase<T> {
 	 * with a random number generator with the same seed should produce exactly the same output. In general, this
 	 * condition should be satisfied if the test uses the provided {@linkplain Random random number generator} as its
 	 * only source of randomness.</p>
+	 * <p>The fuzzy engine provides a {@link FuzzyRandom}, which is not thread safe; a subcase that generates values on
+	 * other threads should {@linkplain FuzzyRandom#split() split} it rather than sharing it.</p>
 	 */
 	T generate(Random random);
 
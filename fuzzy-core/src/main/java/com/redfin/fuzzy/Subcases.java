@@ -2,7 +2,7 @@ package com.redfin.fuzzy;
 
 import com.redfin.fuzzy.pairwise.Pairwise;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -19,7 +19,7 @@ public class Subcases {
 		FuzzyPreconditions.checkNotNull(subcases);
 		FuzzyPreconditions.checkNotNull(mapping);
 
-		Set<Subcase<OUTPUT>> mapped = new HashSet<>(subcases.size());
+		Set<Subcase<OUTPUT>> mapped = new LinkedHashSet<>(subcases.size());
 		mapped.addAll(subcases.stream().map(mapping).collect(Collectors.toList()));
 
 		return mapped;
@@ -32,10 +32,9 @@ public class Subcases {
 		FuzzyPreconditions.checkNotNull(subcases);
 		FuzzyPreconditions.checkNotNull(mapping);
 
-		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper =
-			s -> (r -> mapping.apply(r, s.generate(r)));
+		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper = s -> CompiledSubcase.map(s, mapping);
 
-		return subcases.stream().map(mapper).collect(Collectors.toSet());
+		return subcases.stream().map(mapper).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	public static <INPUT, OUTPUT> Set<Subcase<OUTPUT>> mapOutput(
@@ -45,10 +44,9 @@ public class Subcases {
 		FuzzyPreconditions.checkNotNull(subcases);
 		FuzzyPreconditions.checkNotNull(mapping);
 
-		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper =
-			s -> (r -> mapping.apply(s.generate(r)));
+		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper = s -> CompiledSubcase.map(s, mapping);
 
-		return subcases.stream().map(mapper).collect(Collectors.toSet());
+		return subcases.stream().map(mapper).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	public interface BiPermutedSupplierFunction<T, U, R> {
@@ -74,26 +72,9 @@ public class Subcases {
 			.map(permutation -> {
 				@SuppressWarnings("unchecked") Subcase<T> tFunc = (Subcase<T>) permutation.get(0);
 				@SuppressWarnings("unchecked") Subcase<U> uFunc = (Subcase<U>) permutation.get(1);
-				return new BiPermutedSupplier<>(func, tFunc, uFunc);
+				return CompiledSubcase.combine(tFunc, uFunc, func);
 			})
-			.collect(Collectors.toSet());
-	}
-
-	private static class BiPermutedSupplier<T, U, R> implements Subcase<R> {
-		private final BiPermutedSupplierFunction<T, U, R> func;
-		private final Subcase<T> tSubcase;
-		private final Subcase<U> uSubcase;
-
-		public BiPermutedSupplier(BiPermutedSupplierFunction<T, U, R> func, Subcase<T> tSubcase, Subcase<U> uSubcase) {
-			this.func = func;
-			this.tSubcase = tSubcase;
-			this.uSubcase = uSubcase;
-		}
-
-		@Override
-		public R generate(Random random) {
-			return func.generate(random, tSubcase.generate(random), uSubcase.generate(random));
-		}
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 }
@@ -1,8 +1,11 @@
 package com.redfin.fuzzy.cases;
 
 import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.DoubleSubcase;
 import com.redfin.fuzzy.Subcase;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,6 +23,7 @@ public class DoubleNumericCase implements Case<Double> {
 	private Double max;
 
 	private final Set<Double> excluding = new HashSet<>();
+	private final SubcaseCache<Double> cache = new SubcaseCache<>();
 
 	public Case<Double> inRange(double minInclusive, double maxInclusive) {
 		if(maxInclusive <= minInclusive) {
@@ -28,6 +32,7 @@ public class DoubleNumericCase implements Case<Double> {
 
 		min = minInclusive;
 		max = maxInclusive;
+		cache.clear();
 
 		return this;
 	}
@@ -36,6 +41,7 @@ public class DoubleNumericCase implements Case<Double> {
 		max = maxExclusive;
 		min = null;
 		excluding.add(max);
+		cache.clear();
 
 		return this;
 	}
@@ -43,6 +49,7 @@ public class DoubleNumericCase implements Case<Double> {
 	public Case<Double> lessThanOrEqualTo(double maxInclusive) {
 		max = maxInclusive;
 		min = null;
+		cache.clear();
 
 		return this;
 	}
@@ -51,6 +58,7 @@ public class DoubleNumericCase implements Case<Double> {
 		min = minExclusive;
 		max = null;
 		excluding.add(min);
+		cache.clear();
 
 		return this;
 	}
@@ -58,6 +66,7 @@ public class DoubleNumericCase implements Case<Double> {
 	public Case<Double> greaterThanOrEqualTo(double minInclusive) {
 		max = null;
 		min = minInclusive;
+		cache.clear();
 
 		return this;
 	}
@@ -69,14 +78,15 @@ public class DoubleNumericCase implements Case<Double> {
 				if(d != null)
 					excluding.add(d);
 
+		cache.clear();
 		return this;
 	}
 
-	private Subcase<Double> exclude(Subcase<Double> subcase) {
+	private static DoubleSubcase exclude(DoubleSubcase subcase, double[] sortedExclusions) {
 		return r -> {
 			for(int i = 0; i < MAX_ATTEMPTS; i++) {
-				double d = subcase.generate(r);
-				if(!excluding.contains(d)) {
+				double d = subcase.generateDouble(r);
+				if(Arrays.binarySearch(sortedExclusions, d) < 0) {
 					return d;
 				}
 			}
@@ -86,17 +96,25 @@ public class DoubleNumericCase implements Case<Double> {
 		};
 	}
 
-	private static Subcase<Double> subcaseInRange(double min, double max) {
+	private static DoubleSubcase subcaseInRange(double min, double max) {
 		return r -> min + (r.nextDouble() * (max - min));
 	}
 
+	private static DoubleSubcase constant(double d) {
+		return r -> d;
+	}
+
 	@Override
 	public Set<Subcase<Double>> getSubcases() {
-		Set<Subcase<Double>> cases = new HashSet<>();
+		return cache.get(this::buildSubcases);
+	}
+
+	private Set<Subcase<Double>> buildSubcases() {
+		Set<DoubleSubcase> cases = new LinkedHashSet<>();
 
 		// Zero
 		if(!excluding.contains(0.0) && (min == null || min < 0) && (max == null || max > 0))
-			cases.add(r -> 0.0);
+			cases.add(constant(0.0));
 
 		// < -1
 		if(min == null)
@@ -126,10 +144,14 @@ public class DoubleNumericCase implements Case<Double> {
 
 		// Specific bounds
 		if(min != null && !excluding.contains(min))
-			cases.add(r -> min);
+			cases.add(constant(min));
 		if(max != null && !excluding.contains(max))
-			cases.add(r -> max);
+			cases.add(constant(max));
 
-		return cases.stream().map(this::exclude).collect(Collectors.toSet());
+		// Arrays.binarySearch matches doubles the way Double.equals does: -0.0 and 0.0 differ, and all NaNs are equal.
+		double[] sortedExclusions = excluding.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+		return cases.stream()
+			.<Subcase<Double>>map(s -> sortedExclusions.length == 0 ? s : exclude(s, sortedExclusions))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 }
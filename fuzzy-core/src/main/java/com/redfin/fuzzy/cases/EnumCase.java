@@ -5,6 +5,7 @@ import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Subcase;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -12,6 +13,7 @@ public class EnumCase<T extends Enum> implements Case<T> {
 
 	private final Class<T> enumClass;
 	private final Set<T> excluded = new HashSet<>();
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
 
 	public EnumCase(Class<T> enumClass) {
 		this.enumClass = FuzzyPreconditions.checkNotNull(enumClass);
@@ -22,16 +24,21 @@ public class EnumCase<T extends Enum> implements Case<T> {
 		if(values != null) {
 			for(T t : values)
 				excluded.add(t);
+			cache.clear();
 		}
 		return this;
 	}
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
+		return cache.get(this::buildSubcases);
+	}
+
+	private Set<Subcase<T>> buildSubcases() {
 		Set<Subcase<T>> subcases = Arrays.stream(enumClass.getEnumConstants())
 			.filter(t -> !excluded.contains(t))
 			.map(t -> (Subcase<T>)(r -> t))
-			.collect(Collectors.toSet());
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 
 		if(subcases.isEmpty())
 			throw new IllegalStateException(String.format(
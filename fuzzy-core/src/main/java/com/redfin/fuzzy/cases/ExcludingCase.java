@@ -1,6 +1,7 @@
 package com.redfin.fuzzy.cases;
 
 import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.CompiledSubcase;
 import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Subcase;
 import com.redfin.fuzzy.Subcases;
@@ -11,10 +12,9 @@ import java.util.Set;
 
 public class ExcludingCase<T> implements Case<T> {
 
-	private static final int MAX_ATTEMPTS = 100;
-
 	private final Case<T> baseCase;
 	private final Set<T> excludedValues = new HashSet<T>();
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
 
 	public ExcludingCase(Case<T> baseCase, T excludedValue) {
 		this(baseCase, Collections.singleton(excludedValue));
@@ -37,20 +37,22 @@ public class ExcludingCase<T> implements Case<T> {
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		return Subcases.map(
-			baseCase.getSubcases(),
-			subcase -> (r -> {
-				for(int i = 0; i < MAX_ATTEMPTS; i++) {
-					T t = subcase.generate(r);
-					if(!excludedValues.contains(t)) {
-						return t;
-					}
-				}
-				throw new IllegalStateException(String.format(
-					"Failed to exclude unwanted values from a base case of type %s.",
-					baseCase.getClass()
-				));
-			})
+		// The subcases check the excluded values when they generate, so they can be reused after more are excluded.
+		Set<Subcase<T>> baseSubcases = baseCase.getSubcases();
+
+		return cache.get(
+			() -> Subcases.map(
+				baseSubcases,
+				subcase -> CompiledSubcase.filter(
+					subcase,
+					t -> !excludedValues.contains(t),
+					() -> new IllegalStateException(String.format(
+						"Failed to exclude unwanted values from a base case of type %s.",
+						baseCase.getClass()
+					))
+				)
+			),
+			baseSubcases
 		);
 	}
 
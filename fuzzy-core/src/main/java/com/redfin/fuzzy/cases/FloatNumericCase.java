@@ -2,9 +2,10 @@ package com.redfin.fuzzy.cases;
 
 import com.redfin.fuzzy.Any;
 import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.DoubleSubcase;
 import com.redfin.fuzzy.Subcase;
-import com.redfin.fuzzy.Subcases;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class FloatNumericCase implements Case<Float> {
@@ -16,6 +17,7 @@ public class FloatNumericCase implements Case<Float> {
 	private Float max;
 
 	private final Set<Double> excluding = new HashSet<>();
+	private final SubcaseCache<Float> cache = new SubcaseCache<>();
 
 	public Case<Float> inRange(float minInclusive, float maxInclusive) {
 		if(maxInclusive <= minInclusive) {
@@ -24,6 +26,7 @@ public class FloatNumericCase implements Case<Float> {
 
 		min = minInclusive;
 		max = maxInclusive;
+		cache.clear();
 
 		return this;
 	}
@@ -32,6 +35,7 @@ public class FloatNumericCase implements Case<Float> {
 		max = maxExclusive;
 		min = null;
 		excluding.add((double)maxExclusive);
+		cache.clear();
 
 		return this;
 	}
@@ -39,6 +43,7 @@ public class FloatNumericCase implements Case<Float> {
 	public Case<Float> lessThanOrEqualTo(float maxInclusive) {
 		max = maxInclusive;
 		min = null;
+		cache.clear();
 
 		return this;
 	}
@@ -47,6 +52,7 @@ public class FloatNumericCase implements Case<Float> {
 		max = null;
 		min = minExclusive;
 		excluding.add((double)minExclusive);
+		cache.clear();
 
 		return this;
 	}
@@ -54,6 +60,7 @@ public class FloatNumericCase implements Case<Float> {
 	public Case<Float> greaterThanOrEqualTo(float minInclusive) {
 		max = null;
 		min = minInclusive;
+		cache.clear();
 
 		return this;
 	}
@@ -65,16 +72,27 @@ public class FloatNumericCase implements Case<Float> {
 				if(f != null)
 					excluding.add(f.doubleValue());
 
+		cache.clear();
 		return this;
 	}
 
 	@Override
 	public Set<Subcase<Float>> getSubcases() {
+		return cache.get(this::buildSubcases);
+	}
+
+	private Set<Subcase<Float>> buildSubcases() {
 		Case<Double> baseCase = Any
 			.doublePrecisionNumber()
 			.inRange(min == null ? MIN_GENERATED : min, max == null ? MAX_GENERATED : max)
 			.excluding(excluding);
 
-		return Subcases.mapOutput(baseCase.getSubcases(), Double::floatValue);
+		// The double subcases generate unboxed values, so narrowing them only boxes the resulting float.
+		Set<Subcase<Float>> subcases = new LinkedHashSet<>();
+		for(Subcase<Double> subcase : baseCase.getSubcases()) {
+			DoubleSubcase doubleSubcase = (DoubleSubcase)subcase;
+			subcases.add(r -> (float)doubleSubcase.generateDouble(r));
+		}
+		return subcases;
 	}
 }
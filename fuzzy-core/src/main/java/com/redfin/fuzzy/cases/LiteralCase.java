@@ -9,6 +9,7 @@ import java.util.Set;
 public class LiteralCase<T> implements Case<T> {
 
 	private final T literal;
+	private final Set<Subcase<T>> subcases = Collections.singleton(this::get);
 
 	@SuppressWarnings("unchecked")
 	public LiteralCase(T literal) {
@@ -19,7 +20,7 @@ public class LiteralCase<T> implements Case<T> {
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		return Collections.singleton(this::get);
+		return subcases;
 	}
 
 }
@@ -0,0 +1,40 @@
+package com.redfin.fuzzy.cases;
+
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.CompiledSubcase;
+import com.redfin.fuzzy.FuzzyPreconditions;
+import com.redfin.fuzzy.Subcase;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+public class MappedCase<T, U> implements Case<U> {
+
+	private final Case<T> original;
+	private final BiFunction<Random, T, U> mapping;
+	private final SubcaseCache<U> cache = new SubcaseCache<>();
+
+	public MappedCase(Case<T> original, BiFunction<Random, T, U> mapping) {
+		this.original = FuzzyPreconditions.checkNotNull(original);
+		this.mapping = FuzzyPreconditions.checkNotNull(mapping);
+	}
+
+	@Override
+	public Set<Subcase<U>> getSubcases() {
+		Set<Subcase<T>> sourceSubcases = original.getSubcases();
+
+		return cache.get(
+			() -> {
+				Set<Subcase<U>> mappedSubcases = new LinkedHashSet<>(sourceSubcases.size());
+				for(Subcase<T> source : sourceSubcases) {
+					mappedSubcases.add(CompiledSubcase.map(source, mapping));
+				}
+
+				return mappedSubcases;
+			},
+			sourceSubcases
+		);
+	}
+
+}
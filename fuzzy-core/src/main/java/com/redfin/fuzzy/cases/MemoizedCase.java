@@ -0,0 +1,36 @@
+package com.redfin.fuzzy.cases;
+
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.FuzzyPreconditions;
+import com.redfin.fuzzy.Subcase;
+import java.util.Set;
+
+/**
+ * A case that computes the subcases of another case once, and returns the same (unmodifiable) set from every later call
+ * to {@link #getSubcases()}.
+ *
+ * <p>Memoizing is useful for expensive cases that are declared once (for example, in a static field) and used by many
+ * tests. The delegate case must not be reconfigured after it is memoized, and its subcases must not hold mutable state,
+ * since every test that uses the memoized case shares them.
+ * </p>
+ *
+ * @see Case#memoized()
+ */
+public final class MemoizedCase<T> implements Case<T> {
+
+	private final Case<T> delegateCase;
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
+
+	public MemoizedCase(Case<T> delegateCase) {
+		this.delegateCase = FuzzyPreconditions.checkNotNull(delegateCase);
+	}
+
+	@Override
+	public Set<Subcase<T>> getSubcases() {
+		return cache.get(delegateCase::getSubcases);
+	}
+
+	@Override
+	public Case<T> memoized() { return this; }
+
+}
@@ -3,12 +3,13 @@ package com.redfin.fuzzy.cases;
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Subcase;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class NullableCase<T> implements Case<T> {
 
 	private final Case<T> delegateCase;
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
 
 	public NullableCase(Case<T> delegateCase) {
 		this.delegateCase = FuzzyPreconditions.checkNotNull(delegateCase);
@@ -16,10 +17,17 @@ public class NullableCase<T> implements Case<T> {
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>();
-		subcases.addAll(delegateCase.getSubcases());
-		subcases.add(r -> null);
-		return subcases;
+		Set<Subcase<T>> delegateSubcases = delegateCase.getSubcases();
+
+		return cache.get(
+			() -> {
+				Set<Subcase<T>> subcases = new LinkedHashSet<>();
+				subcases.addAll(delegateSubcases);
+				subcases.add(r -> null);
+				return subcases;
+			},
+			delegateSubcases
+		);
 	}
 
 }
@@ -4,11 +4,15 @@ import com.redfin.fuzzy.Any;
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Generator;
+import com.redfin.fuzzy.IntSubcase;
 import com.redfin.fuzzy.Literal;
+import com.redfin.fuzzy.LongSubcase;
 import com.redfin.fuzzy.Subcase;
 import com.redfin.fuzzy.Subcases;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -21,6 +25,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 	private T max;
 
 	private final Set<T> excluded = new HashSet<T>();
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
 
 	public Case<T> inRange(T minInclusive, T maxInclusive) {
 		FuzzyPreconditions.checkNotNull(minInclusive);
@@ -32,6 +37,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 		min = minInclusive;
 		max = maxInclusive;
+		cache.clear();
 
 		return this;
 	}
@@ -43,6 +49,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		FuzzyPreconditions.checkNotNull(maxInclusive);
 		min = null;
 		max = maxInclusive;
+		cache.clear();
 		return this;
 	}
 
@@ -50,6 +57,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		FuzzyPreconditions.checkNotNull(minInclusive);
 		min = minInclusive;
 		max = null;
+		cache.clear();
 		return this;
 	}
 
@@ -59,6 +67,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 			for(T t : values) {
 				excluded.add(t);
 			}
+			cache.clear();
 		}
 		return this;
 	}
@@ -140,48 +149,38 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		}
 	}
 
-	private Subcase<T> exclude(Subcase<T> subcase) {
-		return r -> {
-			for(int i = 0; i < MAX_ATTEMPTS; i++) {
-				T t = subcase.generate(r);
-				if(!excluded.contains(t)) return t;
-			}
-			throw new IllegalStateException("Numeric case could not generate a value that was not marked as excluded.");
-		};
-	}
-
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>(3);
+		return cache.get(this::buildSubcases);
+	}
+
+	private Set<Subcase<T>> buildSubcases() {
+		Set<Subcase<T>> subcases = new LinkedHashSet<>(3);
 		final T zero = i2t(0);
 
 		// Negative
 		if(min != null && max != null && lt(max, zero)) {
-			final T d = add(max, negate(min));
-			subcases.add(r -> add(min, rngLessThan(r, d)));
+			subcases.add(rangeSubcase(min, add(max, negate(min)), false));
 		}
 		else if(min == null || lt(min, zero)) {
 			if(min == null) {
-				subcases.add(r -> negate(abs(rng(r))));
+				subcases.add(unboundedSubcase(true));
 			}
 			else {
-				final T max = negate(min);
-				subcases.add(r -> negate(rngLessThan(r, max)));
+				subcases.add(rangeSubcase(zero, negate(min), true));
 			}
 		}
 
 		// Positive
 		if(max != null && min != null && lt(zero, min)) {
-			final T d = add(max, negate(min));
-			subcases.add(r -> add(min, rngLessThan(r, d)));
+			subcases.add(rangeSubcase(min, add(max, negate(min)), false));
 		}
 		else if(max == null || lt(zero, max)) {
 			if(max == null) {
-				subcases.add(r -> abs(rng(r)));
+				subcases.add(unboundedSubcase(false));
 			}
 			else {
-				final T max = this.max;
-				subcases.add(r -> rngLessThan(r, max));
+				subcases.add(rangeSubcase(zero, max, false));
 			}
 		}
 
@@ -191,17 +190,62 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 			(max == null || lt(zero, max) || zero.equals(max)) &&
 			!excluded.contains(zero)
 		) {
-			subcases.add(r -> zero);
+			subcases.add(constantSubcase(zero));
 		}
 
 		// Cover the specific boundaries
-		if(min != null && !min.equals(zero) && !excluded.contains(min)) subcases.add(r -> min);
-		if(max != null && !max.equals(zero) && !excluded.contains(max)) subcases.add(r -> max);
+		if(min != null && !min.equals(zero) && !excluded.contains(min)) subcases.add(constantSubcase(min));
+		if(max != null && !max.equals(zero) && !excluded.contains(max)) subcases.add(constantSubcase(max));
 
 		// Let the subclass add additional cases if it wants to.
 		addAdditionalSubcases(subcases);
 
-		return subcases.stream().map(this::exclude).collect(Collectors.toSet());
+		if(excluded.isEmpty())
+			return subcases;
+
+		return subcases.stream()
+			.map(s -> excludingSubcase(s, excluded))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Returns a subcase for values of any magnitude: {@code abs(rng())}, or its negation.
+	 *
+	 * <p>This and the other {@code ...Subcase} methods build the subcases returned by {@link #getSubcases()}. Their
+	 * default implementations box every value through the arithmetic methods; subclasses for primitive types override
+	 * them to return primitive subcases (such as {@link IntSubcase}) that generate values without allocating.
+	 * </p>
+	 */
+	protected Subcase<T> unboundedSubcase(boolean negative) {
+		return negative ? r -> negate(abs(rng(r))) : r -> abs(rng(r));
+	}
+
+	/**
+	 * Returns a subcase for {@code offset + rngLessThan(range)}, or its negation.
+	 */
+	protected Subcase<T> rangeSubcase(T offset, T range, boolean negative) {
+		return negative ? r -> negate(add(offset, rngLessThan(r, range))) : r -> add(offset, rngLessThan(r, range));
+	}
+
+	/**
+	 * Returns a subcase that always generates the given value.
+	 */
+	protected Subcase<T> constantSubcase(T value) {
+		return r -> value;
+	}
+
+	/**
+	 * Returns a subcase that generates values from the given subcase, retrying any value in the (non-empty) set of
+	 * excluded values.
+	 */
+	protected Subcase<T> excludingSubcase(Subcase<T> subcase, Set<T> excluded) {
+		return r -> {
+			for(int i = 0; i < MAX_ATTEMPTS; i++) {
+				T t = subcase.generate(r);
+				if(!excluded.contains(t)) return t;
+			}
+			throw newTooManyExclusionsException();
+		};
 	}
 
 	protected abstract NumericCase<T> newCase();
@@ -217,6 +261,10 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 	protected void addAdditionalSubcases(Set<Subcase<T>> subcases) {}
 
+	private static IllegalStateException newTooManyExclusionsException() {
+		return new IllegalStateException("Numeric case could not generate a value that was not marked as excluded.");
+	}
+
 	public static NumericCase<Byte> ofBytes() {
 		return new NumericCase<Byte>() {
 			@Override protected NumericCase<Byte> newCase() { return Any.byteInteger(); }
@@ -277,27 +325,67 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		return new NumericCase<Integer>() {
 			@Override protected NumericCase<Integer> newCase() { return Any.integer(); }
 
-			@Override protected Integer add(Integer a, Integer b) {
-				long r = a.longValue() + b.longValue();
-				return r < Integer.MIN_VALUE ? Integer.MIN_VALUE : (r > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)r);
-			}
-
+			@Override protected Integer add(Integer a, Integer b) { return addInts(a, b); }
 			@Override protected Integer negate(Integer integer) { return -integer; }
 			@Override protected Integer abs(Integer integer) { int i = integer; return i < 0 ? -i : i; }
 			@Override protected Integer i2t(int i) { return i; }
 			@Override protected boolean lt(Integer a, Integer b) { return a < b; }
-			@Override protected Integer rng(Random random) {
-				int i = random.nextInt();
-				return i == 0 ? 1 : i;
-			}
+			@Override protected Integer rng(Random random) { return rngInt(random); }
 
 			@Override
 			protected Integer rngLessThan(Random random, Integer maxInclusive) {
-				return 1 + random.nextInt(maxInclusive);
+				return rngIntLessThan(random, maxInclusive);
+			}
+
+			@Override
+			protected Subcase<Integer> unboundedSubcase(boolean negative) {
+				return negative ? (IntSubcase) r -> -Math.abs(rngInt(r)) : (IntSubcase) r -> Math.abs(rngInt(r));
+			}
+
+			@Override
+			protected Subcase<Integer> rangeSubcase(Integer offset, Integer range, boolean negative) {
+				final int o = offset;
+				final int n = range;
+				return negative
+					? (IntSubcase) r -> -addInts(o, rngIntLessThan(r, n))
+					: (IntSubcase) r -> addInts(o, rngIntLessThan(r, n));
+			}
+
+			@Override
+			protected Subcase<Integer> constantSubcase(Integer value) {
+				final int i = value;
+				return (IntSubcase) r -> i;
+			}
+
+			@Override
+			protected Subcase<Integer> excludingSubcase(Subcase<Integer> subcase, Set<Integer> excluded) {
+				final IntSubcase s = (IntSubcase)subcase;
+				final int[] sortedExclusions = excluded.stream().mapToInt(Integer::intValue).sorted().toArray();
+				return (IntSubcase) r -> {
+					for(int i = 0; i < MAX_ATTEMPTS; i++) {
+						int value = s.generateInt(r);
+						if(Arrays.binarySearch(sortedExclusions, value) < 0) return value;
+					}
+					throw newTooManyExclusionsException();
+				};
 			}
 		};
 	}
 
+	private static int addInts(int a, int b) {
+		long r = (long)a + b;
+		return r < Integer.MIN_VALUE ? Integer.MIN_VALUE : (r > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)r);
+	}
+
+	private static int rngInt(Random random) {
+		int i = random.nextInt();
+		return i == 0 ? 1 : i;
+	}
+
+	private static int rngIntLessThan(Random random, int maxInclusive) {
+		return 1 + random.nextInt(maxInclusive);
+	}
+
 	public static NumericCase<Long> ofLongs() {
 		return new NumericCase<Long>() {
 			@Override protected NumericCase<Long> newCase() { return Any.longInteger(); }
@@ -309,26 +397,44 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 			@Override protected Long abs(Long lng) { long l = lng; return l < 0 ? -l : l; }
 			@Override protected Long i2t(int i) { return (long) i; }
 			@Override protected boolean lt(Long a, Long b) { return a < b; }
-			@Override protected Long rng(Random random) {
-				long l = random.nextLong();
-				return l == 0 ? 1L : l;
-			}
+			@Override protected Long rng(Random random) { return rngLong(random); }
 
 			@Override
 			protected Long rngLessThan(Random random, Long maxInclusive) {
-				// Deliberately pick a long integer that needs more than 32 bits, if appropriate
-				if(maxInclusive > 0x7FFFFFFF) {
-					// Uniformity of distribution isn't a huge deal here, so we'll just get a random nonnegative long
-					// and shift it right until it's >= max.
-					long l = random.nextLong() & 0x7FFFFFFFFFFFFFFFL;
-					while(l >= maxInclusive) {
-						l >>= 1;
+				return rngLongLessThan(random, maxInclusive);
+			}
+
+			@Override
+			protected Subcase<Long> unboundedSubcase(boolean negative) {
+				return negative ? (LongSubcase) r -> -Math.abs(rngLong(r)) : (LongSubcase) r -> Math.abs(rngLong(r));
+			}
+
+			@Override
+			protected Subcase<Long> rangeSubcase(Long offset, Long range, boolean negative) {
+				final long o = offset;
+				final long n = range;
+				return negative
+					? (LongSubcase) r -> -(o + rngLongLessThan(r, n))
+					: (LongSubcase) r -> o + rngLongLessThan(r, n);
+			}
+
+			@Override
+			protected Subcase<Long> constantSubcase(Long value) {
+				final long l = value;
+				return (LongSubcase) r -> l;
+			}
+
+			@Override
+			protected Subcase<Long> excludingSubcase(Subcase<Long> subcase, Set<Long> excluded) {
+				final LongSubcase s = (LongSubcase)subcase;
+				final long[] sortedExclusions = excluded.stream().mapToLong(Long::longValue).sorted().toArray();
+				return (LongSubcase) r -> {
+					for(int i = 0; i < MAX_ATTEMPTS; i++) {
+						long value = s.generateLong(r);
+						if(Arrays.binarySearch(sortedExclusions, value) < 0) return value;
 					}
-					return l;
-				}
-				else {
-					return (long) 1 + random.nextInt(maxInclusive.intValue());
-				}
+					throw newTooManyExclusionsException();
+				};
 			}
 
 			@Override
@@ -339,7 +445,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 				if(getMax() == null || getMax() > Integer.MIN_VALUE) {
 					if (getMin() == null) {
-						subcases.add(r -> (long) Integer.MIN_VALUE - (1L + (r.nextInt() & 0x3FFFFFFFL)));
+						subcases.add((LongSubcase) r -> (long) Integer.MIN_VALUE - (1L + (r.nextInt() & 0x3FFFFFFFL)));
 					}
 					// if a minimum bound is set and it's less than Integer.MIN_VALUE, it will already be included as
 					// a case
@@ -347,7 +453,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 				if(getMin() == null || getMin() < Integer.MAX_VALUE) {
 					if (getMax() == null) {
-						subcases.add(r -> (long) Integer.MAX_VALUE + 1L + (r.nextInt() & 0x3FFFFFFFL));
+						subcases.add((LongSubcase) r -> (long) Integer.MAX_VALUE + 1L + (r.nextInt() & 0x3FFFFFFFL));
 					}
 					// if a maximum bound is set and it's greater than Integer.MAX_VALUE, it will already be included as
 					// a case
@@ -356,4 +462,25 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		};
 	}
 
+	private static long rngLong(Random random) {
+		long l = random.nextLong();
+		return l == 0 ? 1L : l;
+	}
+
+	private static long rngLongLessThan(Random random, long maxInclusive) {
+		// Deliberately pick a long integer that needs more than 32 bits, if appropriate
+		if(maxInclusive > 0x7FFFFFFF) {
+			// Uniformity of distribution isn't a huge deal here, so we'll just get a random nonnegative long
+			// and shift it right until it's >= max.
+			long l = random.nextLong() & 0x7FFFFFFFFFFFFFFFL;
+			while(l >= maxInclusive) {
+				l >>= 1;
+			}
+			return l;
+		}
+		else {
+			return (long) 1 + random.nextInt((int)maxInclusive);
+		}
+	}
+
 }
@@ -0,0 +1,216 @@
+package com.redfin.fuzzy.cases;
+
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.DoubleSubcase;
+import com.redfin.fuzzy.FuzzyPreconditions;
+import com.redfin.fuzzy.FuzzyRandom;
+import com.redfin.fuzzy.IntSubcase;
+import com.redfin.fuzzy.LongSubcase;
+import com.redfin.fuzzy.Subcase;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Fills primitive arrays and buffers with values generated by numeric cases, for seeding benchmark datasets and other
+ * bulk data.
+ *
+ * <p>Each method writes the same values, in the same order, as the case's {@linkplain Case#stream(long, long) stream}
+ * with the same seed: the element at index {@code k} is generated by the {@code k % n}-th of the case's {@code n}
+ * subcases, from a random number generator seeded with {@code seed} and {@code k} alone. Values generated by
+ * {@linkplain IntSubcase primitive subcases}, such as those of {@link com.redfin.fuzzy.Any#integer()}, are written
+ * without boxing; other subcases' values are unboxed.
+ * </p>
+ * <p>Buffers are filled from their position to their limit using absolute puts, so their position is unchanged. Direct
+ * buffers (for example, {@code ByteBuffer.allocateDirect(size).asIntBuffer()}) are written in place, off the heap.
+ * The {@code parallelFill} methods split arrays into chunks that are filled concurrently in the
+ * {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}, and produce the same values as the
+ * sequential methods.
+ * </p>
+ */
+public final class NumericFill {
+
+	// Large enough that each parallel task amortizes its scheduling overhead, and small enough to balance the work.
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	private NumericFill() {}
+
+	/**
+	 * Fills an array with the first {@code dest.length} values of {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Integer> c, int[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		fill(intSubcases(c), seed, dest, 0, dest.length);
+	}
+
+	/**
+	 * Fills an array with the same values as {@link #fill(Case, int[], long)}, using every core.
+	 */
+	public static void parallelFill(Case<Integer> c, int[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		IntSubcase[] subcases = intSubcases(c);
+		chunks(dest.length).forEach(from ->
+			fill(subcases, seed, dest, from, Math.min(dest.length, from + CHUNK_SIZE))
+		);
+	}
+
+	/**
+	 * Fills the remaining elements of a buffer with the first {@code dest.remaining()} values of
+	 * {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Integer> c, IntBuffer dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		IntSubcase[] subcases = intSubcases(c);
+		FuzzyRandom random = new FuzzyRandom(0);
+
+		int position = dest.position();
+		for(int i = 0, n = dest.remaining(); i < n; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest.put(position + i, subcases[i % subcases.length].generateInt(random));
+		}
+	}
+
+	/**
+	 * Fills an array with the first {@code dest.length} values of {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Long> c, long[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		fill(longSubcases(c), seed, dest, 0, dest.length);
+	}
+
+	/**
+	 * Fills an array with the same values as {@link #fill(Case, long[], long)}, using every core.
+	 */
+	public static void parallelFill(Case<Long> c, long[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		LongSubcase[] subcases = longSubcases(c);
+		chunks(dest.length).forEach(from ->
+			fill(subcases, seed, dest, from, Math.min(dest.length, from + CHUNK_SIZE))
+		);
+	}
+
+	/**
+	 * Fills the remaining elements of a buffer with the first {@code dest.remaining()} values of
+	 * {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Long> c, LongBuffer dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		LongSubcase[] subcases = longSubcases(c);
+		FuzzyRandom random = new FuzzyRandom(0);
+
+		int position = dest.position();
+		for(int i = 0, n = dest.remaining(); i < n; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest.put(position + i, subcases[i % subcases.length].generateLong(random));
+		}
+	}
+
+	/**
+	 * Fills an array with the first {@code dest.length} values of {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Double> c, double[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		fill(doubleSubcases(c), seed, dest, 0, dest.length);
+	}
+
+	/**
+	 * Fills an array with the same values as {@link #fill(Case, double[], long)}, using every core.
+	 */
+	public static void parallelFill(Case<Double> c, double[] dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		DoubleSubcase[] subcases = doubleSubcases(c);
+		chunks(dest.length).forEach(from ->
+			fill(subcases, seed, dest, from, Math.min(dest.length, from + CHUNK_SIZE))
+		);
+	}
+
+	/**
+	 * Fills the remaining elements of a buffer with the first {@code dest.remaining()} values of
+	 * {@code c.stream(seed)}.
+	 */
+	public static void fill(Case<Double> c, DoubleBuffer dest, long seed) {
+		FuzzyPreconditions.checkNotNull(dest);
+		DoubleSubcase[] subcases = doubleSubcases(c);
+		FuzzyRandom random = new FuzzyRandom(0);
+
+		int position = dest.position();
+		for(int i = 0, n = dest.remaining(); i < n; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest.put(position + i, subcases[i % subcases.length].generateDouble(random));
+		}
+	}
+
+	private static void fill(IntSubcase[] subcases, long seed, int[] dest, int from, int to) {
+		FuzzyRandom random = new FuzzyRandom(0);
+		for(int i = from; i < to; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest[i] = subcases[i % subcases.length].generateInt(random);
+		}
+	}
+
+	private static void fill(LongSubcase[] subcases, long seed, long[] dest, int from, int to) {
+		FuzzyRandom random = new FuzzyRandom(0);
+		for(int i = from; i < to; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest[i] = subcases[i % subcases.length].generateLong(random);
+		}
+	}
+
+	private static void fill(DoubleSubcase[] subcases, long seed, double[] dest, int from, int to) {
+		FuzzyRandom random = new FuzzyRandom(0);
+		for(int i = from; i < to; i++) {
+			random.setSeed(FuzzyRandom.seedFor(seed, i));
+			dest[i] = subcases[i % subcases.length].generateDouble(random);
+		}
+	}
+
+	// The starting index of each chunk of an array of the given length, as a parallel stream.
+	private static IntStream chunks(int length) {
+		return IntStream.range(0, (length + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel().map(chunk -> chunk * CHUNK_SIZE);
+	}
+
+	private static IntSubcase[] intSubcases(Case<Integer> c) {
+		Subcase<Integer>[] subcases = subcasesOf(c);
+		IntSubcase[] ints = new IntSubcase[subcases.length];
+		for(int i = 0; i < subcases.length; i++) {
+			Subcase<Integer> subcase = subcases[i];
+			ints[i] = subcase instanceof IntSubcase ? (IntSubcase)subcase : r -> subcase.generate(r);
+		}
+		return ints;
+	}
+
+	private static LongSubcase[] longSubcases(Case<Long> c) {
+		Subcase<Long>[] subcases = subcasesOf(c);
+		LongSubcase[] longs = new LongSubcase[subcases.length];
+		for(int i = 0; i < subcases.length; i++) {
+			Subcase<Long> subcase = subcases[i];
+			longs[i] = subcase instanceof LongSubcase ? (LongSubcase)subcase : r -> subcase.generate(r);
+		}
+		return longs;
+	}
+
+	private static DoubleSubcase[] doubleSubcases(Case<Double> c) {
+		Subcase<Double>[] subcases = subcasesOf(c);
+		DoubleSubcase[] doubles = new DoubleSubcase[subcases.length];
+		for(int i = 0; i < subcases.length; i++) {
+			Subcase<Double> subcase = subcases[i];
+			doubles[i] = subcase instanceof DoubleSubcase ? (DoubleSubcase)subcase : r -> subcase.generate(r);
+		}
+		return doubles;
+	}
+
+	private static <T> Subcase<T>[] subcasesOf(Case<T> c) {
+		FuzzyPreconditions.checkNotNull(c);
+
+		Set<Subcase<T>> subcases = c.getSubcases();
+		if(subcases == null || subcases.isEmpty())
+			throw new IllegalStateException(String.format("Case of type %s generated zero suppliers.", c.getClass()));
+
+		@SuppressWarnings("unchecked")
+		Subcase<T>[] ordered = subcases.toArray(new Subcase[subcases.size()]);
+		return ordered;
+	}
+
+}
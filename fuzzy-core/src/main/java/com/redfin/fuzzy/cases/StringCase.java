@@ -51,6 +51,8 @@ public class StringCase implements Case<String> {
 		Literal.value(INJECTION_STRINGS)
 	);
 
+	private final SubcaseCache<String> cache = new SubcaseCache<>();
+
 	public StringCase withLengthOf(Case<Integer> length) {
 		this.length = FuzzyPreconditions.checkNotNull(length);
 		return this;
@@ -107,10 +109,24 @@ public class StringCase implements Case<String> {
 
 	@Override
 	public Set<Subcase<String>> getSubcases() {
+		Set<Subcase<Integer>> lengthSubcases = length.getSubcases();
+		Set<Subcase<Set<String>>> sourceStringSubcases = sourceStrings.getSubcases();
+
+		return cache.get(
+			() -> buildSubcases(lengthSubcases, sourceStringSubcases),
+			lengthSubcases,
+			sourceStringSubcases
+		);
+	}
+
+	private static Set<Subcase<String>> buildSubcases(
+		Set<Subcase<Integer>> lengthSubcases,
+		Set<Subcase<Set<String>>> sourceStringSubcases
+	) {
 		// TODO: this is wasteful with regards to the case of string length of zero, which always results in ""
 		return Subcases.pairwisePermutations(
-			length.getSubcases(),
-			sourceStrings.getSubcases(),
+			lengthSubcases,
+			sourceStringSubcases,
 
 			(rnd, length, strings) -> {
 				if(length == null || length <= 0)
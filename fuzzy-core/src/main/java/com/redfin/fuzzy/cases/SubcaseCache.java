@@ -0,0 +1,62 @@
+package com.redfin.fuzzy.cases;
+
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.Subcase;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Holds the subcases that a case last built, so that repeated calls to {@link Case#getSubcases()} do not rebuild them.
+ *
+ * <p>Cases that derive their subcases from those of other cases pass the other cases' subcase sets as the
+ * <em>sources</em> of the cached subcases, which are only reused while every source is the identical set. Since the
+ * built-in cases return the same set until they are reconfigured, a case tree is only rebuilt from the first case that
+ * changed. Cases with their own mutable configuration {@linkplain #clear() clear} the cache when it changes.
+ * </p>
+ * <p>Cached sets are unmodifiable. The cache is safe to use from several threads: a race may build the subcases more
+ * than once, but every caller gets a complete set.
+ * </p>
+ */
+/*package*/ final class SubcaseCache<T> {
+
+	private volatile Entry<T> entry;
+
+	/*package*/ Set<Subcase<T>> get(Supplier<Set<Subcase<T>>> build, Object... sources) {
+		Entry<T> e = entry;
+		if(e != null && e.isBuiltFrom(sources))
+			return e.subcases;
+
+		Set<Subcase<T>> built = build.get();
+		if(built == null)
+			return null;
+
+		Set<Subcase<T>> subcases = Collections.unmodifiableSet(built);
+		entry = new Entry<>(sources, subcases);
+		return subcases;
+	}
+
+	/*package*/ void clear() { entry = null; }
+
+	private static final class Entry<T> {
+		private final Object[] sources;
+		private final Set<Subcase<T>> subcases;
+
+		private Entry(Object[] sources, Set<Subcase<T>> subcases) {
+			this.sources = sources;
+			this.subcases = subcases;
+		}
+
+		private boolean isBuiltFrom(Object[] sources) {
+			if(sources.length != this.sources.length)
+				return false;
+
+			for(int i = 0; i < sources.length; i++)
+				if(sources[i] != this.sources[i])
+					return false;
+
+			return true;
+		}
+	}
+
+}
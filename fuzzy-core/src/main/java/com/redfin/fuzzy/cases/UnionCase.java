@@ -2,26 +2,39 @@ package com.redfin.fuzzy.cases;
 
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.Subcase;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 public class UnionCase<T> implements Case<T> {
 
 	private final Set<Case<T>> _subcases;
+	private final SubcaseCache<T> cache = new SubcaseCache<>();
 
 	@SafeVarargs
 	public UnionCase(Case<T>... subcases) {
-		_subcases = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(subcases)));
+		_subcases = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(subcases)));
 	}
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>(_subcases.size());
+		List<Set<Subcase<T>>> sources = new ArrayList<>(_subcases.size());
 		for(Case<T> subcase : _subcases) {
-			subcases.addAll(subcase.getSubcases());
+			sources.add(subcase.getSubcases());
 		}
-		return subcases;
+
+		return cache.get(
+			() -> {
+				Set<Subcase<T>> subcases = new LinkedHashSet<>(_subcases.size());
+				for(Set<Subcase<T>> source : sources) {
+					subcases.addAll(source);
+				}
+				return subcases;
+			},
+			sources.toArray()
+		);
 	}
 }
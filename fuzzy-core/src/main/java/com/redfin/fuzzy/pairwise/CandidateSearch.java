@@ -0,0 +1,259 @@
+package com.redfin.fuzzy.pairwise;
+
+import com.redfin.fuzzy.FuzzyRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Builds {@code t}-wise test cases one row at a time, choosing each row from a number of randomized candidates (in the
+ * style of the AETG algorithm).
+ *
+ * <p>Every candidate starts from the first tuple that has not been covered yet. The remaining parameters are then
+ * visited in a random order, and each one is given the value that covers the most new tuples together with the
+ * parameters that have already been chosen. The candidate that covers the most new tuples overall becomes the next row.
+ * </p>
+ * <p>Candidates only read the shared {@link TupleSet}, so they are built and scored in parallel on the common fork-join
+ * pool. Each candidate draws from its own {@link FuzzyRandom}, seeded from the search's seed, the row number and the
+ * candidate number, and ties always go to the lowest-numbered candidate; the output therefore only depends on the seed,
+ * never on how the work is scheduled across threads.
+ * </p>
+ * <p>If any {@linkplain Constraint constraints} are given, tuples that they forbid are treated as covered from the
+ * start, and candidates only take values that the constraints permit. If no candidate can complete a tuple into a
+ * permitted row, every combination of the remaining values is searched for one; only a tuple that no permitted row can
+ * contain at all is skipped.
+ * </p>
+ */
+/*package*/ class CandidateSearch {
+
+	/*package*/ static final int DEFAULT_CANDIDATES = 16;
+
+	private static final int DONT_CARE = -1;
+
+	private final int[] sizes;
+	private final int strength;
+	private final int candidates;
+	private final long seed;
+	private final List<Constraint> constraints;
+
+	/*package*/ CandidateSearch(int[] sizes, int strength, int candidates, long seed) {
+		this(sizes, strength, candidates, seed, Collections.emptyList());
+	}
+
+	/*package*/ CandidateSearch(int[] sizes, int strength, int candidates, long seed, List<Constraint> constraints) {
+		this.sizes = sizes;
+		this.strength = Math.min(strength, sizes.length);
+		this.candidates = candidates;
+		this.seed = seed;
+		this.constraints = constraints;
+	}
+
+	/*package*/ List<int[]> generate() {
+		return generate(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Generates the test cases, but gives up (returning {@code null}) as soon as more than {@code rowLimit} rows would be
+	 * needed. A search that gives up has built exactly {@code rowLimit} rows.
+	 */
+	/*package*/ List<int[]> generate(int rowLimit) {
+		List<int[]> rows = new ArrayList<>();
+		if(sizes.length == 0)
+			return rows;
+
+		TupleSet tuples = new TupleSet(sizes, strength);
+		if(!constraints.isEmpty())
+			tuples.coverIf(tuple -> !Constraint.permitsAll(constraints, tuple));
+		int end = tuples.bitCount();
+
+		int[] seedColumns = new int[strength];
+		int[] seedTuple = new int[sizes.length];
+		int[] columns = new int[strength];
+
+		// Tuples are only ever removed, so the first uncovered tuple can only move forward.
+		int cursor = 0;
+		while((cursor = tuples.nextUncovered(cursor, end)) >= 0) {
+			if(rows.size() >= rowLimit)
+				return null;
+
+			int block = tuples.blockOf(cursor);
+			tuples.columns(block, seedColumns);
+			Arrays.fill(seedTuple, DONT_CARE);
+			tuples.decode(seedColumns, cursor - tuples.offset(block), seedTuple);
+
+			int rowNumber = rows.size();
+			Candidate best = IntStream
+				.range(0, candidates)
+				.parallel()
+				.mapToObj(c -> build(tuples, seedTuple, seedColumns, new FuzzyRandom(candidateSeed(rowNumber, c))))
+				.reduce((a, b) -> b.score > a.score ? b : a)
+				.orElseThrow(IllegalStateException::new);
+
+			int[] row = best.row;
+			if(row == null) {
+				// No candidate could complete this tuple without violating a constraint, so look for any row that can.
+				row = seedTuple.clone();
+				if(!RowCompleter.complete(row, sizes, r -> Constraint.permitsAll(constraints, r))) {
+					// No permitted test case can contain this tuple.
+					tuples.cover(cursor);
+					continue;
+				}
+			}
+
+			// Mark every tuple of the winning row as covered.
+			for(int i = 0; i < strength; i++) columns[i] = i;
+			do {
+				tuples.cover(tuples.offset(tuples.block(columns)) + tuples.localIndex(columns, row));
+			}
+			while(TupleSet.nextColexCombination(columns, strength) < sizes.length);
+
+			rows.add(row);
+		}
+
+		return rows;
+	}
+
+	private long candidateSeed(int row, int candidate) {
+		// Mix the inputs so that neighboring rows and candidates get unrelated random sequences.
+		return mix(seed + 0x9e3779b97f4a7c15L * (((long)row << 20) + candidate + 1));
+	}
+
+	/**
+	 * Scrambles the bits of a seed with the finalizer from {@code SplittableRandom}, so that consecutive inputs give
+	 * unrelated outputs.
+	 */
+	/*package*/ static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private Candidate build(TupleSet tuples, int[] seedTuple, int[] seedColumns, Random random) {
+		int n = sizes.length;
+		int[] row = seedTuple.clone();
+
+		// The parameters that have been given a value so far, in ascending order.
+		int[] chosen = new int[n];
+		int chosenCount = 0;
+		for(int c : seedColumns)
+			chosen[chosenCount++] = c;
+
+		// Visit the remaining parameters in a random order.
+		int[] order = new int[n - chosenCount];
+		int o = 0;
+		for(int p = 0; p < n; p++)
+			if(row[p] == DONT_CARE)
+				order[o++] = p;
+		for(int i = order.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = order[i]; order[i] = order[j]; order[j] = swap;
+		}
+
+		int[] indices = new int[strength - 1];
+		int[] columns = new int[strength];
+		int[] gains = new int[maxSize()];
+
+		int score = 1; // the seed tuple itself
+		for(int p : order) {
+			Arrays.fill(gains, 0, sizes[p], 0);
+			countUncovered(tuples, row, p, chosen, chosenCount, indices, columns, gains);
+
+			// Start at a random value so that ties between values are broken randomly.
+			int start = random.nextInt(sizes[p]);
+			int bestValue = DONT_CARE;
+			for(int i = 0; i < sizes[p]; i++) {
+				int v = (start + i) % sizes[p];
+				if(bestValue != DONT_CARE && gains[v] <= gains[bestValue])
+					continue;
+
+				row[p] = v;
+				if(constraints.isEmpty() || Constraint.permitsAll(constraints, row))
+					bestValue = v;
+			}
+
+			if(bestValue == DONT_CARE)
+				return Candidate.REJECTED;
+
+			row[p] = bestValue;
+			score += gains[bestValue];
+
+			// Insert p into the sorted list of chosen parameters.
+			int at = chosenCount++;
+			while(at > 0 && chosen[at - 1] > p) {
+				chosen[at] = chosen[at - 1];
+				at--;
+			}
+			chosen[at] = p;
+		}
+
+		return new Candidate(row, score);
+	}
+
+	private int maxSize() {
+		int max = 0;
+		for(int size : sizes) max = Math.max(max, size);
+		return max;
+	}
+
+	/**
+	 * For each value {@code v} of parameter {@code p}, adds the number of uncovered tuples made up of {@code p = v} and
+	 * any {@code t - 1} of the already chosen parameters to {@code gains[v]}.
+	 */
+	private void countUncovered(
+		TupleSet tuples,
+		int[] row,
+		int p,
+		int[] chosen,
+		int chosenCount,
+		int[] indices,
+		int[] columns,
+		int[] gains
+	) {
+		if(chosenCount < indices.length)
+			return;
+
+		row[p] = 0;
+		for(int i = 0; i < indices.length; i++) indices[i] = i;
+		do {
+			// Merge p into the chosen columns, keeping them sorted. Within the tuple's block, consecutive values of p are
+			// spaced by the product of the sizes of the columns that follow it.
+			int k = 0;
+			int stride = 1;
+			boolean placed = false;
+			for(int index : indices) {
+				int c = chosen[index];
+				if(!placed && p < c) {
+					columns[k++] = p;
+					placed = true;
+				}
+				if(placed) stride *= sizes[c];
+				columns[k++] = c;
+			}
+			if(!placed)
+				columns[k] = p;
+
+			int bit = tuples.offset(tuples.block(columns)) + tuples.localIndex(columns, row);
+			for(int v = 0; v < sizes[p]; v++, bit += stride)
+				if(tuples.contains(bit))
+					gains[v]++;
+		}
+		while(indices.length > 0 && TupleSet.nextColexCombination(indices, indices.length) < chosenCount);
+		row[p] = DONT_CARE;
+	}
+
+	private static class Candidate {
+		static final Candidate REJECTED = new Candidate(null, -1);
+
+		final int[] row;
+		final int score;
+
+		Candidate(int[] row, int score) {
+			this.row = row;
+			this.score = score;
+		}
+	}
+
+}
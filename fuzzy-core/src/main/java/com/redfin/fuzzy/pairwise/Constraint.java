@@ -0,0 +1,47 @@
+package com.redfin.fuzzy.pairwise;
+
+/**
+ * A rule that excludes combinations of parameter values from generated test cases.
+ *
+ * <p>Constraints are evaluated against rows of value indices: element {@code i} of the row is the index of the value
+ * chosen for the {@code i}th parameter, or {@link #UNASSIGNED} if no value has been chosen for it yet. Test cases are
+ * built up a few values at a time, so a constraint will see many partially assigned rows; it should only reject a row
+ * when the values that <em>are</em> assigned can never be part of a valid test case, regardless of the values chosen
+ * for the other parameters.
+ * </p>
+ * <p>Constraints may be evaluated concurrently from several threads, and must therefore be stateless (or otherwise
+ * thread-safe).
+ * </p>
+ */
+@FunctionalInterface
+public interface Constraint {
+
+	/**
+	 * The value index of a parameter that has not been assigned yet.
+	 */
+	int UNASSIGNED = -1;
+
+	/**
+	 * Returns {@code true} if the assigned values of the given row may appear together in a test case.
+	 */
+	boolean permits(int[] row);
+
+	/**
+	 * Returns a constraint that forbids value {@code value1} of parameter {@code parameter1} from appearing together
+	 * with value {@code value2} of parameter {@code parameter2}.
+	 */
+	static Constraint forbid(int parameter1, int value1, int parameter2, int value2) {
+		return row -> row[parameter1] != value1 || row[parameter2] != value2;
+	}
+
+	/**
+	 * Returns {@code true} if every one of the given constraints permits the row.
+	 */
+	static boolean permitsAll(Iterable<? extends Constraint> constraints, int[] row) {
+		for(Constraint constraint : constraints)
+			if(!constraint.permits(row))
+				return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable covering array: a table of test cases in which each cell holds the index of the value chosen for one
+ * parameter.
+ *
+ * <p>All cells are stored in a single flat {@code int[]}, row by row, so the cell for parameter {@code p} of row
+ * {@code r} lives at {@code r * parameterCount() + p}. Callers resolve each index against the parameter's values (in
+ * the order they were given to {@link Pairwise}) themselves, which means that reading the array never allocates.
+ * </p>
+ */
+public final class CoveringArray {
+
+	private final int rowCount;
+	private final int parameterCount;
+	private final int[] cells;
+
+	/*package*/ CoveringArray(int rowCount, int parameterCount, int[] cells) {
+		if(rowCount < 0 || parameterCount < 0 || (long)rowCount * parameterCount != cells.length)
+			throw new IllegalArgumentException("Covering array dimensions do not match its cells.");
+
+		this.rowCount = rowCount;
+		this.parameterCount = parameterCount;
+		this.cells = cells;
+	}
+
+	/*package*/ static CoveringArray of(List<int[]> rows, int parameterCount) {
+		int[] cells = new int[rows.size() * parameterCount];
+		int offset = 0;
+		for(int[] row : rows) {
+			System.arraycopy(row, 0, cells, offset, parameterCount);
+			offset += parameterCount;
+		}
+
+		return new CoveringArray(rows.size(), parameterCount, cells);
+	}
+
+	/**
+	 * Returns the number of rows (test cases) in the array.
+	 */
+	public int rowCount() { return rowCount; }
+
+	/**
+	 * Returns the number of parameters, which is also the stride between consecutive rows.
+	 */
+	public int parameterCount() { return parameterCount; }
+
+	/**
+	 * Returns the index of the value chosen for the given parameter in the given row.
+	 */
+	public int get(int row, int parameter) {
+		if(row < 0 || row >= rowCount || parameter < 0 || parameter >= parameterCount)
+			throw new IndexOutOfBoundsException("No cell at row " + row + ", parameter " + parameter + ".");
+
+		return cells[row * parameterCount + parameter];
+	}
+
+	/**
+	 * Copies the value indices of the given row into {@code destination}, starting at {@code offset}, and returns
+	 * {@code destination}.
+	 */
+	public int[] copyRow(int row, int[] destination, int offset) {
+		if(row < 0 || row >= rowCount)
+			throw new IndexOutOfBoundsException("No row " + row + ".");
+
+		System.arraycopy(cells, row * parameterCount, destination, offset, parameterCount);
+		return destination;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+
+		CoveringArray other = (CoveringArray)o;
+		return rowCount == other.rowCount && parameterCount == other.parameterCount && Arrays.equals(cells, other.cells);
+	}
+
+	@Override
+	public int hashCode() {
+		return (rowCount * 31 + parameterCount) * 31 + Arrays.hashCode(cells);
+	}
+
+	@Override
+	public String toString() {
+		return "CoveringArray(" + rowCount + " rows x " + parameterCount + " parameters)";
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, thread-safe cache of covering arrays, shared by every {@link Pairwise} instance.
+ *
+ * <p>A covering array only depends on the number of values of each parameter (plus the strategy and strength used to
+ * build it), never on the values themselves, so test suites that compose many cases of the same shape can reuse a
+ * single array. Arrays are evicted in least-recently-used order once the cache is full.
+ * </p>
+ */
+/*package*/ class CoveringArrayCache {
+
+	/*package*/ static final int DEFAULT_CAPACITY = 256;
+
+	/*package*/ static final CoveringArrayCache SHARED = new CoveringArrayCache(DEFAULT_CAPACITY);
+
+	private final int capacity;
+	private final LinkedHashMap<Key, CoveringArray> arrays;
+
+	/*package*/ CoveringArrayCache(int capacity) {
+		if(capacity < 0)
+			throw new IllegalArgumentException("Cache capacity cannot be less than zero.");
+
+		this.capacity = capacity;
+		this.arrays = new LinkedHashMap<Key, CoveringArray>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CoveringArray> eldest) {
+				return size() > CoveringArrayCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached array for the given key, computing and caching it if necessary. The array is computed outside
+	 * of the cache's lock, so two threads may occasionally compute the same array; since covering arrays are
+	 * deterministic, either result is equally valid.
+	 */
+	/*package*/ CoveringArray get(Key key, Supplier<CoveringArray> generator) {
+		CoveringArray array;
+		synchronized(this) {
+			array = arrays.get(key);
+		}
+
+		if(array == null) {
+			array = generator.get();
+			synchronized(this) {
+				CoveringArray existing = arrays.putIfAbsent(key, array);
+				if(existing != null)
+					array = existing;
+			}
+		}
+
+		return array;
+	}
+
+	/**
+	 * Returns the cached array for the given key, or {@code null} if it has not been computed yet.
+	 */
+	/*package*/ synchronized CoveringArray peek(Key key) { return arrays.get(key); }
+
+	/*package*/ synchronized void put(Key key, CoveringArray array) { arrays.putIfAbsent(key, array); }
+
+	/*package*/ synchronized int size() { return arrays.size(); }
+
+	/*package*/ synchronized void clear() { arrays.clear(); }
+
+	/*package*/ static class Key {
+
+		/*package*/ final int[] sizes;
+		/*package*/ final Pairwise.Strategy strategy;
+		/*package*/ final int strength;
+		/*package*/ final long seed;
+		/*package*/ final int budget;
+		private final int hashCode;
+
+		/*package*/ Key(int[] sizes, Pairwise.Strategy strategy, int strength) {
+			this(sizes, strategy, strength, 0, 0);
+		}
+
+		/**
+		 * @param budget the planning budget of the {@link Pairwise.Strategy#MINIMIZE} strategy, which changes the array
+		 *               it builds; 0 for other strategies.
+		 */
+		/*package*/ Key(int[] sizes, Pairwise.Strategy strategy, int strength, long seed, int budget) {
+			this.sizes = sizes.clone();
+			this.strategy = strategy;
+			this.strength = strength;
+			this.seed = seed;
+			this.budget = budget;
+			this.hashCode = (((Arrays.hashCode(sizes) * 31 + strategy.hashCode()) * 31 + strength) * 31 +
+				Long.hashCode(seed)) * 31 + budget;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+
+			Key other = (Key)o;
+			return strength == other.strength &&
+				seed == other.seed &&
+				budget == other.budget &&
+				strategy == other.strategy &&
+				Arrays.equals(sizes, other.sizes);
+		}
+
+		@Override
+		public int hashCode() { return hashCode; }
+
+		@Override
+		public String toString() {
+			return strategy + "/" + strength + (seed == 0 ? "" : "/" + seed) + (budget == 0 ? "" : "/b" + budget) +
+				Arrays.toString(sizes);
+		}
+
+	}
+
+}
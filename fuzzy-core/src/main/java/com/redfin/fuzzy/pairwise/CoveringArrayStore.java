@@ -0,0 +1,176 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * An optional on-disk store of covering arrays, so that separate JVMs (such as parallel test forks, or consecutive
+ * builds) can reuse arrays computed by one another instead of rebuilding them.
+ *
+ * <p>The store is disabled unless the {@value #DIRECTORY_PROPERTY} system property names a directory, for example
+ * {@code -Dfuzzy.pairwise.store=target/fuzzy-covering-arrays}. Each array is kept in its own small binary file, named
+ * after its {@linkplain CoveringArrayCache.Key shape}, which is read back through a memory-mapped buffer. New files are
+ * written to a temporary file and atomically renamed into place, so concurrent writers never expose a partial file
+ * and readers simply see whichever complete copy won.
+ * </p>
+ * <p>The store is strictly a cache: a missing, unreadable or invalid file is silently recomputed, and a failure to
+ * write one is ignored.
+ * </p>
+ */
+/*package*/ class CoveringArrayStore {
+
+	/*package*/ static final String DIRECTORY_PROPERTY = "fuzzy.pairwise.store";
+
+	/*package*/ static final CoveringArrayStore SHARED = fromSystemProperties();
+
+	private static final int MAGIC = 0x46555a43; // "FUZC"
+	private static final int VERSION = 3;
+	private static final int MAX_FILE_NAME_LENGTH = 128;
+
+	private final Path directory;
+
+	/*package*/ CoveringArrayStore(Path directory) {
+		this.directory = directory;
+	}
+
+	private static CoveringArrayStore fromSystemProperties() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return directory == null || directory.trim().isEmpty() ? null : new CoveringArrayStore(Paths.get(directory));
+	}
+
+	/**
+	 * Returns the stored array for the given key, or computes and stores it if there is no valid stored copy.
+	 */
+	/*package*/ CoveringArray get(CoveringArrayCache.Key key, Supplier<CoveringArray> generator) {
+		Path file = directory.resolve(fileName(key));
+
+		CoveringArray array = read(file, key);
+		if(array == null) {
+			array = generator.get();
+			write(file, key, array);
+		}
+
+		return array;
+	}
+
+	/*package*/ static String fileName(CoveringArrayCache.Key key) {
+		StringBuilder sb = new StringBuilder()
+			.append(key.strategy.name().toLowerCase())
+			.append("-t")
+			.append(key.strength);
+		if(key.seed != 0)
+			sb.append("-s").append(Long.toHexString(key.seed));
+		if(key.budget != 0)
+			sb.append("-b").append(key.budget);
+		sb.append('-');
+		for(int i = 0; i < key.sizes.length; i++) {
+			if(i > 0) sb.append('x');
+			sb.append(key.sizes[i]);
+		}
+
+		// Very wide shapes are named by hash instead; a collision just means the stored header won't match and the
+		// array is recomputed.
+		String name = sb.toString();
+		if(name.length() > MAX_FILE_NAME_LENGTH)
+			name = key.strategy.name().toLowerCase() + "-t" + key.strength + "-n" + key.sizes.length + "-h" +
+				Integer.toHexString(key.hashCode());
+
+		return name + ".bin";
+	}
+
+	/*package*/ static CoveringArray read(Path file, CoveringArrayCache.Key key) {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			IntBuffer ints = buffer.asIntBuffer();
+
+			int n = key.sizes.length;
+			if(ints.remaining() < 9 + n)
+				return null;
+			if(ints.get() != MAGIC || ints.get() != VERSION)
+				return null;
+			if(ints.get() != key.strategy.ordinal() || ints.get() != key.strength || ints.get() != n)
+				return null;
+			if(ints.get() != (int)(key.seed >>> 32) || ints.get() != (int)key.seed || ints.get() != key.budget)
+				return null;
+			for(int size : key.sizes)
+				if(ints.get() != size)
+					return null;
+
+			int rowCount = ints.get();
+			if(rowCount < 0 || (long)rowCount * n != ints.remaining())
+				return null;
+
+			int[] cells = new int[rowCount * n];
+			ints.get(cells);
+			for(int i = 0; i < cells.length; i++)
+				if(cells[i] < 0 || cells[i] >= key.sizes[i % n])
+					return null;
+
+			return new CoveringArray(rowCount, n, cells);
+		}
+		catch(IOException | RuntimeException e) {
+			// A missing or unreadable file just means we have to compute the array ourselves.
+			return null;
+		}
+	}
+
+	/*package*/ static void write(Path file, CoveringArrayCache.Key key, CoveringArray array) {
+		int n = key.sizes.length;
+		ByteBuffer buffer = ByteBuffer.allocate(4 * (9 + n + array.rowCount() * n));
+		buffer
+			.putInt(MAGIC)
+			.putInt(VERSION)
+			.putInt(key.strategy.ordinal())
+			.putInt(key.strength)
+			.putInt(n)
+			.putLong(key.seed)
+			.putInt(key.budget);
+		for(int size : key.sizes)
+			buffer.putInt(size);
+		buffer.putInt(array.rowCount());
+		for(int row = 0; row < array.rowCount(); row++)
+			for(int i = 0; i < n; i++)
+				buffer.putInt(array.get(row, i));
+		buffer.flip();
+
+		Path temp = null;
+		try {
+			Files.createDirectories(file.getParent());
+			temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+			try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				while(buffer.hasRemaining())
+					channel.write(buffer);
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch(AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+		}
+		catch(IOException | RuntimeException e) {
+			// Another fork may already have stored this array, or the directory may not be writable; either way we
+			// still have the rows we computed.
+		}
+		finally {
+			if(temp != null) {
+				try { Files.deleteIfExists(temp); }
+				catch(IOException ignored) { }
+			}
+		}
+	}
+
+}
@@ -0,0 +1,364 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Builds {@code t}-wise test cases with the IPOG ("in-parameter-order, generalized") strategy.
+ *
+ * <p>The algorithm starts with every combination of the {@code t} largest parameters, and then grows the array one
+ * parameter at a time. Each new parameter is first added to the existing test cases by choosing, for every row, the
+ * value that covers the most new tuples (<em>horizontal extension</em>). Any tuples that remain are then added by
+ * filling in unused slots of existing rows, or by appending new rows when no such slot exists (<em>vertical
+ * extension</em>).
+ * </p>
+ * <p>Rows are stored as arrays of value indices, with {@code -1} marking slots whose value does not matter yet, so the
+ * memory required is proportional to the number of rows times the number of parameters (plus one bit per tuple in the
+ * {@link TupleSet}).
+ * </p>
+ * <p>If any {@linkplain Constraint constraints} are given, tuples that they forbid are treated as covered from the
+ * start, and a value is only ever placed in a row if the constraints still permit the row afterwards. A row whose
+ * remaining slots cannot be filled without violating a constraint is dropped, and each tuple it covered gets a row of
+ * its own at the end instead, unless no permitted row can contain the tuple at all.
+ * </p>
+ */
+/*package*/ class Ipog {
+
+	private static final int DONT_CARE = -1;
+
+	private final List<Param> params;
+	private final int strength;
+	private final List<Constraint> constraints;
+
+	// Constraints see rows in the caller's parameter order; these map our ordered columns back to it.
+	private Integer[] order;
+	private int[] unordered;
+
+	/*package*/ Ipog(List<Param> params, int strength) {
+		this(params, strength, Collections.emptyList());
+	}
+
+	/*package*/ Ipog(List<Param> params, int strength, List<Constraint> constraints) {
+		this.params = params;
+		this.strength = strength;
+		this.constraints = constraints;
+	}
+
+	/*package*/ List<int[]> generate() {
+		int n = params.size();
+		int t = Math.min(strength, n);
+
+		// Process parameters from largest to smallest; this keeps the initial array (and therefore the final one) small.
+		order = new Integer[n];
+		for(int i = 0; i < n; i++) order[i] = i;
+		Arrays.sort(order, (a, b) -> params.get(b).values.size() - params.get(a).values.size());
+		unordered = new int[n];
+
+		int[] sizes = new int[n];
+		for(int i = 0; i < n; i++)
+			sizes[i] = params.get(order[i]).values.size();
+
+		List<int[]> rows = new ArrayList<>();
+		if(n > 0) {
+			// Start with every (permitted) combination of the first t parameters.
+			int[] row = new int[n];
+			Arrays.fill(row, DONT_CARE);
+			Arrays.fill(row, 0, t, 0);
+			do {
+				if(permits(row))
+					rows.add(row.clone());
+			}
+			while(nextProduct(row, sizes, t));
+
+			if(t < n) {
+				TupleSet tuples = new TupleSet(sizes, t);
+				if(!constraints.isEmpty())
+					tuples.coverIf(tuple -> !permits(tuple));
+
+				int[] columns = new int[t];
+				for(int[] initial : rows)
+					cover(tuples, initial, t - 1, columns);
+
+				for(int k = t; k < n; k++) {
+					extendHorizontally(rows, tuples, sizes, k, columns);
+					extendVertically(rows, tuples, sizes, k, columns);
+				}
+
+				fillDontCares(rows, sizes);
+				if(!constraints.isEmpty())
+					coverRemaining(rows, sizes, t, columns);
+			}
+		}
+
+		// Map our ordered columns back to the caller's parameter order.
+		List<int[]> result = new ArrayList<>(rows.size());
+		for(int[] row : rows) {
+			int[] mapped = new int[n];
+			for(int i = 0; i < n; i++)
+				mapped[order[i]] = row[i];
+			result.add(mapped);
+		}
+
+		return result;
+	}
+
+	private void extendHorizontally(List<int[]> rows, TupleSet tuples, int[] sizes, int k, int[] columns) {
+		int[] gains = new int[sizes[k]];
+
+		for(int[] row : rows) {
+			Arrays.fill(gains, 0);
+
+			// For each combination of t - 1 earlier columns, tally which values of k would complete an uncovered tuple.
+			firstCombination(columns, k);
+			do {
+				if(isSet(row, columns, columns.length - 1)) {
+					int base = tuples.offset(tuples.block(columns)) + partialIndex(row, sizes, columns);
+					for(int v = 0; v < sizes[k]; v++)
+						if(tuples.contains(base + v))
+							gains[v]++;
+				}
+			}
+			while(nextCombination(columns, k));
+
+			int bestValue = DONT_CARE;
+			for(int v = 0; v < sizes[k]; v++) {
+				if(bestValue != DONT_CARE && gains[v] <= gains[bestValue])
+					continue;
+
+				row[k] = v;
+				if(permits(row))
+					bestValue = v;
+			}
+
+			// If no value is permitted, leave the slot for the vertical extension (or the final fill) to sort out.
+			row[k] = bestValue;
+			if(bestValue != DONT_CARE)
+				cover(tuples, row, k, columns);
+		}
+	}
+
+	private void extendVertically(List<int[]> rows, TupleSet tuples, int[] sizes, int k, int[] columns) {
+		int n = sizes.length;
+
+		// Index the rows that still have an unset value for one of the first k parameters by their value for k; those
+		// are the only rows that can absorb a missing tuple. Rows without a value for k can absorb any of them.
+		List<List<int[]>> candidates = new ArrayList<>(sizes[k]);
+		for(int v = 0; v < sizes[k]; v++)
+			candidates.add(new ArrayList<>());
+		List<int[]> wildcards = new ArrayList<>();
+
+		for(int[] row : rows) {
+			if(row[k] == DONT_CARE) {
+				wildcards.add(row);
+				continue;
+			}
+
+			for(int j = 0; j < k; j++) {
+				if(row[j] == DONT_CARE) {
+					candidates.get(row[k]).add(row);
+					break;
+				}
+			}
+		}
+
+		int[] tuple = new int[n];
+		int[] tupleColumns = new int[columns.length];
+		int[] previous = new int[columns.length];
+
+		firstCombination(columns, k);
+		do {
+			int block = tuples.block(columns);
+			int start = tuples.offset(block);
+			int end = start + tuples.blockSize(block);
+
+			// Covering a tuple below can also cover other tuples in this block, so keep our own copy of the columns.
+			System.arraycopy(columns, 0, tupleColumns, 0, columns.length);
+
+			for(int bit = tuples.nextUncovered(start, end); bit >= 0; bit = tuples.nextUncovered(bit + 1, end)) {
+				tuples.decode(tupleColumns, bit - start, tuple);
+
+				int[] target = null;
+				for(int[] candidate : candidates.get(tuple[k])) {
+					if(tryAssign(candidate, tuple, tupleColumns, previous)) {
+						target = candidate;
+						break;
+					}
+				}
+
+				if(target == null) {
+					for(Iterator<int[]> i = wildcards.iterator(); i.hasNext(); ) {
+						int[] wildcard = i.next();
+						if(tryAssign(wildcard, tuple, tupleColumns, previous)) {
+							target = wildcard;
+							i.remove();
+							candidates.get(tuple[k]).add(target);
+							break;
+						}
+					}
+				}
+
+				if(target == null) {
+					// The constraints already permit this tuple on its own; forbidden tuples were covered up front.
+					target = new int[n];
+					Arrays.fill(target, DONT_CARE);
+					for(int c : tupleColumns)
+						target[c] = tuple[c];
+					candidates.get(tuple[k]).add(target);
+					rows.add(target);
+				}
+
+				cover(tuples, target, k, columns);
+				System.arraycopy(tupleColumns, 0, columns, 0, columns.length);
+			}
+		}
+		while(nextCombination(columns, k));
+	}
+
+	/**
+	 * Copies the tuple's values into the row if they are compatible with its existing values and the constraints still
+	 * permit the row afterwards. Returns {@code false} (leaving the row unchanged) otherwise.
+	 */
+	private boolean tryAssign(int[] row, int[] tuple, int[] columns, int[] previous) {
+		for(int c : columns)
+			if(row[c] != DONT_CARE && row[c] != tuple[c])
+				return false;
+
+		for(int i = 0; i < columns.length; i++) {
+			previous[i] = row[columns[i]];
+			row[columns[i]] = tuple[columns[i]];
+		}
+
+		if(permits(row))
+			return true;
+
+		for(int i = 0; i < columns.length; i++)
+			row[columns[i]] = previous[i];
+		return false;
+	}
+
+	/**
+	 * Marks every tuple of the row whose last column is {@code k} and whose values are all set as covered.
+	 */
+	private static void cover(TupleSet tuples, int[] row, int k, int[] columns) {
+		firstCombination(columns, k);
+		do {
+			if(isSet(row, columns, columns.length))
+				tuples.cover(tuples.offset(tuples.block(columns)) + tuples.localIndex(columns, row));
+		}
+		while(nextCombination(columns, k));
+	}
+
+	private void fillDontCares(List<int[]> rows, int[] sizes) {
+		int[] selectors = new int[sizes.length];
+		int[] original = new int[sizes.length];
+		for(Iterator<int[]> r = rows.iterator(); r.hasNext(); ) {
+			int[] row = r.next();
+			System.arraycopy(row, 0, original, 0, row.length);
+			for(int i = 0; i < row.length; i++) {
+				if(row[i] != DONT_CARE)
+					continue;
+
+				// Take the next value round-robin, skipping any that the constraints would reject.
+				for(int attempt = 0; attempt < sizes[i] && row[i] == DONT_CARE; attempt++) {
+					int v = (selectors[i] + attempt) % sizes[i];
+					row[i] = v;
+					if(permits(row))
+						selectors[i] = (v + 1) % sizes[i];
+					else
+						row[i] = DONT_CARE;
+				}
+
+				if(row[i] == DONT_CARE) {
+					// An earlier choice may have ruled out every value of this parameter, so search for any completion.
+					System.arraycopy(original, 0, row, 0, row.length);
+					if(!RowCompleter.complete(row, sizes, this::permits))
+						r.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a row for every permitted tuple that the rows don't cover, which only happens if
+	 * {@link #fillDontCares(List, int[])} had to drop a row. Tuples that no permitted row can contain are skipped.
+	 */
+	private void coverRemaining(List<int[]> rows, int[] sizes, int t, int[] columns) {
+		int n = sizes.length;
+		TupleSet tuples = new TupleSet(sizes, t);
+		tuples.coverIf(tuple -> !permits(tuple));
+		for(int[] row : rows)
+			for(int k = t - 1; k < n; k++)
+				cover(tuples, row, k, columns);
+
+		int[] tupleColumns = new int[t];
+		int end = tuples.bitCount();
+		for(int bit = tuples.nextUncovered(0, end); bit >= 0; bit = tuples.nextUncovered(bit + 1, end)) {
+			int block = tuples.blockOf(bit);
+			tuples.columns(block, tupleColumns);
+
+			int[] row = new int[n];
+			Arrays.fill(row, DONT_CARE);
+			tuples.decode(tupleColumns, bit - tuples.offset(block), row);
+			if(RowCompleter.complete(row, sizes, this::permits)) {
+				rows.add(row);
+				for(int k = t - 1; k < n; k++)
+					cover(tuples, row, k, columns);
+			}
+		}
+	}
+
+	private boolean permits(int[] row) {
+		if(constraints.isEmpty())
+			return true;
+
+		for(int i = 0; i < row.length; i++)
+			unordered[order[i]] = row[i];
+		return Constraint.permitsAll(constraints, unordered);
+	}
+
+	private static void firstCombination(int[] columns, int k) {
+		for(int i = 0; i < columns.length - 1; i++) columns[i] = i;
+		columns[columns.length - 1] = k;
+	}
+
+	/**
+	 * Advances the first {@code t - 1} entries of {@code columns} to the next combination of columns less than
+	 * {@code k}, leaving the last entry ({@code k} itself) alone. Returns {@code false} when there are no more.
+	 */
+	private static boolean nextCombination(int[] columns, int k) {
+		int last = TupleSet.nextColexCombination(columns, columns.length - 1);
+		return last >= 0 && last < k;
+	}
+
+	private static boolean nextProduct(int[] row, int[] sizes, int t) {
+		for(int i = t - 1; i >= 0; i--) {
+			if(++row[i] < sizes[i])
+				return true;
+			row[i] = 0;
+		}
+		return false;
+	}
+
+	private static boolean isSet(int[] row, int[] columns, int length) {
+		for(int i = 0; i < length; i++)
+			if(row[columns[i]] == DONT_CARE)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the mixed-radix index of the row's values in all but the last of the given columns, scaled by the size of
+	 * the last column (so adding a value of the last column yields its tuple's position within the block).
+	 */
+	private static int partialIndex(int[] row, int[] sizes, int[] columns) {
+		int index = 0;
+		for(int i = 0; i < columns.length - 1; i++)
+			index = index * sizes[columns[i]] + row[columns[i]];
+		return index * sizes[columns[columns.length - 1]];
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.List;
+
+/**
+ * Searches for a small set of {@code t}-wise test cases by running several constructions and keeping the smallest
+ * result.
+ *
+ * <p>The search starts from the deterministic {@link Ipog} array, and then runs a series of randomized
+ * {@link CandidateSearch candidate searches}, each with a seed derived from the minimizer's seed and the attempt number.
+ * An attempt is abandoned as soon as it needs as many rows as the best array found so far, so later attempts get
+ * cheaper as the best array shrinks. The search stops after a fixed number of attempts, or once the attempts have built
+ * a fixed number of rows between them; the IPOG array is always computed, and doesn't count against the row budget.
+ * </p>
+ * <p>Both limits count work rather than time, so the result only depends on the seed, never on the speed of the
+ * machine or on how busy it is.
+ * </p>
+ */
+/*package*/ class Minimizer {
+
+	/*package*/ static final int DEFAULT_ATTEMPTS = 16;
+	/*package*/ static final int DEFAULT_ROW_BUDGET = 1024;
+
+	private final List<Param> params;
+	private final int strength;
+	private final long seed;
+	private final List<Constraint> constraints;
+	private final int attempts;
+	private final int rowBudget;
+
+	/*package*/ Minimizer(
+		List<Param> params,
+		int strength,
+		long seed,
+		List<Constraint> constraints,
+		int attempts,
+		int rowBudget
+	) {
+		this.params = params;
+		this.strength = strength;
+		this.seed = seed;
+		this.constraints = constraints;
+		this.attempts = attempts;
+		this.rowBudget = rowBudget;
+	}
+
+	/*package*/ List<int[]> generate() {
+		List<int[]> best = new Ipog(params, strength, constraints).generate();
+
+		int[] sizes = new int[params.size()];
+		for(int i = 0; i < sizes.length; i++)
+			sizes[i] = params.get(i).values.size();
+
+		int remaining = rowBudget;
+		for(int attempt = 1; attempt < attempts && !best.isEmpty() && remaining > 0; attempt++) {
+			int rowLimit = Math.min(best.size() - 1, remaining);
+			List<int[]> rows = new CandidateSearch(
+				sizes,
+				strength,
+				CandidateSearch.DEFAULT_CANDIDATES,
+				CandidateSearch.mix(seed + attempt),
+				constraints
+			).generate(rowLimit);
+
+			// Only arrays that are strictly smaller come back, so ties go to the earlier attempt.
+			if(rows != null) {
+				remaining -= rows.size();
+				best = rows;
+			}
+			else {
+				remaining -= rowLimit;
+			}
+		}
+
+		return best;
+	}
+
+}
@@ -12,9 +12,11 @@ package com.redfin.fuzzy.pairwise;
 
 	@Override
 	public int hashCode() {
-		return
-			(p1.param.id * 1000 + p1.id) +
-			(p2.param.id * 100 + p2.id);
+		int hash = p1.param.id;
+		hash = 31 * hash + p1.id;
+		hash = 31 * hash + p2.param.id;
+		hash = 31 * hash + p2.id;
+		return hash;
 	}
 
 	@Override
@@ -1,22 +1,72 @@
 package com.redfin.fuzzy.pairwise;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
+/**
+ * Tracks which value pairs of a set of parameters have yet to be covered by a generated test case.
+ *
+ * <p>Pairs are stored as bits in a single flat bitset. Each pair of parameters {@code (i, j)} (with {@code i < j}) owns
+ * a contiguous block of {@code |i| * |j|} bits, and the pair {@code (a, b)} of values from those parameters lives at
+ * bit {@code offset(i, j) + a * |j| + b}. A set bit means that the pair has not been covered yet. Covering, testing and
+ * counting pairs therefore never hashes or allocates.
+ * </p>
+ */
 /*package*/ class PairSet {
 
-	private final Map<Param, ParamPairs> allPairs = new HashMap<>();
+	private final List<Param> params;
+	private final int[] sizes;
+	private final int[][] offsets;
+	private final int[][] remaining;
+	private final long[] bits;
+
 	private int pairs;
 
-	/*package*/ void register(Pair pair) {
-		register(pair.p1.param, pair.p2.param, pair);
-		register(pair.p2.param, pair.p1.param, pair);
+	/*package*/ PairSet(List<Param> params) {
+		this.params = params;
+
+		int n = params.size();
+		sizes = new int[n];
+		for(int i = 0; i < n; i++)
+			sizes[i] = params.get(i).values.size();
+
+		offsets = new int[n][n];
+		remaining = new int[n][n];
+
+		long total = 0;
+		for(int i = 0; i < n - 1; i++) {
+			for(int j = i + 1; j < n; j++) {
+				offsets[i][j] = (int)total;
+				total += (long)sizes[i] * sizes[j];
+			}
+		}
+
+		if(total > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many parameter value pairs to generate pairwise permutations.");
 
-		pairs++;
+		bits = new long[(int)((total + 63) >>> 6)];
+	}
+
+	/**
+	 * Marks every possible pair of parameter values as uncovered.
+	 */
+	/*package*/ void registerAll() {
+		// Every block is contiguous, so registering everything just sets every bit.
+		long total = 0;
+		for(int i = 0; i < sizes.length - 1; i++) {
+			for(int j = i + 1; j < sizes.length; j++) {
+				remaining[i][j] = sizes[i] * sizes[j];
+				total += remaining[i][j];
+			}
+		}
+
+		Arrays.fill(bits, -1L);
+		if((total & 63) != 0)
+			bits[bits.length - 1] = (1L << (total & 63)) - 1;
+
+		pairs = (int)total;
 	}
 
 	/*package*/ boolean isEmpty() {
@@ -27,65 +77,98 @@ import java.util.Set;
 		return pairs;
 	}
 
-	/*package*/ Set<Pair> toSet() {
-		Set<Pair> set = new HashSet<>(pairs);
-		for(ParamPairs paramPairs : allPairs.values())
-			for(Pairs subset : paramPairs.pairs.values())
-				set.addAll(subset);
+	/*package*/ int size(int p1, int p2) {
+		return p1 < p2 ? remaining[p1][p2] : remaining[p2][p1];
+	}
 
-		return set;
+	/*package*/ boolean contains(int p1, int v1, int p2, int v2) {
+		if(p1 > p2) return contains(p2, v2, p1, v1);
+
+		int bit = bit(p1, v1, p2, v2);
+		return (bits[bit >>> 6] & (1L << bit)) != 0;
 	}
 
-	/*package*/ Pair consume(Param p1, Param p2) {
-		Pair p = allPairs.get(p1).get(p2).consume();
-		if(p == null) return null;
+	/**
+	 * Marks a single pair as covered, returning {@code true} if it had not been covered before.
+	 */
+	/*package*/ boolean cover(int p1, int v1, int p2, int v2) {
+		if(p1 > p2) return cover(p2, v2, p1, v1);
 
-		// Consume this pair's twin as well.
-		allPairs.get(p2).discard(p);
+		int bit = bit(p1, v1, p2, v2);
+		long mask = 1L << bit;
+		if((bits[bit >>> 6] & mask) == 0)
+			return false;
 
+		bits[bit >>> 6] &= ~mask;
+		remaining[p1][p2]--;
 		pairs--;
-
-		return p;
+		return true;
 	}
 
-	private void register(Param p1, Param p2, Pair p) {
-		if(!allPairs.containsKey(p1))
-			allPairs.put(p1, new ParamPairs());
-
-		allPairs.get(p1).register(p2, p);
+	/**
+	 * Marks every pair contained in the given test case (an array of value indices, one per parameter) as covered, and
+	 * returns the number of pairs that had not been covered before.
+	 */
+	/*package*/ int cover(int[] row) {
+		int covered = 0;
+		for(int i = 0; i < row.length - 1; i++)
+			for(int j = i + 1; j < row.length; j++)
+				if(cover(i, row[i], j, row[j]))
+					covered++;
+
+		return covered;
 	}
 
-	private static class ParamPairs {
-		final Map<Param, Pairs> pairs = new HashMap<>();
-
-		Pairs get(Param p2) {
-			return pairs.get(p2);
-		}
+	/**
+	 * Finds and covers the first uncovered pair between the two given parameters ({@code p1 < p2}), writing its value
+	 * indices into {@code row[p1]} and {@code row[p2]}. Returns {@code false} if all of their pairs have already been
+	 * covered.
+	 */
+	/*package*/ boolean consume(int p1, int p2, int[] row) {
+		if(remaining[p1][p2] == 0)
+			return false;
+
+		int start = offsets[p1][p2];
+		int bit = nextSetBit(start, start + sizes[p1] * sizes[p2]);
+		if(bit < 0)
+			return false;
+
+		bits[bit >>> 6] &= ~(1L << bit);
+		remaining[p1][p2]--;
+		pairs--;
 
-		void register(Param p2, Pair p) {
-			if(!pairs.containsKey(p2))
-				pairs.put(p2, new Pairs());
+		row[p1] = (bit - start) / sizes[p2];
+		row[p2] = (bit - start) % sizes[p2];
+		return true;
+	}
 
-			pairs.get(p2).add(p);
-		}
+	/*package*/ Set<Pair> toSet() {
+		Set<Pair> set = new HashSet<>(pairs);
+		for(int i = 0; i < sizes.length - 1; i++)
+			for(int j = i + 1; j < sizes.length; j++)
+				for(int a = 0; a < sizes[i]; a++)
+					for(int b = 0; b < sizes[j]; b++)
+						if(contains(i, a, j, b))
+							set.add(new Pair(params.get(i).values.get(a), params.get(j).values.get(b)));
 
-		void discard(Pair p) {
-			Pairs subset = pairs.get(p.p2.param);
-			if(subset != null) subset.remove(p);
-		}
+		return set;
 	}
 
-	private static class Pairs extends LinkedHashSet<Pair> {
-		private static final long serialVersionUID = 1;
-		Pair consume() {
-			if(size() == 0)
-				return null;
-
-			Iterator<Pair> i = iterator();
-			Pair p = i.next();
+	private int bit(int p1, int v1, int p2, int v2) {
+		return offsets[p1][p2] + v1 * sizes[p2] + v2;
+	}
 
-			remove(p);
-			return p;
+	private int nextSetBit(int from, int to) {
+		int word = from >>> 6;
+		long w = bits[word] & (-1L << from);
+		while(true) {
+			if(w != 0) {
+				int bit = (word << 6) + Long.numberOfTrailingZeros(w);
+				return bit < to ? bit : -1;
+			}
+			if(++word << 6 >= to)
+				return -1;
+			w = bits[word];
 		}
 	}
 
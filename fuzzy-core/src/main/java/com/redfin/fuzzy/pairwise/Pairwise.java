@@ -2,20 +2,98 @@ package com.redfin.fuzzy.pairwise;
 
 import com.redfin.fuzzy.FuzzyPreconditions;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 
 public class Pairwise<S extends Collection> {
 
+	/**
+	 * The algorithms available for building pairwise test cases.
+	 */
+	public enum Strategy {
+		/**
+		 * Builds each test case by greedily consuming uncovered pairs, filling any remaining parameters round-robin.
+		 * This is the default strategy.
+		 */
+		GREEDY,
+
+		/**
+		 * Builds the test cases with the IPOG (in-parameter-order) algorithm, which grows the set of test cases one
+		 * parameter at a time. This typically produces noticeably fewer test cases than {@link #GREEDY} when there are
+		 * many parameters.
+		 */
+		IN_PARAMETER_ORDER,
+
+		/**
+		 * Builds each test case by generating a number of randomized candidates and keeping the one that covers the
+		 * most new combinations. Candidates are built and scored in parallel, so construction time scales with the
+		 * number of cores; the output still only depends on the seed given to {@code Pairwise}. This strategy is
+		 * intended for very wide parameter sets, where it produces about as few test cases as
+		 * {@link #IN_PARAMETER_ORDER}.
+		 */
+		CANDIDATE_SEARCH,
+
+		/**
+		 * Searches for the smallest set of test cases it can find within a planning budget (see
+		 * {@link #withPlanningBudget(int)}), starting from the {@link #IN_PARAMETER_ORDER} test cases and then trying a
+		 * series of randomized {@link #CANDIDATE_SEARCH} constructions with seeds derived from the seed given to
+		 * {@code Pairwise}. This strategy never produces more test cases than {@link #IN_PARAMETER_ORDER}, and is
+		 * intended for suites where every test case is expensive enough that some extra planning is worth saving a few
+		 * of them.
+		 *
+		 * <p>The budget counts the test cases that the randomized constructions build rather than the time they take,
+		 * so the result only depends on the seed, on every machine.
+		 * </p>
+		 */
+		MINIMIZE,
+	}
+
 	private final List<Param> params;
+	private final Strategy strategy;
+	private final int strength;
+	private final long seed;
+	private final List<Constraint> constraints = new ArrayList<>();
+	private int planningBudget = Minimizer.DEFAULT_ROW_BUDGET;
 
 	public Pairwise(List<S> parameters) {
+		this(parameters, Strategy.GREEDY);
+	}
+
+	public Pairwise(List<S> parameters, Strategy strategy) {
+		this(parameters, strategy, 2);
+	}
+
+	/**
+	 * Creates a generator for {@code t}-wise test cases, which cover every combination of values of any
+	 * {@code strength} parameters at least once. A strength of 2 generates ordinary pairwise test cases.
+	 *
+	 * @param strength the number of parameters in each covered combination. The {@link Strategy#GREEDY} strategy only
+	 *                 supports a strength of 2.
+	 */
+	public Pairwise(List<S> parameters, Strategy strategy, int strength) {
+		this(parameters, strategy, strength, 0);
+	}
+
+	/**
+	 * Creates a generator for {@code t}-wise test cases with a specific seed for the randomized
+	 * {@link Strategy#CANDIDATE_SEARCH} and {@link Strategy#MINIMIZE} strategies. Other strategies are deterministic and
+	 * ignore the seed.
+	 */
+	public Pairwise(List<S> parameters, Strategy strategy, int strength, long seed) {
 		FuzzyPreconditions.checkNotNull(parameters);
+		this.strategy = FuzzyPreconditions.checkNotNull("A strategy is required.", strategy);
+
+		if(strength < 1)
+			throw new IllegalArgumentException("Strength must be at least 1.");
+		if(strength != 2 && strategy == Strategy.GREEDY)
+			throw new IllegalArgumentException("The GREEDY strategy does not support strengths other than 2.");
+		this.strength = strength;
+		this.seed = strategy == Strategy.CANDIDATE_SEARCH || strategy == Strategy.MINIMIZE ? seed : 0;
 
 		List<Param> params = new ArrayList<>();
 		int i = 0;
@@ -27,88 +105,237 @@ public class Pairwise<S extends Collection> {
 		this.params = Collections.unmodifiableList(params);
 	}
 
+	/**
+	 * Adds constraints that exclude combinations of values from the generated test cases. Only combinations that the
+	 * constraints permit need to be covered, and no generated test case will violate them.
+	 *
+	 * <p>Constrained test cases depend on the constraints as well as on the shape of the parameters, so they are never
+	 * cached. The {@link Strategy#GREEDY} strategy cannot take constraints into account, and uses
+	 * {@link Strategy#IN_PARAMETER_ORDER} instead whenever there are any.
+	 * </p>
+	 *
+	 * @return this {@code Pairwise}.
+	 */
+	public Pairwise<S> withConstraints(Collection<? extends Constraint> constraints) {
+		FuzzyPreconditions.checkNotNullAndContainsNoNulls(constraints);
+		this.constraints.addAll(constraints);
+		return this;
+	}
+
+	/**
+	 * Sets how many test cases the {@link Strategy#MINIMIZE} strategy's randomized constructions may build, in total,
+	 * while searching for smaller test cases. The in-parameter-order test cases it starts from are always built in full
+	 * and don't count against the budget. Other strategies ignore the budget. Defaults to 1,024 test cases.
+	 *
+	 * @return this {@code Pairwise}.
+	 */
+	public Pairwise<S> withPlanningBudget(int testCases) {
+		if(testCases < 0)
+			throw new IllegalArgumentException("The planning budget cannot be negative.");
+
+		this.planningBudget = testCases;
+		return this;
+	}
+
 	/*package*/ PairSet generatePairs() {
-		PairSet pairs = new PairSet();
+		PairSet pairs = new PairSet(params);
+		pairs.registerAll();
+		return pairs;
+	}
 
-		for(int i = 0; i < params.size() - 1; i++) {
-			for(ParamValue p1 : params.get(i).values) {
-				for(int j = i + 1; j < params.size(); j++) {
-					for(ParamValue p2 : params.get(j).values) {
-						pairs.register(new Pair(p1, p2));
-					}
-				}
+	/**
+	 * Generates the test cases. Since the result only depends on the number of values of each parameter, the
+	 * underlying covering array is cached and reused by any later {@code Pairwise} with the same shape. If the
+	 * {@code fuzzy.pairwise.store} system property names a directory, arrays are also persisted there and shared with
+	 * other JVMs.
+	 */
+	public Stack<List<Object>> generate() {
+		// Convert our indices to lists of output values.
+		CoveringArray array = coveringArray();
+		Stack<List<Object>> testCases = new Stack<>();
+		for(int row = 0; row < array.rowCount(); row++) {
+			List<Object> values = new ArrayList<>(params.size());
+			for(int i = 0; i < params.size(); i++) {
+				values.add(params.get(i).values.get(array.get(row, i)).value);
 			}
+			testCases.add(values);
 		}
 
-		return pairs;
+		return testCases;
 	}
 
-	public Stack<List<Object>> generate() {
+	/**
+	 * Returns the test cases as a compact {@link CoveringArray} of value indices, where the cell for parameter {@code i}
+	 * is the index of the chosen value in the {@code i}th parameter (in the parameter's iteration order). Like
+	 * {@link #generate()}, the array is cached and shared with any later {@code Pairwise} with the same shape.
+	 */
+	public CoveringArray coveringArray() {
+		return array(key());
+	}
+
+	/**
+	 * Returns the test cases as rows of value indices: element {@code i} of each row is the index of the chosen value
+	 * in the {@code i}th parameter (in the parameter's iteration order).
+	 *
+	 * <p>Unlike {@link #generate()}, rows are produced on demand where the strategy allows it, so the first test case is
+	 * available immediately. The {@link Strategy#GREEDY} strategy builds each row as it is requested;
+	 * {@link Strategy#IN_PARAMETER_ORDER} revisits earlier rows as it adds parameters, so it computes the whole array
+	 * before returning the first row. Either way, an array that has already been computed for the same shape is reused.
+	 * </p>
+	 */
+	public Iterator<int[]> rows() {
+		CoveringArrayCache.Key key = key();
+
+		boolean lazy = strategy == Strategy.GREEDY && params.size() > 1 && constraints.isEmpty();
+		if(lazy && CoveringArrayStore.SHARED == null) {
+			CoveringArray cached = CoveringArrayCache.SHARED.peek(key);
+			return cached == null ? new GreedyRows(key) : new ArrayRows(cached);
+		}
+
+		return new ArrayRows(array(key));
+	}
+
+	private CoveringArrayCache.Key key() {
+		int[] sizes = new int[params.size()];
+		for(int i = 0; i < sizes.length; i++)
+			sizes[i] = params.get(i).values.size();
+
+		// The planning budget changes which array MINIMIZE settles on, so arrays built with different budgets are kept
+		// apart.
+		int budget = strategy == Strategy.MINIMIZE ? planningBudget : 0;
+		return new CoveringArrayCache.Key(sizes, strategy, strength, seed, budget);
+	}
+
+	private CoveringArray array(CoveringArrayCache.Key key) {
+		if(!constraints.isEmpty())
+			return generateRows();
+
+		CoveringArrayStore store = CoveringArrayStore.SHARED;
+		return CoveringArrayCache.SHARED.get(
+			key,
+			store == null ? this::generateRows : () -> store.get(key, this::generateRows)
+		);
+	}
+
+	/*package*/ CoveringArray generateRows() {
+		List<int[]> rows;
+
 		// Special case: if there's only one parameter, then there are obviously no pairs. Just return all the parameter
 		// values.
 		if(params.size() == 1) {
-			Stack<List<Object>> ret = new Stack<>();
+			rows = new ArrayList<>();
 			for(ParamValue value : params.get(0).values) {
-				ret.push(Collections.singletonList(value.value));
+				int[] row = new int[] { value.id };
+				if(Constraint.permitsAll(constraints, row))
+					rows.add(row);
 			}
-			return ret;
 		}
+		else if(strategy == Strategy.IN_PARAMETER_ORDER || (strategy == Strategy.GREEDY && !constraints.isEmpty())) {
+			rows = new Ipog(params, strength, constraints).generate();
+		}
+		else if(strategy == Strategy.CANDIDATE_SEARCH) {
+			int[] sizes = new int[params.size()];
+			for(int i = 0; i < sizes.length; i++)
+				sizes[i] = params.get(i).values.size();
+
+			rows = new CandidateSearch(sizes, strength, CandidateSearch.DEFAULT_CANDIDATES, seed, constraints).generate();
+		}
+		else if(strategy == Strategy.MINIMIZE) {
+			rows = new Minimizer(
+				params,
+				strength,
+				seed,
+				constraints,
+				Minimizer.DEFAULT_ATTEMPTS,
+				planningBudget
+			).generate();
+		}
+		else {
+			rows = new ArrayList<>();
+			new GreedyRows(null).forEachRemaining(rows::add);
+		}
+
+		return CoveringArray.of(rows, params.size());
+	}
+
+	/**
+	 * Iterates over a computed covering array, copying each row out of it.
+	 */
+	private static class ArrayRows implements Iterator<int[]> {
+		private final CoveringArray array;
+		private int next;
+
+		ArrayRows(CoveringArray array) { this.array = array; }
+
+		@Override
+		public boolean hasNext() { return next < array.rowCount(); }
+
+		@Override
+		public int[] next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+			return array.copyRow(next++, new int[array.parameterCount()], 0);
+		}
+	}
+
+	/**
+	 * Builds greedy test cases one at a time, as they are requested. If a cache key is given, the completed array is
+	 * added to the cache once the last row has been produced.
+	 */
+	private class GreedyRows implements Iterator<int[]> {
+		private final CoveringArrayCache.Key key;
+		private final List<int[]> produced;
 
-		// Step 1: build some round-robin selectors for all of the parameters.
-		Map<Param, Selector> selectors = new HashMap<>(params.size());
-		for(Param p : params) selectors.put(p, new Selector(p));
+		// Step 1: set up round-robin selectors for all of the parameters.
+		private final int[] selectors = new int[params.size()];
 
 		// Step 2: compute all of the expected pairs in our input set.
-		PairSet pairs = generatePairs();
+		private final PairSet pairs = generatePairs();
+
+		GreedyRows(CoveringArrayCache.Key key) {
+			this.key = key;
+			this.produced = key == null ? null : new ArrayList<>();
+		}
+
+		@Override
+		public boolean hasNext() { return !pairs.isEmpty(); }
 
 		// Step 3: start consuming pairs one at a time until each pair has been used.
-		Stack<List<Object>> testCases = new Stack<>();
-		while(!pairs.isEmpty()) {
+		@Override
+		public int[] next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+
 			// Step a: perform an exhaustive search of any pairs we can add to this iteration.
-			Map<Param, Object> chosenValues = new HashMap<>(params.size());
+			int[] row = new int[params.size()];
+			Arrays.fill(row, -1);
 			for(int i = 0; i < params.size() - 1; i++) {
 				for(int j = i + 1; j < params.size(); j++) {
-					Param p1 = params.get(i);
-					Param p2 = params.get(j);
-
-					if(!chosenValues.containsKey(p1) && !chosenValues.containsKey(p2)) {
-						Pair p = pairs.consume(p1, p2);
-						if(p != null) {
-							chosenValues.put(p.p1.param, p.p1.value);
-							chosenValues.put(p.p2.param, p.p2.value);
-						}
+					if(row[i] < 0 && row[j] < 0) {
+						pairs.consume(i, j, row);
 					}
 				}
 			}
 
-			// Step 2: convert our map to a list of output values, filling in any missing parameters from our selectors
-			List<Object> values = new ArrayList<>(params.size());
-			for(Param p : params) {
-				if(chosenValues.containsKey(p)) {
-					values.add(chosenValues.get(p));
-				}
-				else {
-					values.add(selectors.get(p).next());
+			// Step b: fill in any missing parameters from our selectors.
+			for(int i = 0; i < row.length; i++) {
+				if(row[i] < 0) {
+					row[i] = selectors[i];
+					selectors[i] = (selectors[i] + 1) % params.get(i).values.size();
 				}
 			}
 
-			testCases.add(values);
-		}
+			// Step c: the test case incidentally covers more pairs than the ones we consumed; mark those as well so we
+			// don't generate additional test cases for them.
+			pairs.cover(row);
 
-		return testCases;
-	}
-
-	private static class Selector {
-		private final Param p;
-		private int i;
-
-		Selector(Param p) {
-			this.p = p;
-		}
+			if(produced != null) {
+				produced.add(row.clone());
+				if(pairs.isEmpty())
+					CoveringArrayCache.SHARED.put(key, CoveringArray.of(produced, params.size()));
+			}
 
-		Object next() {
-			if(i >= p.values.size()) i = 0;
-			return p.values.get(i++).value;
+			return row;
 		}
 	}
 
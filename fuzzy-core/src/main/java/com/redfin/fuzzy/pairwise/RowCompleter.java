@@ -0,0 +1,47 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.function.Predicate;
+
+/**
+ * Fills in the unassigned values of a partial row so that the constraints permit the whole row, searching every
+ * combination of values if it has to.
+ *
+ * <p>The constructions only ever check partial rows, and a constraint may permit every value of a partial row on its
+ * own while forbidding every way of completing it (for example, if two constraints forbid the same value together with
+ * each of the values of a two-valued parameter). The constructions fall back to this search to tell those tuples apart
+ * from tuples that merely need a different choice of values elsewhere in the row.
+ * </p>
+ */
+/*package*/ class RowCompleter {
+
+	private RowCompleter() { }
+
+	/**
+	 * Assigns every unassigned value of the row, trying the values of each parameter in order, and returns
+	 * {@code true} if the constraints permit the completed row. Otherwise, returns {@code false} and leaves the row
+	 * unchanged. The row itself must already be permitted.
+	 *
+	 * @param sizes the number of values of each parameter.
+	 */
+	/*package*/ static boolean complete(int[] row, int[] sizes, Predicate<int[]> permits) {
+		return complete(row, sizes, permits, 0);
+	}
+
+	private static boolean complete(int[] row, int[] sizes, Predicate<int[]> permits, int from) {
+		int p = from;
+		while(p < row.length && row[p] != Constraint.UNASSIGNED)
+			p++;
+		if(p == row.length)
+			return true;
+
+		for(int v = 0; v < sizes[p]; v++) {
+			row[p] = v;
+			if(permits.test(row) && complete(row, sizes, permits, p + 1))
+				return true;
+		}
+
+		row[p] = Constraint.UNASSIGNED;
+		return false;
+	}
+
+}
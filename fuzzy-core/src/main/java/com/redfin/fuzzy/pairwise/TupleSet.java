@@ -0,0 +1,246 @@
+package com.redfin.fuzzy.pairwise;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Tracks which {@code t}-tuples of parameter values have yet to be covered by a generated test case, for an arbitrary
+ * strength {@code t}.
+ *
+ * <p>Like {@link PairSet}, tuples are stored as bits in a single flat bitset rather than enumerated as objects. Every
+ * combination of {@code t} parameters (columns) owns a contiguous block of bits, one for each combination of their
+ * values. Blocks are ordered by the colexicographic rank of their columns, so that all of the combinations whose
+ * largest column is {@code k} follow those whose largest column is less than {@code k}. Within a block, the tuple's
+ * values are laid out in mixed-radix order, with the last column varying fastest.
+ * </p>
+ */
+/*package*/ class TupleSet {
+
+	private final int[] sizes;
+	private final int strength;
+	private final long[][] binomials;
+	private final int[] offsets;
+	private final long[] bits;
+
+	private long tuples;
+
+	/**
+	 * Creates a new tuple set where every tuple of the given strength is initially uncovered.
+	 *
+	 * @param sizes the number of values of each parameter.
+	 * @param strength the number of parameters in each tuple; must be between 1 and {@code sizes.length}.
+	 */
+	/*package*/ TupleSet(int[] sizes, int strength) {
+		if(strength < 1 || strength > sizes.length)
+			throw new IllegalArgumentException("Tuple strength must be between 1 and the number of parameters.");
+
+		this.sizes = sizes.clone();
+		this.strength = strength;
+
+		int n = sizes.length;
+		binomials = new long[n + 1][strength + 1];
+		for(int i = 0; i <= n; i++) {
+			binomials[i][0] = 1;
+			for(int j = 1; j <= Math.min(i, strength); j++)
+				binomials[i][j] = binomials[i - 1][j - 1] + binomials[i - 1][j];
+		}
+
+		if(binomials[n][strength] > Integer.MAX_VALUE - 1)
+			throw new IllegalArgumentException("Too many parameter combinations to generate permutations.");
+
+		int blocks = (int)binomials[n][strength];
+		offsets = new int[blocks + 1];
+
+		int[] columns = firstCombination(strength);
+		long total = 0;
+		for(int block = 0; block < blocks; block++) {
+			offsets[block] = (int)total;
+
+			long blockSize = 1;
+			for(int c : columns) blockSize *= sizes[c];
+			total += blockSize;
+
+			if(total > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Too many parameter value tuples to generate permutations.");
+
+			nextColexCombination(columns, strength);
+		}
+		offsets[blocks] = (int)total;
+
+		bits = new long[(int)((total + 63) >>> 6)];
+		for(int i = 0; i < bits.length; i++)
+			bits[i] = -1L;
+		if((total & 63) != 0)
+			bits[bits.length - 1] = (1L << (total & 63)) - 1;
+
+		tuples = total;
+	}
+
+	/*package*/ int strength() { return strength; }
+
+	/*package*/ boolean isEmpty() { return tuples <= 0; }
+
+	/*package*/ long size() { return tuples; }
+
+	/**
+	 * Returns the index of the block for a combination of columns, given in ascending order.
+	 */
+	/*package*/ int block(int[] columns) {
+		long rank = 0;
+		for(int i = 0; i < columns.length; i++)
+			rank += binomials[columns[i]][i + 1];
+		return (int)rank;
+	}
+
+	/**
+	 * Returns the index of the first bit in the given block.
+	 */
+	/*package*/ int offset(int block) { return offsets[block]; }
+
+	/**
+	 * Returns the number of bits in the given block.
+	 */
+	/*package*/ int blockSize(int block) { return offsets[block + 1] - offsets[block]; }
+
+	/**
+	 * Returns the total number of tuples, covered or not; every tuple's bit is less than this.
+	 */
+	/*package*/ int bitCount() { return offsets[offsets.length - 1]; }
+
+	/**
+	 * Returns the index of the block that contains the given bit.
+	 */
+	/*package*/ int blockOf(int bit) {
+		int index = Arrays.binarySearch(offsets, bit);
+		if(index < 0)
+			return -index - 2;
+
+		// Skip over any empty blocks (parameters without values) that share this offset.
+		while(index + 1 < offsets.length - 1 && offsets[index + 1] == bit)
+			index++;
+		return index;
+	}
+
+	/**
+	 * The inverse of {@link #block(int[])}: writes the columns of the given block into {@code columns}, in ascending
+	 * order.
+	 */
+	/*package*/ void columns(int block, int[] columns) {
+		long rank = block;
+		for(int i = strength - 1; i >= 0; i--) {
+			int c = i;
+			while(c + 1 < binomials.length && binomials[c + 1][i + 1] <= rank)
+				c++;
+			columns[i] = c;
+			rank -= binomials[c][i + 1];
+		}
+	}
+
+	/**
+	 * Returns the position of the tuple formed by the values of {@code row} at the given columns (in ascending order)
+	 * within their block.
+	 */
+	/*package*/ int localIndex(int[] columns, int[] row) {
+		int index = 0;
+		for(int c : columns)
+			index = index * sizes[c] + row[c];
+		return index;
+	}
+
+	/**
+	 * The inverse of {@link #localIndex(int[], int[])}: writes the values of the tuple at the given position within
+	 * the block for {@code columns} into {@code row}.
+	 */
+	/*package*/ void decode(int[] columns, int localIndex, int[] row) {
+		for(int i = columns.length - 1; i >= 0; i--) {
+			int c = columns[i];
+			row[c] = localIndex % sizes[c];
+			localIndex /= sizes[c];
+		}
+	}
+
+	/*package*/ boolean contains(int bit) {
+		return (bits[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Marks a single tuple as covered, returning {@code true} if it had not been covered before.
+	 */
+	/*package*/ boolean cover(int bit) {
+		long mask = 1L << bit;
+		if((bits[bit >>> 6] & mask) == 0)
+			return false;
+
+		bits[bit >>> 6] &= ~mask;
+		tuples--;
+		return true;
+	}
+
+	/**
+	 * Marks every tuple that the given predicate accepts as covered. The predicate is given a row with the tuple's
+	 * values at its columns and {@code -1} everywhere else; the row is reused between calls.
+	 */
+	/*package*/ void coverIf(Predicate<int[]> predicate) {
+		int[] columns = firstCombination(strength);
+		int[] row = new int[sizes.length];
+		int blocks = offsets.length - 1;
+
+		for(int block = 0; block < blocks; block++) {
+			for(int local = 0; local < blockSize(block); local++) {
+				Arrays.fill(row, -1);
+				decode(columns, local, row);
+				if(predicate.test(row))
+					cover(offsets[block] + local);
+			}
+			nextColexCombination(columns, strength);
+		}
+	}
+
+	/**
+	 * Returns the index of the next uncovered tuple at or after {@code from} and before {@code to}, or {@code -1} if
+	 * there is none.
+	 */
+	/*package*/ int nextUncovered(int from, int to) {
+		if(from >= to)
+			return -1;
+
+		int word = from >>> 6;
+		long w = bits[word] & (-1L << from);
+		while(true) {
+			if(w != 0) {
+				int bit = (word << 6) + Long.numberOfTrailingZeros(w);
+				return bit < to ? bit : -1;
+			}
+			if(++word << 6 >= to)
+				return -1;
+			w = bits[word];
+		}
+	}
+
+	/**
+	 * Returns the combination {@code [0, 1, ..., k - 1]}, the first combination of {@code k} columns.
+	 */
+	/*package*/ static int[] firstCombination(int k) {
+		int[] columns = new int[k];
+		for(int i = 0; i < k; i++) columns[i] = i;
+		return columns;
+	}
+
+	/**
+	 * Advances the first {@code length} entries of {@code columns} to the next combination in colexicographic order
+	 * (the order of {@link #block(int[])}), and returns the new value of the last of those entries, or {@code -1} if
+	 * {@code length} is zero. There is no upper bound on the columns; callers are expected to stop once the returned
+	 * column reaches their limit.
+	 */
+	/*package*/ static int nextColexCombination(int[] columns, int length) {
+		for(int i = 0; i < length; i++) {
+			if(i == length - 1 || columns[i] + 1 < columns[i + 1]) {
+				columns[i]++;
+				for(int j = 0; j < i; j++) columns[j] = j;
+				return columns[length - 1];
+			}
+		}
+		return -1;
+	}
+
+}
@@ -2,10 +2,18 @@ package com.redfin.fuzzy;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CaseTest {
 
@@ -61,4 +69,100 @@ public class CaseTest {
 		subject.generateAllOnce();
 	}
 
+	@Test
+	public void testStreamCyclesThroughSubcasesInOrder() {
+		Case<String> subject = Any.of("A", "B", "C");
+
+		assertEquals(
+			Arrays.asList("A", "B", "C", "A", "B", "C", "A"),
+			subject.stream(0, 7).collect(Collectors.toList())
+		);
+	}
+
+	@Test
+	public void testStreamIsDeterministic() {
+		Case<Integer> subject = Any.integer();
+
+		List<Integer> values = subject.stream(42, 1000).collect(Collectors.toList());
+
+		assertEquals(1000, values.size());
+		assertEquals(values, subject.stream(42, 1000).collect(Collectors.toList()));
+		assertEquals(values.subList(0, 100), subject.stream(42).limit(100).collect(Collectors.toList()));
+		assertNotEquals(values, subject.stream(43, 1000).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testParallelStreamMatchesSequentialStream() throws Exception {
+		assertParallelStreamMatchesSequentialStream(Any.integer(), 100000);
+	}
+
+	@Test
+	public void testParallelCollectionStreamMatchesSequentialStream() throws Exception {
+		assertParallelStreamMatchesSequentialStream(
+			Any.listOf(Any.integer()).withSizeOf(Any.integer().inRange(1, 5)),
+			20000
+		);
+	}
+
+	private static <T> void assertParallelStreamMatchesSequentialStream(Case<T> subject, int count) throws Exception {
+		List<T> sequential = subject.stream(7, count).collect(Collectors.toList());
+
+		for(int threads : new int[] { 1, 2, 3, 8 }) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				List<T> parallel = pool
+					.submit(() -> subject.stream(7, count).parallel().collect(Collectors.toList()))
+					.get();
+
+				assertEquals(sequential, parallel);
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void testStreamSplitsEvenly() {
+		Spliterator<String> right = Any.of("A", "B").stream(0, 10).spliterator();
+		Spliterator<String> left = right.trySplit();
+
+		assertEquals(5, left.estimateSize());
+		assertEquals(5, right.estimateSize());
+		assertTrue(right.hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStreamNegativeCount() {
+		Any.of("A").stream(0, -1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStreamEmptySuppliers() {
+		Case<Integer> subject = Collections::emptySet;
+		subject.stream(0);
+	}
+
+	@Test
+	public void testStreamSpeed() {
+		Case<Integer> subject = Any.integer();
+		int count = 5000000;
+
+		for(boolean parallel : new boolean[] { false, true }) {
+			long start = System.nanoTime();
+			Stream<Integer> stream = subject.stream(0, count);
+			long sum = (parallel ? stream.parallel() : stream).mapToLong(Integer::longValue).sum();
+
+			System.out.println(String.format(
+				"Time (%s stream of %,d integers, %d processors): %.2fms (%d)",
+				parallel ? "parallel" : "sequential",
+				count,
+				Runtime.getRuntime().availableProcessors(),
+				(System.nanoTime() - start) * 1e-6,
+				sum & 1
+			));
+		}
+		System.out.println();
+	}
+
 }
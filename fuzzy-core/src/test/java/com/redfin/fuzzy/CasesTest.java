@@ -2,9 +2,21 @@ package com.redfin.fuzzy;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import com.redfin.fuzzy.pairwise.Constraint;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.junit.Test;
 
@@ -23,6 +35,131 @@ public class CasesTest {
 		assertEquals(FuzzyUtil.setOf(20, 200, 2000, 30, 300, 3000), actuals);
 	}
 
+	@Test
+	public void testComposePairwiseInParameterOrder() {
+		Case<Integer> composedCase = Cases.compose(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER,
+			new Case[] { Any.of(2, 3), Any.of(10, 100, 1000) },
+			(random, values) -> (int)values[0] * (int)values[1]
+		);
+
+		Set<Integer> actuals = composedCase.generateAllOnce();
+
+		assertEquals(FuzzyUtil.setOf(20, 200, 2000, 30, 300, 3000), actuals);
+	}
+
+	@Test
+	public void testComposePairwiseMinimized() {
+		Case<Integer> composedCase = Cases.compose(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES_MINIMIZED,
+			new Case[] { Any.of(2, 3), Any.of(10, 100, 1000) },
+			(random, values) -> (int)values[0] * (int)values[1]
+		);
+
+		Set<Integer> actuals = composedCase.generateAllOnce();
+
+		assertEquals(FuzzyUtil.setOf(20, 200, 2000, 30, 300, 3000), actuals);
+	}
+
+	@Test
+	public void testComposeThreeWise() {
+		Case<Integer> composedCase = Cases.compose(
+			CaseCompositionMode.tWise(3),
+			new Case[] { Any.of(2, 3), Any.of(10, 100), Any.of(5, 7), Any.of(1, -1) },
+			(random, values) -> (int)values[0] * (int)values[1] * (int)values[2] * (int)values[3]
+		);
+
+		Set<Integer> actuals = composedCase.generateAllOnce();
+
+		// Every combination of the first three cases must appear, with at least one sign each.
+		for(int a : new int[] { 2, 3 })
+			for(int b : new int[] { 10, 100 })
+				for(int c : new int[] { 5, 7 })
+					assertTrue(actuals.contains(a * b * c) || actuals.contains(-a * b * c));
+	}
+
+	@Test
+	public void testComposeWithConstraints() {
+		// Never combine 3 (base case 0, subcase 1) with 1000 (base case 1, subcase 2).
+		Case<Integer> composedCase = Cases.compose(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES.withConstraints(Constraint.forbid(0, 1, 1, 2)),
+			new Case[] { Any.of(2, 3), Any.of(10, 100, 1000) },
+			(random, values) -> (int)values[0] * (int)values[1]
+		);
+
+		assertEquals(5, composedCase.getSubcases().size());
+		assertEquals(FuzzyUtil.setOf(20, 200, 2000, 30, 300), composedCase.generateAllOnce());
+	}
+
+	@Test
+	public void testSubcaseOrderIsStable() {
+		Random random = new Random(0);
+
+		assertEquals(Arrays.asList(3, 1, 2), generateInOrder(Any.of(3, 1, 2), random));
+		assertEquals(Arrays.asList(3, 1, 2, 0), generateInOrder(Any.of(3, 1, 2).or(Any.of(0)), random));
+		assertEquals(Arrays.asList(30, 10, 20), generateInOrder(Cases.map(Any.of(3, 1, 2), i -> i * 10), random));
+		assertEquals(
+			Arrays.asList("b", "a"),
+			generateInOrder(Cases.of((Supplier<String>)() -> "b", () -> "a"), random)
+		);
+	}
+
+	@Test
+	public void testConstrainedModes() {
+		Constraint constraint = Constraint.forbid(0, 0, 1, 0);
+		CaseComposition constrained = CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE.withConstraints(constraint);
+
+		assertNotEquals(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, constrained);
+		assertEquals(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE.withConstraints(constraint), constrained);
+		assertEquals("EACH_SUBCASE_AT_LEAST_ONCE with 1 constraint(s)", constrained.toString());
+	}
+
+	@Test
+	public void testModesAreEnumConstants() {
+		assertEquals(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,
+			CaseCompositionMode.valueOf("PAIRWISE_PERMUTATIONS_OF_SUBCASES")
+		);
+		assertEquals(4, EnumSet.allOf(CaseCompositionMode.class).size());
+	}
+
+	@Test
+	public void testModeOverloadsKept() throws NoSuchMethodException {
+		// Code compiled against versions that only accepted a mode links against these exact signatures.
+		Cases.class.getMethod("compose", CaseCompositionMode.class, Case[].class, BiFunction.class);
+		Cases.class.getMethod(
+			"compose",
+			CaseCompositionMode.class,
+			Case.class,
+			Case.class,
+			Cases.TwoCaseCompositionFunction.class
+		);
+		Context.class.getMethod("init", CaseCompositionMode.class, long.class);
+
+		Case<Integer> composed = Cases.compose(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,
+			Any.of(1, 2),
+			Any.of(10, 20),
+			(random, a, b) -> a + b
+		);
+		assertEquals(4, composed.getSubcases().size());
+	}
+
+	@Test
+	public void testTWiseLowStrengths() {
+		assertSame(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, CaseCompositionMode.tWise(1));
+		assertSame(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER,
+			CaseCompositionMode.tWise(2)
+		);
+		assertEquals(CaseCompositionMode.tWise(3), CaseCompositionMode.tWise(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTWiseInvalidStrength() {
+		CaseCompositionMode.tWise(0);
+	}
+
 	@Test
 	public void testComposeAtLeastOnce() {
 		Case<Integer> composedCase = Cases.compose(
@@ -135,6 +272,18 @@ public class CasesTest {
 		assertEquals(new Integer(1234), subcases.stream().findFirst().get().generate(null));
 	}
 
+	@Test
+	public void testMapRebuiltOnlyWhenOriginalChanges() {
+		Set<Subcase<String>> originalSubcases = Collections.singleton(r -> "1234");
+		Case<String> original = () -> originalSubcases;
+		Case<String> originalFresh = () -> Collections.singleton(r -> "1234");
+		Case<Integer> mapped = Cases.map(original, Integer::new);
+		Case<Integer> mappedFresh = Cases.map(originalFresh, Integer::new);
+
+		assertSame(mapped.getSubcases(), mapped.getSubcases());
+		assertNotSame(mappedFresh.getSubcases(), mappedFresh.getSubcases());
+	}
+
 	@Test
 	public void testMapWithMultipleSubcases() {
 		Case<String> original = () -> FuzzyUtil.setOf(
@@ -161,4 +310,11 @@ public class CasesTest {
 	@Test
 	public void testConstructorForCoverage() { new Cases(); }
 
+	private static <T> List<T> generateInOrder(Case<T> c, Random random) {
+		List<T> values = new ArrayList<>();
+		for(Subcase<T> subcase : c.getSubcases())
+			values.add(subcase.generate(random));
+		return values;
+	}
+
 }
@@ -0,0 +1,279 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CompiledSubcaseTest {
+
+	@Test
+	public void testMap() {
+		Subcase<Integer> leaf = r -> r.nextInt(100);
+
+		assertSameValues(
+			r -> "v" + (leaf.generate(r) + r.nextInt(10)),
+			CompiledSubcase.map(leaf, (Random r, Integer i) -> "v" + (i + r.nextInt(10)))
+		);
+		assertSameValues(r -> leaf.generate(r) * 2, CompiledSubcase.map(leaf, (Integer i) -> i * 2));
+	}
+
+	@Test
+	public void testCombine() {
+		Subcase<Integer> first = r -> r.nextInt(100);
+		Subcase<Long> second = Random::nextLong;
+
+		assertSameValues(
+			r -> {
+				Integer i = first.generate(r);
+				Long l = second.generate(r);
+				return i + ":" + l + ":" + r.nextInt(3);
+			},
+			CompiledSubcase.combine(first, second, (r, i, l) -> i + ":" + l + ":" + r.nextInt(3))
+		);
+		assertSameValues(
+			r -> {
+				Integer i = first.generate(r);
+				Long l = second.generate(r);
+				Integer j = first.generate(r);
+				return i + ":" + l + ":" + j;
+			},
+			CompiledSubcase.combine(
+				new Subcase<?>[] { first, second, first },
+				(r, values) -> values[0] + ":" + values[1] + ":" + values[2]
+			)
+		);
+	}
+
+	@Test
+	public void testCombineNothing() {
+		CompiledSubcase<Integer> subject = CompiledSubcase.combine(new Subcase<?>[0], (r, values) -> values.length);
+
+		assertEquals(0, (int) subject.generate(new FuzzyRandom(1)));
+		assertEquals(0, (int) subject.compile().generate(new FuzzyRandom(1)));
+	}
+
+	@Test
+	public void testFilter() {
+		Subcase<Integer> leaf = r -> r.nextInt(10);
+
+		assertSameValues(
+			r -> {
+				int i;
+				do {
+					i = leaf.generate(r);
+				}
+				while(i % 3 == 0);
+				return i;
+			},
+			CompiledSubcase.filter(leaf, i -> i % 3 != 0, IllegalStateException::new)
+		);
+	}
+
+	@Test
+	public void testFilterGivesUpAfterOneHundredAttempts() {
+		for(boolean compiled : new boolean[] { false, true }) {
+			AtomicInteger attempts = new AtomicInteger();
+			CompiledSubcase<Integer> subject = CompiledSubcase.filter(
+				r -> attempts.incrementAndGet(),
+				i -> false,
+				() -> new IllegalStateException("Nope")
+			);
+			if(compiled)
+				subject.compile();
+
+			try {
+				subject.generate(new FuzzyRandom(1));
+				fail();
+			}
+			catch(IllegalStateException e) {
+				assertEquals("Nope", e.getMessage());
+			}
+			assertEquals(100, attempts.get());
+		}
+	}
+
+	@Test
+	public void testNestedFilterRestartsOnEachOuterAttempt() {
+		for(boolean compiled : new boolean[] { false, true }) {
+			// The inner filter needs 60 attempts to accept a value, so the outer filter would give up first if the
+			// inner one counted the attempts of earlier outer attempts as its own.
+			AtomicInteger attempts = new AtomicInteger();
+			CompiledSubcase<Integer> inner = CompiledSubcase.filter(
+				r -> attempts.incrementAndGet(),
+				i -> i % 60 == 0,
+				IllegalStateException::new
+			);
+			CompiledSubcase<Integer> subject = CompiledSubcase.filter(inner, i -> i == 180, IllegalStateException::new);
+			if(compiled)
+				subject.compile();
+
+			assertEquals(180, (int) subject.generate(new FuzzyRandom(1)));
+		}
+	}
+
+	@Test
+	public void testCompositesOfCompiledSubcasesShareOnePlan() {
+		CompiledSubcase<Integer> mapped = CompiledSubcase.map(counter(), i -> i + 1);
+		CompiledSubcase<Integer> filtered = CompiledSubcase.filter(mapped, i -> i > 0, IllegalStateException::new);
+		CompiledSubcase<String> subject = CompiledSubcase.combine(filtered, counter(), (r, a, b) -> a + "," + b);
+
+		assertEquals(2, mapped.size());
+		assertEquals(3, filtered.size());
+		assertEquals(5, subject.size());
+
+		subject.compile();
+		assertTrue(subject.isCompiled());
+		assertFalse(mapped.isCompiled());
+		assertFalse(filtered.isCompiled());
+		assertSame(subject, subject.compile());
+	}
+
+	@Test
+	public void testCompilesAfterThreshold() {
+		CompiledSubcase<Integer> subject = CompiledSubcase.map(counter(), i -> i + 1);
+		Random random = new FuzzyRandom(1);
+
+		int previous = subject.generate(random);
+		for(int i = 1; i < CompiledSubcase.COMPILE_THRESHOLD; i++)
+			previous = subject.generate(random);
+		assertFalse(subject.isCompiled());
+
+		assertEquals(previous + 1, (int) subject.generate(random));
+		assertTrue(subject.isCompiled());
+	}
+
+	@Test
+	public void testCompiledCaseGeneratesSameValues() {
+		List<Subcase<String>> subcases = new ArrayList<>(newCompositeCase().getSubcases());
+		List<Subcase<String>> compiled = new ArrayList<>(newCompositeCase().getSubcases());
+		for(Subcase<String> subcase : compiled)
+			((CompiledSubcase<String>) subcase).compile();
+
+		for(int i = 0; i < subcases.size(); i++) {
+			for(long seed = 0; seed < 100; seed++) {
+				assertEquals(
+					subcases.get(i).generate(new FuzzyRandom(seed)),
+					compiled.get(i).generate(new FuzzyRandom(seed))
+				);
+			}
+		}
+	}
+
+	@Test
+	public void testExceptionsPropagate() {
+		IllegalArgumentException expected = new IllegalArgumentException();
+		CompiledSubcase<Integer> subject = CompiledSubcase.map(counter(), i -> { throw expected; });
+
+		for(boolean compiled : new boolean[] { false, true }) {
+			if(compiled)
+				subject.compile();
+
+			try {
+				subject.generate(new FuzzyRandom(1));
+				fail();
+			}
+			catch(IllegalArgumentException e) {
+				assertSame(expected, e);
+			}
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testMapNullSource() { CompiledSubcase.map(null, (Integer i) -> i); }
+
+	@Test(expected = NullPointerException.class)
+	public void testFilterNullPredicate() { CompiledSubcase.filter(counter(), null, IllegalStateException::new); }
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCombineNullSource() {
+		CompiledSubcase.combine(new Subcase<?>[] { counter(), null }, (r, values) -> values);
+	}
+
+	@Test
+	public void testComposedGenerationSpeed() {
+		// Generate from a few other composite cases first, so that the JIT sees the call sites that their subcases
+		// share with the measured one with several receivers, as it would in a real test suite.
+		List<Case<?>> others = Arrays.asList(
+			Cases.map(Any.string().excluding("x"), String::length),
+			Cases.map(Any.doublePrecisionNumber(), d -> d * 2).excluding(1.0),
+			Cases.compose(
+				CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,
+				Any.integer(),
+				Any.string(),
+				(r, i, s) -> s + i
+			),
+			Cases.map(Any.integer(), i -> i + 1).excluding(5)
+		);
+		Random random = new FuzzyRandom(1);
+		for(int i = 0; i < 5000; i++) {
+			for(Case<?> other : others) {
+				for(Subcase<?> subcase : other.getSubcases())
+					subcase.generate(random);
+			}
+		}
+
+		int count = 2000000;
+		List<Subcase<String>> nested = new ArrayList<>();
+		for(Subcase<String> subcase : newCompositeCase().getSubcases())
+			nested.add(r -> (String) ((CompiledSubcase<String>) subcase).evaluate(r));
+		List<Subcase<String>> compiled = new ArrayList<>(newCompositeCase().getSubcases());
+
+		for(int pass = 0; pass < 2; pass++) {
+			long nestedNanos = time(nested, count);
+			long compiledNanos = time(compiled, count);
+			if(pass == 1) {
+				System.out.println(String.format(
+					"Time (%,d deeply composed values): %.1fns per value evaluated, %.1fns per value compiled",
+					count, nestedNanos / (double) count, compiledNanos / (double) count
+				));
+			}
+		}
+		System.out.println();
+	}
+
+	private static long time(List<Subcase<String>> subcases, int count) {
+		Random random = new FuzzyRandom(2);
+		long length = 0;
+		long start = System.nanoTime();
+		for(int i = 0; i < count; i++)
+			length += subcases.get(i % subcases.size()).generate(random).length();
+		long nanos = System.nanoTime() - start;
+		assertTrue(length > 0);
+		return nanos;
+	}
+
+	// Maps over an excluding case over pairwise permutations of two excluding numeric cases.
+	private static Case<String> newCompositeCase() {
+		Case<Integer> sums = () -> Subcases.pairwisePermutations(
+			Any.integer().inRange(0, 1000).excluding(7).getSubcases(),
+			Any.integer().inRange(0, 1000).getSubcases(),
+			(r, a, b) -> a + b
+		);
+		Case<Long> longs = () -> Subcases.mapOutput(sums.excluding(13).getSubcases(), i -> (long) i);
+		return Cases.map(Cases.map(longs, l -> l * 2), l -> Long.toString(l));
+	}
+
+	private static Subcase<Integer> counter() {
+		AtomicInteger next = new AtomicInteger();
+		return r -> next.getAndIncrement();
+	}
+
+	private static <T> void assertSameValues(Subcase<T> expected, CompiledSubcase<T> subject) {
+		for(long seed = 0; seed < 100; seed++)
+			assertEquals(expected.generate(new FuzzyRandom(seed)), subject.generate(new FuzzyRandom(seed)));
+
+		subject.compile();
+		for(long seed = 0; seed < 100; seed++)
+			assertEquals(expected.generate(new FuzzyRandom(seed)), subject.generate(new FuzzyRandom(seed)));
+	}
+
+}
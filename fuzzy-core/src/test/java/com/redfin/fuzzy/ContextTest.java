@@ -4,17 +4,26 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import com.redfin.fuzzy.pairwise.Constraint;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import org.junit.After;
 import org.junit.Test;
 
@@ -137,6 +146,125 @@ public class ContextTest {
 		);
 	}
 
+	@Test
+	public void testMultiVariableIntegrationInParameterOrder() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES_IN_PARAMETER_ORDER, 0);
+
+		Set<String> actuals = new HashSet<>();
+		int iterationCount = 0;
+		do {
+			Generator<String> a = Generator.of(Any.of("A", "B", "C"));
+			Generator<String> b = Generator.of(Any.of("1", "2", "3"));
+			Generator<String> c = Generator.of(Any.of("x", "y"));
+
+			actuals.add(a.get() + b.get());
+			iterationCount++;
+		} while(Context.next());
+
+		assertEquals(9, iterationCount);
+		assertEquals(
+			FuzzyUtil.setOf("A1", "A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3"),
+			actuals
+		);
+	}
+
+	@Test
+	public void testMultiVariableIntegrationWithConstraints() {
+		// Forbid "A" (generator 0, subcase 0) with "1" (generator 1, subcase 0), and "C" with "x".
+		Context.init(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES.withConstraints(
+				Constraint.forbid(0, 0, 1, 0),
+				Constraint.forbid(0, 2, 2, 0)
+			),
+			0
+		);
+
+		Set<String> actuals = new HashSet<>();
+		do {
+			Generator<String> a = Generator.of(Any.of("A", "B", "C"));
+			Generator<String> b = Generator.of(Any.of("1", "2", "3"));
+			Generator<String> c = Generator.of(Any.of("x", "y"));
+
+			String value = a.get() + b.get() + c.get();
+			assertFalse(value, value.startsWith("A1") || (value.startsWith("C") && value.endsWith("x")));
+			actuals.add(a.get() + b.get());
+		} while(Context.next());
+
+		assertEquals(FuzzyUtil.setOf("A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3"), actuals);
+	}
+
+	@Test
+	public void testGeneratorsDeclaredInADifferentOrder() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		Set<String> actuals = new HashSet<>();
+		boolean first = true;
+		do {
+			Generator<String> letter;
+			Generator<String> digit;
+			if(first) {
+				letter = Generator.named("letter").of("A", "B");
+				digit = Generator.named("digit").of("1", "2");
+			}
+			else {
+				digit = Generator.named("digit").of("1", "2");
+				letter = Generator.named("letter").of("A", "B");
+			}
+			first = false;
+
+			actuals.add(letter.get() + digit.get());
+		} while(Context.next());
+
+		assertEquals(FuzzyUtil.setOf("A1", "A2", "B1", "B2"), actuals);
+	}
+
+	@Test
+	public void testIterationsArePlannedOnDemand() {
+		// A planner with (practically) endless permutations; Context must only ever ask for the ones it runs.
+		int[] planned = new int[1];
+		CaseComposition endless = new ConfiguredCaseComposition("ENDLESS", (parameters, constraints) ->
+			new Iterator<int[]>() {
+				@Override
+				public boolean hasNext() { return true; }
+
+				@Override
+				public int[] next() {
+					int row = planned[0]++;
+					int[] permutation = new int[parameters.size()];
+					for(int i = 0; i < permutation.length; i++)
+						permutation[i] = row % parameters.get(i).size();
+					return permutation;
+				}
+			}
+		);
+
+		Context.init(endless, 0);
+
+		List<String> actuals = new ArrayList<>();
+		do {
+			Generator<String> a = Generator.of(Any.of("A", "B", "C"));
+			actuals.add(a.get());
+		} while(actuals.size() < 5 && Context.next());
+
+		assertEquals(Arrays.asList("A", "B", "C", "A", "B"), actuals);
+		assertEquals(5, planned[0]);
+	}
+
+	@Test
+	public void testNextReleasesExhaustedPlan() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		int iterations = 0;
+		do {
+			Generator.of(Any.of("A", "B")).get();
+			iterations++;
+		} while(Context.next());
+
+		assertEquals(2, iterations);
+		assertFalse(Context.next());
+		assertTrue(Context.valuesForCurrentIteration().isEmpty());
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void testNextUninitialized() {
 		Context.next();
@@ -265,6 +393,73 @@ public class ContextTest {
 		assertNotEquals(firstValues, secondValues);
 	}
 
+	@Test
+	public void testStartAtIteration() {
+		List<String> all = runRandomIterations(0);
+		assertEquals(9, all.size());
+
+		for(int start : new int[] { 1, 5, 8 }) {
+			Context.cleanUp();
+			assertEquals(all.subList(start, all.size()), runRandomIterations(start));
+		}
+	}
+
+	@Test
+	public void testStartAtIterationWithCollections() {
+		List<String> all = runIterations(0, ContextTest::collectionIteration);
+		assertTrue(all.size() > 3);
+
+		for(int start = 1; start < all.size(); start++) {
+			Context.cleanUp();
+			assertEquals(all.subList(start, all.size()), runIterations(start, ContextTest::collectionIteration));
+		}
+	}
+
+	@Test
+	public void testCurrentIteration() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, 2);
+		assertEquals(-1, Context.currentIteration());
+
+		List<Integer> indices = new ArrayList<>();
+		do {
+			Generator.of(Any.of("A", "B", "C")).get();
+			indices.add(Context.currentIteration());
+		} while(Context.next());
+
+		assertEquals(Collections.singletonList(2), indices);
+	}
+
+	@Test
+	public void testStartAtIterationOutOfRange() {
+		for(int start : new int[] { 3, 4 }) {
+			Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, start);
+			Generator<String> g = Generator.of(Any.of("A", "B", "C"));
+			try {
+				g.get();
+				fail();
+			}
+			catch(IllegalStateException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("only has 3 iterations"));
+			}
+			Context.cleanUp();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStartAtNegativeIteration() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, -1);
+	}
+
+	@Test
+	public void testIterationSeedsDiffer() {
+		Set<Long> seeds = new HashSet<>();
+		for(int i = 0; i < 1000; i++)
+			seeds.add(Context.iterationSeed(42, i));
+
+		assertEquals(1000, seeds.size());
+		assertNotEquals(Context.iterationSeed(42, 0), Context.iterationSeed(43, 0));
+	}
+
 	@Test
 	public void testValuesForCurrentIteration() {
 		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
@@ -324,4 +519,315 @@ public class ContextTest {
 		Context.cleanUp();
 	}
 
+	@Test
+	public void testForkedIterationsMatchSequentialIterations() throws Exception {
+		assertForkedIterationsMatchSequentialIterations(ContextTest::randomIteration);
+	}
+
+	@Test
+	public void testForkedCollectionIterationsMatchSequentialIterations() throws Exception {
+		assertForkedIterationsMatchSequentialIterations(ContextTest::collectionIteration);
+	}
+
+	private static void assertForkedIterationsMatchSequentialIterations(Supplier<String> iteration) throws Exception {
+		List<String> expected = runIterations(0, iteration);
+		Context.cleanUp();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7);
+		List<String> actual = new ArrayList<>();
+		actual.add(iteration.get());
+
+		List<Context.Fork> forks = new ArrayList<>();
+		for(Context.Fork fork = Context.fork(); fork != null; fork = Context.fork())
+			forks.add(fork);
+
+		assertEquals(expected.size() - 1, forks.size());
+		for(int i = 0; i < forks.size(); i++)
+			assertEquals(i + 1, forks.get(i).getIteration());
+
+		// Run the forks on other threads, in reverse order; each still sees its own iteration's values.
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for(int i = forks.size() - 1; i >= 0; i--) {
+				Context.Fork fork = forks.get(i);
+				results.add(0, executor.submit(() -> {
+					fork.enter();
+					try {
+						assertEquals(fork.getIteration(), Context.currentIteration());
+						return iteration.get();
+					}
+					finally {
+						fork.exit();
+					}
+				}));
+			}
+
+			for(Future<String> result : results)
+				actual.add(result.get());
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertEquals(expected, actual);
+		assertFalse(Context.next());
+	}
+
+	@Test
+	public void testForkReportsOnTheEnteringThread() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator.named("letter").of("A", "B").get();
+
+		Context.Fork fork = Context.fork();
+		fork.enter();
+		try {
+			assertEquals(1, Context.currentIteration());
+			assertEquals("B", Generator.named("letter").of("A", "B").get());
+			assertTrue(Context.report(), Context.report().contains("from generator letter"));
+		}
+		finally {
+			fork.exit();
+		}
+
+		// The original context is restored, still on its first iteration.
+		assertEquals(0, Context.currentIteration());
+		assertEquals(Collections.singletonList("A"), new ArrayList<>(Context.valuesForCurrentIteration().values()));
+		assertNull(Context.fork());
+	}
+
+	@Test
+	public void testForkBeforeFirstIteration() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator.of("A", "B");
+
+		assertNull(Context.fork());
+	}
+
+	@Test
+	public void testForkWithInconsistentGenerators() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator.named("letter").of("A", "B").get();
+
+		Context.Fork fork = Context.fork();
+		fork.enter();
+		try {
+			Generator.named("other").of("A", "B").get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("different than those declared for the first"));
+		}
+		finally {
+			fork.exit();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testForkEnteredTwice() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator.of("A", "B").get();
+
+		Context.Fork fork = Context.fork();
+		fork.enter();
+		try {
+			fork.enter();
+		}
+		finally {
+			fork.exit();
+		}
+	}
+
+	@Test
+	public void testShardsPartitionIterations() {
+		assertShardsPartitionIterations(ContextTest::randomIteration);
+	}
+
+	@Test
+	public void testShardsPartitionCollectionIterations() {
+		assertShardsPartitionIterations(ContextTest::collectionIteration);
+	}
+
+	private static void assertShardsPartitionIterations(Supplier<String> iteration) {
+		List<String> all = runIterations(0, iteration);
+		Context.cleanUp();
+
+		Map<Integer, String> sharded = new HashMap<>();
+		for(int index = 0; index < 4; index++) {
+			Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7, 0, Shard.of(index, 4));
+			try {
+				do {
+					String value = iteration.get();
+					assertEquals(index, Context.currentIteration() % 4);
+					assertNull(sharded.put(Context.currentIteration(), value));
+				} while(Context.next());
+
+				assertEquals(all.size(), Context.plannedIterations());
+			}
+			finally {
+				Context.cleanUp();
+			}
+		}
+
+		assertEquals(all.size(), sharded.size());
+		for(int i = 0; i < all.size(); i++)
+			assertEquals(all.get(i), sharded.get(i));
+	}
+
+	@Test
+	public void testShardWithStartAtIteration() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, 2, Shard.of(1, 2));
+
+		List<Integer> indices = new ArrayList<>();
+		do {
+			Generator.of(Any.of(1, 2, 3, 4, 5, 6)).get();
+			indices.add(Context.currentIteration());
+		} while(Context.next());
+
+		assertEquals(Arrays.asList(3, 5), indices);
+	}
+
+	@Test
+	public void testForkInShard() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, 0, Shard.of(1, 2));
+		Generator.of(Any.of(1, 2, 3, 4, 5, 6)).get();
+
+		assertEquals(1, Context.currentIteration());
+		assertEquals(3, Context.fork().getIteration());
+		assertEquals(5, Context.fork().getIteration());
+		assertNull(Context.fork());
+		assertEquals(6, Context.plannedIterations());
+	}
+
+	@Test
+	public void testEmptyShard() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, 0, Shard.of(3, 4));
+		Generator<String> g = Generator.of(Any.of("A", "B", "C"));
+		try {
+			g.get();
+			fail();
+		}
+		catch(Context.EmptyShardException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("None of the 3 iterations"));
+			assertEquals(3, Context.plannedIterations());
+		}
+	}
+
+	@Test
+	public void testPlannedIterationsUnknownUntilTheEnd() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		int iterations = 0;
+		do {
+			Generator.of(Any.of("A", "B", "C")).get();
+			assertEquals(-1, Context.plannedIterations());
+			iterations++;
+		} while(Context.next());
+
+		assertEquals(iterations, Context.plannedIterations());
+		assertEquals(Shard.ALL, Context.shard());
+	}
+
+	@Test
+	public void testValuesAreGeneratedOnceAndOnlyWhenRead() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		int[] generated = new int[1];
+		Generator<String> nothing = Generator.named("nothing").of(r -> { generated[0]++; return null; });
+		Generator<String> unread = Generator.named("unread").of("A");
+
+		assertNull(nothing.get());
+		assertNull(nothing.get());
+		assertEquals(1, generated[0]);
+
+		assertEquals(Collections.singleton(nothing), Context.valuesForCurrentIteration().keySet());
+		assertEquals("  {null} from generator nothing\n", Context.report());
+		assertEquals("A", unread.get());
+	}
+
+	@Test
+	public void testGetSpeed() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator<Integer> g = Generator.of(Any.of(1, 2, 3));
+
+		Subcase<Integer> subcase = random -> 1;
+		SynchronizedIteration synchronizedHolder = new SynchronizedIteration(subcase);
+		Context.Iteration holder = new Context.Iteration(subcase);
+		Random random = new Random(0);
+
+		int reads = 5000000;
+		long sum = 0;
+		for(int warmup = 0; warmup < reads; warmup++)
+			sum += (Integer)synchronizedHolder.get(random) + (Integer)holder.get(random) + g.get();
+
+		long start = System.nanoTime();
+		for(int read = 0; read < reads; read++)
+			sum += (Integer)synchronizedHolder.get(random);
+		double synchronizedNanos = (System.nanoTime() - start) / (double)reads;
+
+		start = System.nanoTime();
+		for(int read = 0; read < reads; read++)
+			sum += (Integer)holder.get(random);
+		double holderNanos = (System.nanoTime() - start) / (double)reads;
+
+		start = System.nanoTime();
+		for(int read = 0; read < reads; read++)
+			sum += g.get();
+		double getNanos = (System.nanoTime() - start) / (double)reads;
+
+		System.out.println(String.format(
+			"Time (%,d reads): %.2fns per synchronized read, %.2fns per lock-free read, %.2fns per Generator.get() (%d)",
+			reads, synchronizedNanos, holderNanos, getNanos, sum & 1
+		));
+		System.out.println();
+	}
+
+	private static String randomIteration() {
+		Generator<String> letter = Generator.of(Any.of("A", "B", "C"));
+		Generator<Integer> number = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+		return letter.get() + number.get();
+	}
+
+	// Collections pick their elements' subcases as they generate them, so they are the values most likely to depend on
+	// the iterations that came before.
+	private static String collectionIteration() {
+		Generator<List<Integer>> list = Generator.of(Any.listOf(Any.integer()).withSizeOf(Any.integer().inRange(1, 5)));
+		Generator<Set<String>> set = Generator.of(Any.setOf(Any.of("A", "B", "C"), Any.string()));
+		return list.get() + " " + set.get();
+	}
+
+	private static List<String> runRandomIterations(int start) {
+		return runIterations(start, ContextTest::randomIteration);
+	}
+
+	private static List<String> runIterations(int start, Supplier<String> iteration) {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7, start);
+
+		List<String> values = new ArrayList<>();
+		do {
+			values.add(iteration.get());
+		} while(Context.next());
+
+		return values;
+	}
+
+	// The value holder Context used before it dropped its locks, to compare Generator.get() against.
+	private static final class SynchronizedIteration {
+		private final Subcase<?> subcase;
+		private Object iterationValue;
+		private volatile boolean generated;
+
+		SynchronizedIteration(Subcase<?> subcase) {
+			this.subcase = subcase;
+		}
+
+		synchronized Object get(Random random) {
+			if(!generated) {
+				iterationValue = subcase.generate(random);
+				generated = true;
+			}
+			return iterationValue;
+		}
+	}
+
 }
@@ -0,0 +1,221 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.redfin.fuzzy.pairwise.Constraint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Test;
+
+public class FuzzyPlanTest {
+
+	@After
+	public void after() {
+		Context.cleanUp();
+	}
+
+	@Test
+	public void testCaptureAndReuse() {
+		CountingCase letters = new CountingCase("A", "B", "C");
+		CountingCase digits = new CountingCase("1", "2", "3");
+
+		List<String> first = run(null, letters, digits);
+		FuzzyPlan plan = Context.capturePlan();
+		Context.cleanUp();
+
+		assertEquals(9, plan.size());
+		assertEquals(Arrays.asList("letter", "digit"), plan.getGeneratorNames());
+		assertSame(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, plan.getCaseComposition());
+		assertEquals(1, letters.calls);
+		assertEquals(1, digits.calls);
+
+		assertEquals(first, run(plan, letters, digits));
+		assertSame(plan, Context.capturePlan());
+		assertEquals(1, letters.calls);
+		assertEquals(1, digits.calls);
+	}
+
+	@Test
+	public void testReuseWithEqualComposition() {
+		// Forbid "A" with "1".
+		Constraint constraint = Constraint.forbid(0, 0, 1, 0);
+		CountingCase letters = new CountingCase("A", "B", "C");
+		CountingCase digits = new CountingCase("1", "2", "3");
+
+		List<String> first = run(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES.withConstraints(constraint),
+			null,
+			letters,
+			digits
+		);
+		FuzzyPlan plan = Context.capturePlan();
+		Context.cleanUp();
+
+		assertEquals(8, plan.size());
+
+		// A composition that is equal to the plan's, but not the same instance.
+		assertEquals(
+			first,
+			run(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES.withConstraints(constraint), plan, letters, digits)
+		);
+		assertSame(plan, Context.capturePlan());
+		assertEquals(1, letters.calls);
+		assertEquals(1, digits.calls);
+	}
+
+	@Test
+	public void testRecordedPlanIsNotComposedAgain() {
+		int[] compositions = new int[] { 0 };
+		CaseComposition counting = new ConfiguredCaseComposition("COUNTING", (parameters, constraints) -> {
+			compositions[0]++;
+			return CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES.algorithm.apply(parameters, constraints);
+		});
+		List<String> expected = run(null, new CountingCase("A", "B", "C"), new CountingCase("1", "2", "3"));
+		Context.cleanUp();
+
+		// Capture the plan part of the way through the test, which then carries on as usual.
+		Context.init(counting, 0);
+		Context.recordPlan();
+
+		FuzzyPlan plan = null;
+		List<String> values = new ArrayList<>();
+		do {
+			Generator<String> letter = Generator.named("letter").of(new CountingCase("A", "B", "C"));
+			Generator<String> digit = Generator.named("digit").of(new CountingCase("1", "2", "3"));
+			values.add(letter.get() + digit.get());
+			if(values.size() == 3)
+				plan = Context.capturePlan();
+		} while(Context.next());
+
+		assertEquals(expected, values);
+		assertEquals(9, plan.size());
+		assertSame(plan, Context.capturePlan());
+		assertEquals(1, compositions[0]);
+		Context.cleanUp();
+
+		assertEquals(expected, run(counting, plan, new CountingCase("A", "B", "C"), new CountingCase("1", "2", "3")));
+		assertEquals(1, compositions[0]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testRecordAfterPlanning() {
+		run(null, new CountingCase("A"), new CountingCase("1"));
+		Context.recordPlan();
+	}
+
+	@Test
+	public void testCaptureBeforePlanning() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		assertNull(Context.capturePlan());
+
+		Generator.of("A", "B");
+		assertNull(Context.capturePlan());
+	}
+
+	@Test
+	public void testMismatchedPlanIsNotReused() {
+		List<String> expected = run(null, new CountingCase("A", "B", "C"), new CountingCase("1", "2", "3"));
+		FuzzyPlan plan = Context.capturePlan();
+		Context.cleanUp();
+
+		// A generator with a different name.
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Context.reusePlan(plan);
+		Generator.named("other").of(new CountingCase("A", "B")).get();
+		assertNotSame(plan, Context.capturePlan());
+		assertEquals(2, Context.capturePlan().size());
+		Context.cleanUp();
+
+		// A case of a different type.
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Context.reusePlan(plan);
+		Generator.named("letter").of(Any.of("A", "B", "C"));
+		Generator.named("digit").of(new CountingCase("1", "2", "3")).get();
+		assertNotSame(plan, Context.capturePlan());
+		Context.cleanUp();
+
+		// A different composition mode.
+		CountingCase letters = new CountingCase("A", "B", "C");
+		Context.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0);
+		Context.reusePlan(plan);
+		Generator.named("letter").of(letters);
+		Generator.named("digit").of(new CountingCase("1", "2", "3")).get();
+		assertNotSame(plan, Context.capturePlan());
+		assertEquals(1, letters.calls);
+		Context.cleanUp();
+
+		assertEquals(expected, run(plan, new CountingCase("A", "B", "C"), new CountingCase("1", "2", "3")));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReuseAfterPlanning() {
+		run(null, new CountingCase("A"), new CountingCase("1"));
+		Context.reusePlan(Context.capturePlan());
+	}
+
+	@Test
+	public void testReuseWithShard() {
+		List<String> all = run(null, new CountingCase("A", "B", "C"), new CountingCase("1", "2", "3"));
+		FuzzyPlan plan = Context.capturePlan();
+		Context.cleanUp();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, 1, Shard.of(0, 2));
+		Context.reusePlan(plan);
+
+		List<String> values = new ArrayList<>();
+		do {
+			Generator<String> letter = Generator.named("letter").of(new CountingCase("A", "B", "C"));
+			Generator<String> digit = Generator.named("digit").of(new CountingCase("1", "2", "3"));
+			values.add(letter.get() + digit.get());
+		} while(Context.next());
+
+		assertEquals(Arrays.asList(all.get(2), all.get(4), all.get(6), all.get(8)), values);
+		assertEquals(9, Context.plannedIterations());
+	}
+
+	private static List<String> run(FuzzyPlan plan, CountingCase letters, CountingCase digits) {
+		return run(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, plan, letters, digits);
+	}
+
+	private static List<String> run(
+		CaseComposition caseComposition,
+		FuzzyPlan plan,
+		CountingCase letters,
+		CountingCase digits
+	) {
+		Context.init(caseComposition, 0);
+		if(plan != null)
+			Context.reusePlan(plan);
+
+		List<String> values = new ArrayList<>();
+		do {
+			Generator<String> letter = Generator.named("letter").of(letters);
+			Generator<String> digit = Generator.named("digit").of(digits);
+			values.add(letter.get() + digit.get());
+		} while(Context.next());
+
+		return values;
+	}
+
+	private static class CountingCase implements Case<String> {
+		private final Case<String> delegate;
+		int calls;
+
+		CountingCase(String... values) {
+			delegate = Any.of(values);
+		}
+
+		@Override
+		public Set<Subcase<String>> getSubcases() {
+			calls++;
+			return delegate.getSubcases();
+		}
+	}
+
+}
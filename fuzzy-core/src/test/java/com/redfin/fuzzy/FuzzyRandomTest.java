@@ -0,0 +1,133 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Test;
+
+public class FuzzyRandomTest {
+
+	@After
+	public void after() {
+		Context.cleanUp();
+	}
+
+	@Test
+	public void testSameSeedSameValues() {
+		assertEquals(sample(new FuzzyRandom(42)), sample(new FuzzyRandom(42)));
+		assertNotEquals(sample(new FuzzyRandom(42)), sample(new FuzzyRandom(43)));
+	}
+
+	@Test
+	public void testSetSeedRestartsTheSequence() {
+		FuzzyRandom random = new FuzzyRandom(42);
+		List<Object> first = sample(random);
+		random.setSeed(42);
+		assertEquals(first, sample(random));
+
+		// Gaussians are generated in pairs; reseeding must discard the cached second one.
+		random.nextGaussian();
+		random.setSeed(42);
+		assertEquals(new FuzzyRandom(42).nextGaussian(), random.nextGaussian(), 0);
+	}
+
+	@Test
+	public void testNextIntBound() {
+		FuzzyRandom random = new FuzzyRandom(0);
+		int[] counts = new int[7];
+		for(int i = 0; i < 70000; i++)
+			counts[random.nextInt(7)]++;
+
+		for(int count : counts)
+			assertTrue(String.valueOf(count), count > 9000 && count < 11000);
+
+		for(int i = 0; i < 1000; i++) {
+			int value = random.nextInt(Integer.MAX_VALUE);
+			assertTrue(value >= 0);
+			assertEquals(0, random.nextInt(1));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNextIntNonPositiveBound() {
+		new FuzzyRandom(0).nextInt(0);
+	}
+
+	@Test
+	public void testNextDouble() {
+		FuzzyRandom random = new FuzzyRandom(0);
+		double sum = 0;
+		for(int i = 0; i < 10000; i++) {
+			double d = random.nextDouble();
+			assertTrue(d >= 0 && d < 1);
+			sum += d;
+		}
+
+		assertEquals(0.5, sum / 10000, 0.02);
+	}
+
+	@Test
+	public void testNextBytes() {
+		byte[] a = new byte[13], b = new byte[13];
+		new FuzzyRandom(7).nextBytes(a);
+		new FuzzyRandom(7).nextBytes(b);
+
+		assertArrayEquals(a, b);
+	}
+
+	@Test
+	public void testSplit() {
+		FuzzyRandom random = new FuzzyRandom(42);
+		FuzzyRandom split = random.split();
+
+		assertNotEquals(sample(random), sample(split));
+		assertEquals(sample(new FuzzyRandom(42).split()), sample(new FuzzyRandom(42).split()));
+	}
+
+	@Test
+	public void testContextUsesFuzzyRandom() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator<Random> g = Generator.of(Function.<Random>identity()::apply);
+
+		assertEquals(FuzzyRandom.class, g.get().getClass());
+	}
+
+	@Test
+	public void testSpeed() {
+		int count = 5000000;
+		for(Random random : new Random[] { new Random(1), new FuzzyRandom(1) }) {
+			long start = System.nanoTime();
+			long sum = 0;
+			for(int i = 0; i < count; i++)
+				sum += random.nextInt(1000) + random.nextLong();
+
+			System.out.println(String.format(
+				"Time (%s, %,d bounded ints and longs): %.2fms (%d)",
+				random.getClass().getSimpleName(),
+				count,
+				(System.nanoTime() - start) * 1e-6,
+				sum & 1
+			));
+		}
+		System.out.println();
+	}
+
+	private static List<Object> sample(Random random) {
+		List<Object> values = new ArrayList<>();
+		values.add(random.nextInt());
+		values.add(random.nextInt(100));
+		values.add(random.nextLong());
+		values.add(random.nextDouble());
+		values.add(random.nextBoolean());
+		values.add(random.nextFloat());
+		return values;
+	}
+
+}
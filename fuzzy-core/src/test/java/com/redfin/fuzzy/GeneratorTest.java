@@ -12,6 +12,7 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class GeneratorTest {
 
@@ -64,6 +65,50 @@ public class GeneratorTest {
 		assertEquals(FuzzyUtil.setOf(1, 2, 3), actuals);
 	}
 
+	@Test
+	public void testUnnamedGeneratorIsNamedAfterItsCreationSite() {
+		Generator<Integer> ints = Generator.of(1, 2, 3);
+
+		assertTrue(ints.getName(), ints.getName().startsWith("at " + GeneratorTest.class.getName() + ".testUnnamed"));
+		assertTrue(ints.getCreationSite().stream().anyMatch(e -> e.getClassName().equals(GeneratorTest.class.getName())));
+	}
+
+	@Test
+	public void testCreationSiteRecordedOncePerTest() {
+		List<List<StackTraceElement>> sites = new ArrayList<>();
+		do {
+			Generator<Integer> ints;
+			if(sites.isEmpty())
+				ints = Generator.named("ints").of(1, 2, 3);
+			else
+				ints = Generator.named("ints").of(1, 2, 3);
+
+			sites.add(ints.getCreationSite());
+			ints.get();
+		}
+		while(Context.next());
+
+		// Later iterations declare the generator on another line, but share the first iteration's creation site.
+		assertEquals(3, sites.size());
+		assertEquals(sites.get(0), sites.get(1));
+		assertEquals(sites.get(0), sites.get(2));
+	}
+
+	@Test
+	public void testCreationSiteNotRecorded() {
+		DiagnosticLevel previous = DiagnosticLevel.get();
+		DiagnosticLevel.set(DiagnosticLevel.NONE);
+		try {
+			Generator<Integer> ints = Generator.of(1, 2, 3);
+
+			assertTrue(ints.getCreationSite().isEmpty());
+			assertTrue(ints.getName(), ints.getName().startsWith("at " + GeneratorTest.class.getName()));
+		}
+		finally {
+			DiagnosticLevel.set(previous);
+		}
+	}
+
 	@Test
 	public void testCompareTo() {
 		Generator<Integer> a = Generator.named("a").of(1);
@@ -82,4 +127,85 @@ public class GeneratorTest {
 		assertSame(c, actuals.get(2));
 	}
 
+	@Test
+	public void testGetInt() {
+		do {
+			Generator<Integer> ints = Generator.of(Any.integer());
+			int value = ints.getInt();
+
+			assertEquals(value, ints.getInt());
+			assertEquals(Integer.valueOf(value), ints.get());
+			assertEquals(Integer.valueOf(value), Context.valuesForCurrentIteration().get(ints));
+		}
+		while(Context.next());
+	}
+
+	@Test
+	public void testGetIntAfterGet() {
+		do {
+			Generator<Integer> ints = Generator.of(Any.integer());
+			Integer value = ints.get();
+
+			assertEquals(value.intValue(), ints.getInt());
+			assertSame(value, ints.get());
+		}
+		while(Context.next());
+	}
+
+	@Test
+	public void testGetLong() {
+		do {
+			Generator<Long> longs = Generator.of(Any.longInteger());
+			long value = longs.getLong();
+
+			assertEquals(value, longs.getLong());
+			assertEquals(Long.valueOf(value), longs.get());
+		}
+		while(Context.next());
+	}
+
+	@Test
+	public void testGetDouble() {
+		do {
+			Generator<Double> doubles = Generator.of(Any.doublePrecisionNumber());
+			double value = doubles.getDouble();
+
+			assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(doubles.getDouble()));
+			assertEquals(Double.valueOf(value), doubles.get());
+		}
+		while(Context.next());
+	}
+
+	@Test
+	public void testPrimitiveAccessorsOfBoxedSubcases() {
+		Set<Integer> ints = new HashSet<>();
+		Set<Long> longs = new HashSet<>();
+		Set<Double> doubles = new HashSet<>();
+
+		do {
+			Generator<Integer> i = Generator.of(1, 2, 3);
+			Generator<Long> l = Generator.of(1L, 2L, 3L);
+			Generator<Double> d = Generator.of(1.0, 2.0, 3.0);
+
+			ints.add(i.getInt());
+			longs.add(l.getLong());
+			doubles.add(d.getDouble());
+		}
+		while(Context.next());
+
+		assertEquals(FuzzyUtil.setOf(1, 2, 3), ints);
+		assertEquals(FuzzyUtil.setOf(1L, 2L, 3L), longs);
+		assertEquals(FuzzyUtil.setOf(1.0, 2.0, 3.0), doubles);
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetIntOfWrongType() {
+		Generator.of("a", "b").getInt();
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetLongOfInts() {
+		Generator.of(Any.integer()).getLong();
+	}
+
 }
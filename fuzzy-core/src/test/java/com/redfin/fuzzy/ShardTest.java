@@ -0,0 +1,91 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ShardTest {
+
+	@After
+	public void after() {
+		System.clearProperty(Shard.INDEX_PROPERTY);
+		System.clearProperty(Shard.COUNT_PROPERTY);
+	}
+
+	@Test
+	public void testContains() {
+		Shard shard = Shard.of(1, 3);
+
+		assertFalse(shard.contains(0));
+		assertTrue(shard.contains(1));
+		assertFalse(shard.contains(2));
+		assertTrue(shard.contains(4));
+
+		for(int i = 0; i < 10; i++)
+			assertTrue(Shard.ALL.contains(i));
+	}
+
+	@Test
+	public void testNextIteration() {
+		Shard shard = Shard.of(1, 3);
+
+		assertEquals(1, shard.nextIteration(0));
+		assertEquals(1, shard.nextIteration(1));
+		assertEquals(4, shard.nextIteration(2));
+		assertEquals(7, shard.nextIteration(5));
+		assertEquals(5, Shard.ALL.nextIteration(5));
+	}
+
+	@Test
+	public void testOf() {
+		assertSame(Shard.ALL, Shard.of(0, 1));
+		assertEquals(Shard.of(2, 4), Shard.of(2, 4));
+		assertNotEquals(Shard.of(2, 4), Shard.of(1, 4));
+		assertEquals("shard 2 of 4", Shard.of(2, 4).toString());
+
+		for(int[] invalid : new int[][] { { 0, 0 }, { -1, 2 }, { 2, 2 } }) {
+			try {
+				Shard.of(invalid[0], invalid[1]);
+				fail();
+			}
+			catch(IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testFromSystemProperties() {
+		assertSame(Shard.ALL, Shard.fromSystemProperties());
+
+		System.setProperty(Shard.INDEX_PROPERTY, "2");
+		System.setProperty(Shard.COUNT_PROPERTY, " 4 ");
+		assertEquals(Shard.of(2, 4), Shard.fromSystemProperties());
+	}
+
+	@Test
+	public void testFromIncompleteSystemProperties() {
+		System.setProperty(Shard.INDEX_PROPERTY, "2");
+		try {
+			Shard.fromSystemProperties();
+			fail();
+		}
+		catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("must be set together"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromInvalidSystemProperties() {
+		System.setProperty(Shard.INDEX_PROPERTY, "two");
+		System.setProperty(Shard.COUNT_PROPERTY, "4");
+		Shard.fromSystemProperties();
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class StackCaptureTest {
+
+	private final DiagnosticLevel previous = DiagnosticLevel.get();
+
+	@After
+	public void after() {
+		DiagnosticLevel.set(previous);
+	}
+
+	@Test
+	public void testCaptureLazy() {
+		DiagnosticLevel.set(DiagnosticLevel.LAZY);
+		StackCapture capture = StackCapture.capture();
+
+		assertFalse(capture.isEmpty());
+		assertEquals(StackCaptureTest.class.getName(), capture.elements()[0].getClassName());
+		assertEquals("testCaptureLazy", capture.elements()[0].getMethodName());
+		assertSame(capture.elements(), capture.elements());
+	}
+
+	@Test
+	public void testCaptureFull() {
+		DiagnosticLevel.set(DiagnosticLevel.FULL);
+		StackCapture capture = StackCapture.capture();
+
+		assertEquals("testCaptureFull", capture.elements()[0].getMethodName());
+	}
+
+	@Test
+	public void testCaptureNone() {
+		DiagnosticLevel.set(DiagnosticLevel.NONE);
+		StackCapture capture = StackCapture.capture();
+
+		assertTrue(capture.isEmpty());
+		assertEquals(0, capture.elements().length);
+	}
+
+	@Test
+	public void testFirstFrameOutside() {
+		assertEquals("testFirstFrameOutside", StackCapture.firstFrameOutside().getMethodName());
+		assertEquals("testFirstFrameOutside", Helper.firstFrameOutsideHelper().getMethodName());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testSetNullLevel() {
+		DiagnosticLevel.set(null);
+	}
+
+	private static class Helper {
+		static StackTraceElement firstFrameOutsideHelper() {
+			return StackCapture.firstFrameOutside(Helper.class);
+		}
+	}
+
+}
@@ -3,6 +3,8 @@ package com.redfin.fuzzy.cases;
 import static org.junit.Assert.*;
 
 import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.DoubleSubcase;
+import com.redfin.fuzzy.Subcase;
 import java.util.Random;
 import java.util.Set;
 import org.junit.Before;
@@ -157,4 +159,26 @@ public class DoubleNumericCaseTest {
 		assertFalse(actuals.stream().anyMatch(d -> d < -918));
 	}
 
+	@Test
+	public void testSubcasesArePrimitive() {
+		Set<Subcase<Double>> subcases = Any.doublePrecisionNumber().inRange(-1, 1).excluding(0.5, -1.0).getSubcases();
+
+		assertEquals(4, subcases.size());
+		for(Subcase<Double> subcase : subcases) {
+			assertTrue(subcase instanceof DoubleSubcase);
+			for(int i = 0; i < 100; i++) {
+				double d = ((DoubleSubcase)subcase).generateDouble(random);
+				assertTrue(d >= -1 && d <= 1 && d != 0.5 && d != -1.0);
+			}
+		}
+	}
+
+	@Test
+	public void testExcludingZeroDoesNotExcludeNegativeZero() {
+		Set<Double> actuals = Any.doublePrecisionNumber().inRange(-0.0, 1).excluding(0.0).generateAllOnce(random);
+
+		assertTrue(actuals.contains(-0.0));
+		assertFalse(actuals.contains(0.0));
+	}
+
 }
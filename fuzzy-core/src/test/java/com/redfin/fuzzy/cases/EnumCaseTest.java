@@ -5,9 +5,14 @@ import com.redfin.fuzzy.CaseCompositionMode;
 import com.redfin.fuzzy.Context;
 import com.redfin.fuzzy.Generator;
 import com.redfin.fuzzy.FuzzyUtil;
+import com.redfin.fuzzy.Subcase;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -37,6 +42,15 @@ public class EnumCaseTest {
 		assertEquals(FuzzyUtil.setOf(TestEnum.A, TestEnum.B, TestEnum.C, TestEnum.D), actual);
 	}
 
+	@Test
+	public void testSubcasesInDeclarationOrder() {
+		List<TestEnum> actual = new ArrayList<>();
+		for(Subcase<TestEnum> subcase : Any.enumValueFrom(TestEnum.class).getSubcases())
+			actual.add(subcase.generate(new Random()));
+
+		assertEquals(Arrays.asList(TestEnum.A, TestEnum.B, TestEnum.C, TestEnum.D), actual);
+	}
+
 	@Test
 	public void testExcluding() {
 		Set<TestEnum> actual = new HashSet<>();
@@ -71,6 +85,15 @@ public class EnumCaseTest {
 			.generateAllOnce();
 	}
 
+	@Test
+	public void testExcludingAfterSubcasesAreCached() {
+		EnumCase<TestEnum> subject = Any.enumValueFrom(TestEnum.class);
+
+		assertEquals(4, subject.getSubcases().size());
+		subject.excluding(TestEnum.A);
+		assertEquals(FuzzyUtil.setOf(TestEnum.B, TestEnum.C, TestEnum.D), subject.generateAllOnce());
+	}
+
 	private enum TestEnum { A, B, C, D }
 
 }
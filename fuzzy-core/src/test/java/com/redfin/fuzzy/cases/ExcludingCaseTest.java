@@ -42,4 +42,14 @@ public class ExcludingCaseTest {
 		assertEquals(Collections.singleton(3), subject.generateAllOnce());
 	}
 
+	@Test
+	public void testExcludingAfterSubcasesAreCached() {
+		AtomicInteger i = new AtomicInteger(0);
+		Case<Integer> subject = new ExcludingCase<>(Any.of(i::incrementAndGet), 0);
+
+		assertEquals(Collections.singleton(1), subject.generateAllOnce());
+		subject.excluding(2);
+		assertEquals(Collections.singleton(3), subject.generateAllOnce());
+	}
+
 }
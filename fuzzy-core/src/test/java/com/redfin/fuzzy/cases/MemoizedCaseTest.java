@@ -0,0 +1,115 @@
+package com.redfin.fuzzy.cases;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.Cases;
+import com.redfin.fuzzy.Subcase;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class MemoizedCaseTest {
+
+	@Test
+	public void testSubcasesComputedOnce() {
+		AtomicInteger calls = new AtomicInteger();
+		Case<Integer> subject = new MemoizedCase<>(() -> {
+			calls.incrementAndGet();
+			return Any.of(1, 2, 3).getSubcases();
+		});
+
+		Set<Subcase<Integer>> first = subject.getSubcases();
+
+		assertSame(first, subject.getSubcases());
+		assertEquals(1, calls.get());
+		assertEquals(3, first.size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSubcasesUnmodifiable() {
+		Any.of(1, 2, 3).memoized().getSubcases().clear();
+	}
+
+	@Test
+	public void testMemoized() {
+		Case<Integer> subject = Any.of(1, 2, 3).memoized();
+
+		assertTrue(subject instanceof MemoizedCase);
+		assertSame(subject, subject.memoized());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullDelegate() {
+		new MemoizedCase<>(null);
+	}
+
+	@Test
+	public void testCompositeCasesCacheSubcases() {
+		Case<Integer> integers = Any.integer().inRange(1, 10);
+		Case<Integer> subject = Cases.map(Any.of(integers, Any.of(20, 30)).orNull().excluding(5), i -> i);
+
+		Set<Subcase<Integer>> first = subject.getSubcases();
+
+		assertSame(first, subject.getSubcases());
+	}
+
+	@Test
+	public void testCompositeCasesRebuiltWhenPartIsReconfigured() {
+		NumericCase<Integer> integers = Any.integer();
+		Case<Integer> subject = Any.of(integers, Any.of(20, 30)).orNull();
+
+		Set<Subcase<Integer>> first = subject.getSubcases();
+		integers.inRange(1, 10);
+		Set<Subcase<Integer>> second = subject.getSubcases();
+
+		assertNotSame(first, second);
+		assertSame(second, subject.getSubcases());
+		for(int i = 0; i < 100; i++) {
+			for(Integer value : subject.generateAllOnce())
+				assertTrue(value == null || value == 20 || value == 30 || (value >= 1 && value <= 10));
+		}
+	}
+
+	@Test
+	public void testGetSubcasesSpeed() {
+		int calls = 1000;
+		long size = 0;
+
+		long start = System.nanoTime();
+		for(int i = 0; i < calls; i++)
+			size += newCompositeCase().getSubcases().size();
+		long freshNanos = System.nanoTime() - start;
+
+		Case<String> subject = newCompositeCase();
+		start = System.nanoTime();
+		for(int i = 0; i < calls; i++)
+			size += subject.getSubcases().size();
+		long reusedNanos = System.nanoTime() - start;
+
+		System.out.println(String.format(
+			"Time (%,d calls to getSubcases): %.1fus per new composite case, %.1fus per reused composite case (%d)",
+			calls, freshNanos / 1000.0 / calls, reusedNanos / 1000.0 / calls, size & 1
+		));
+		System.out.println();
+	}
+
+	// A tree of every kind of composite case, over each kind of leaf.
+	private static Case<String> newCompositeCase() {
+		return Cases.map(
+			Any.of(
+				Any.string(),
+				Cases.map(Any.integer().inRange(-100, 100), i -> Integer.toString(i)),
+				Cases.map(Any.doublePrecisionNumber().excluding(0.5), d -> Double.toString(d)),
+				Cases.map(Any.enumValueFrom(Thread.State.class), Enum::name),
+				Any.of("a", "b", "c").excluding("b")
+			).orNull(),
+			s -> s
+		);
+	}
+
+}
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -13,13 +14,17 @@ import com.redfin.fuzzy.Any;
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.CaseCompositionMode;
 import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.FuzzyRandom;
 import com.redfin.fuzzy.Generator;
+import com.redfin.fuzzy.IntSubcase;
+import com.redfin.fuzzy.LongSubcase;
 import com.redfin.fuzzy.Subcase;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.junit.Before;
@@ -722,6 +727,128 @@ public class NumericCaseTest {
 		assertFalse(longs.stream().anyMatch(l -> l < BIG));
 	}
 
+	@Test
+	public void testSubcasesCachedUntilReconfigured() {
+		NumericCase<Integer> subject = Any.integer();
+
+		Set<Subcase<Integer>> first = subject.getSubcases();
+		assertSame(first, subject.getSubcases());
+
+		subject.inRange(5, 10);
+		Set<Subcase<Integer>> second = subject.getSubcases();
+		assertNotSame(first, second);
+		assertSame(second, subject.getSubcases());
+
+		subject.excluding(5, 10);
+		assertNotSame(second, subject.getSubcases());
+		for(int i = 0; i < 100; i++)
+			assertTrue(subject.generateAllOnce(random).stream().allMatch(v -> v > 5 && v < 10));
+	}
+
+	@Test
+	public void testIntegerSubcasesArePrimitive() {
+		List<Function<NumericCase<Integer>, Case<Integer>>> configurations = Arrays.asList(
+			c -> c,
+			c -> c.inRange(-1000, 1000),
+			c -> c.inRange(5, 1000),
+			c -> c.inRange(-1000, -5),
+			c -> c.inRange(Integer.MIN_VALUE + 1, Integer.MAX_VALUE),
+			c -> c.lessThanOrEqualTo(-3),
+			c -> c.greaterThanOrEqualTo(10),
+			c -> c.inRange(1, 3).excluding(2),
+			c -> c.excluding(0, 7, -100)
+		);
+
+		for(Function<NumericCase<Integer>, Case<Integer>> configuration : configurations) {
+			List<Subcase<Integer>> primitive = new ArrayList<>(configuration.apply(Any.integer()).getSubcases());
+			List<Subcase<Integer>> boxed = new ArrayList<>(configuration.apply(boxedIntegers(Any.integer())).getSubcases());
+
+			assertEquals(boxed.size(), primitive.size());
+			for(int i = 0; i < primitive.size(); i++) {
+				assertTrue(primitive.get(i) instanceof IntSubcase);
+				for(long seed = 0; seed < 100; seed++) {
+					assertEquals(
+						boxed.get(i).generate(new Random(seed)).intValue(),
+						((IntSubcase)primitive.get(i)).generateInt(new Random(seed))
+					);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLongSubcasesArePrimitive() {
+		List<Function<NumericCase<Long>, Case<Long>>> configurations = Arrays.asList(
+			c -> c,
+			c -> c.inRange(-1000L, 1000L),
+			c -> c.inRange(5L, 1L << 40),
+			c -> c.inRange(-(1L << 40), -5L),
+			c -> c.lessThanOrEqualTo(-3L),
+			c -> c.greaterThanOrEqualTo(10L),
+			c -> c.inRange(1L, 3L).excluding(2L),
+			c -> c.excluding(0L, 7L, -100L)
+		);
+
+		for(Function<NumericCase<Long>, Case<Long>> configuration : configurations) {
+			List<Subcase<Long>> primitive = new ArrayList<>(configuration.apply(Any.longInteger()).getSubcases());
+			List<Subcase<Long>> boxed = new ArrayList<>(configuration.apply(boxedLongs(Any.longInteger())).getSubcases());
+
+			// The boxed case lacks the extra subcases for values beyond the range of an int, which come last.
+			assertTrue(primitive.size() >= boxed.size());
+			for(int i = 0; i < primitive.size(); i++) {
+				assertTrue(primitive.get(i) instanceof LongSubcase);
+				for(long seed = 0; i < boxed.size() && seed < 100; seed++) {
+					assertEquals(
+						boxed.get(i).generate(new Random(seed)).longValue(),
+						((LongSubcase)primitive.get(i)).generateLong(new Random(seed))
+					);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPrimitiveExcludingMaxAttempts() {
+		Subcase<Integer> subcase = Any.integer().inRange(1, 2).excluding(1, 2).getSubcases().iterator().next();
+
+		try {
+			((IntSubcase)subcase).generateInt(random);
+			fail("Expected IllegalStateException");
+		}
+		catch(IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testIntegerGenerationSpeed() {
+		List<Subcase<Integer>> primitive = new ArrayList<>(Any.integer().inRange(-1000000, 1000000).getSubcases());
+		List<Subcase<Integer>> boxed = new ArrayList<>(boxedIntegers(Any.integer()).inRange(-1000000, 1000000).getSubcases());
+		Random random = new FuzzyRandom(0);
+
+		int values = 10000000;
+		long sum = 0;
+		for(int pass = 0; pass < 2; pass++) {
+			long start = System.nanoTime();
+			for(int i = 0; i < values; i++)
+				sum += boxed.get(i % boxed.size()).generate(random);
+			long boxedNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for(int i = 0; i < values; i++)
+				sum += ((IntSubcase)primitive.get(i % primitive.size())).generateInt(random);
+			long primitiveNanos = System.nanoTime() - start;
+
+			if(pass == 1) {
+				System.out.println(String.format(
+					"Time (%,d integers): %dms boxed, %dms primitive (%d)",
+					values, boxedNanos / 1000000, primitiveNanos / 1000000, sum & 1
+				));
+				System.out.println();
+			}
+		}
+	}
+
 	private SubcaseExpectations assertSubcases(Set<Subcase<Integer>> subcases) {
 		SubcaseExpectations res = new SubcaseExpectations();
 
@@ -804,6 +931,33 @@ public class NumericCaseTest {
 
 	}
 
+	// Cases that build their subcases with NumericCase's boxed defaults, for comparison with the primitive subcases.
+	private static NumericCase<Integer> boxedIntegers(NumericCase<Integer> ints) {
+		return new NumericCase<Integer>() {
+			@Override protected NumericCase<Integer> newCase() { return boxedIntegers(ints.newCase()); }
+			@Override protected Integer add(Integer a, Integer b) { return ints.add(a, b); }
+			@Override protected Integer negate(Integer t) { return ints.negate(t); }
+			@Override protected Integer abs(Integer t) { return ints.abs(t); }
+			@Override protected Integer i2t(int i) { return ints.i2t(i); }
+			@Override protected boolean lt(Integer a, Integer b) { return ints.lt(a, b); }
+			@Override protected Integer rng(Random random) { return ints.rng(random); }
+			@Override protected Integer rngLessThan(Random random, Integer max) { return ints.rngLessThan(random, max); }
+		};
+	}
+
+	private static NumericCase<Long> boxedLongs(NumericCase<Long> longs) {
+		return new NumericCase<Long>() {
+			@Override protected NumericCase<Long> newCase() { return boxedLongs(longs.newCase()); }
+			@Override protected Long add(Long a, Long b) { return longs.add(a, b); }
+			@Override protected Long negate(Long t) { return longs.negate(t); }
+			@Override protected Long abs(Long t) { return longs.abs(t); }
+			@Override protected Long i2t(int i) { return longs.i2t(i); }
+			@Override protected boolean lt(Long a, Long b) { return longs.lt(a, b); }
+			@Override protected Long rng(Random random) { return longs.rng(random); }
+			@Override protected Long rngLessThan(Random random, Long max) { return longs.rngLessThan(random, max); }
+		};
+	}
+
 	private static Object integerGreaterThan(int i) {
 		return new Object() {
 			@Override public boolean equals(Object obj) { return obj instanceof Integer && (int)obj > i; }
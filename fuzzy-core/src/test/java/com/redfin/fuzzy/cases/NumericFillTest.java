@@ -0,0 +1,172 @@
+package com.redfin.fuzzy.cases;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.Case;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Collections;
+import org.junit.Test;
+
+public class NumericFillTest {
+
+	// Not a multiple of the chunk size, so that parallel fills have a partial chunk.
+	private static final int SIZE = 100003;
+
+	@Test
+	public void testFillIntsMatchesStream() {
+		Case<Integer> c = Any.integer().inRange(-1000, 1000);
+		int[] actual = new int[SIZE];
+
+		NumericFill.fill(c, actual, 42);
+
+		assertArrayEquals(c.stream(42, SIZE).mapToInt(Integer::intValue).toArray(), actual);
+	}
+
+	@Test
+	public void testFillLongsMatchesStream() {
+		Case<Long> c = Any.longInteger();
+		long[] actual = new long[SIZE];
+
+		NumericFill.fill(c, actual, 42);
+
+		assertArrayEquals(c.stream(42, SIZE).mapToLong(Long::longValue).toArray(), actual);
+	}
+
+	@Test
+	public void testFillDoublesMatchesStream() {
+		Case<Double> c = Any.doublePrecisionNumber();
+		double[] actual = new double[SIZE];
+
+		NumericFill.fill(c, actual, 42);
+
+		assertArrayEquals(c.stream(42, SIZE).mapToDouble(Double::doubleValue).toArray(), actual, 0);
+	}
+
+	@Test
+	public void testFillWithBoxedSubcases() {
+		Case<Integer> c = Any.of(1, 2, 3);
+		int[] actual = new int[10];
+
+		NumericFill.fill(c, actual, 7);
+
+		assertArrayEquals(c.stream(7, 10).mapToInt(Integer::intValue).toArray(), actual);
+	}
+
+	@Test
+	public void testParallelFillMatchesFill() {
+		int[] ints = new int[SIZE];
+		int[] parallelInts = new int[SIZE];
+		NumericFill.fill(Any.integer(), ints, 3);
+		NumericFill.parallelFill(Any.integer(), parallelInts, 3);
+		assertArrayEquals(ints, parallelInts);
+
+		long[] longs = new long[SIZE];
+		long[] parallelLongs = new long[SIZE];
+		NumericFill.fill(Any.longInteger(), longs, 3);
+		NumericFill.parallelFill(Any.longInteger(), parallelLongs, 3);
+		assertArrayEquals(longs, parallelLongs);
+
+		double[] doubles = new double[SIZE];
+		double[] parallelDoubles = new double[SIZE];
+		NumericFill.fill(Any.doublePrecisionNumber(), doubles, 3);
+		NumericFill.parallelFill(Any.doublePrecisionNumber(), parallelDoubles, 3);
+		assertArrayEquals(doubles, parallelDoubles, 0);
+	}
+
+	@Test
+	public void testParallelFillEmptyArray() {
+		NumericFill.parallelFill(Any.integer(), new int[0], 3);
+	}
+
+	@Test
+	public void testFillDirectIntBuffer() {
+		IntBuffer buffer = ByteBuffer.allocateDirect(100 * Integer.BYTES).asIntBuffer();
+		buffer.position(10);
+		buffer.limit(90);
+
+		NumericFill.fill(Any.integer(), buffer, 5);
+
+		int[] expected = new int[80];
+		NumericFill.fill(Any.integer(), expected, 5);
+
+		assertEquals(10, buffer.position());
+		assertEquals(90, buffer.limit());
+
+		buffer.limit(100);
+		for(int i = 0; i < 100; i++)
+			assertEquals(i < 10 || i >= 90 ? 0 : expected[i - 10], buffer.get(i));
+	}
+
+	@Test
+	public void testFillDirectLongBuffer() {
+		LongBuffer buffer = ByteBuffer.allocateDirect(100 * Long.BYTES).asLongBuffer();
+
+		NumericFill.fill(Any.longInteger(), buffer, 5);
+
+		long[] expected = new long[100];
+		NumericFill.fill(Any.longInteger(), expected, 5);
+
+		assertEquals(0, buffer.position());
+		for(int i = 0; i < 100; i++)
+			assertEquals(expected[i], buffer.get(i));
+	}
+
+	@Test
+	public void testFillDoubleBuffer() {
+		DoubleBuffer buffer = DoubleBuffer.allocate(100);
+
+		NumericFill.fill(Any.doublePrecisionNumber(), buffer, 5);
+
+		double[] expected = new double[100];
+		NumericFill.fill(Any.doublePrecisionNumber(), expected, 5);
+
+		assertArrayEquals(expected, buffer.array(), 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFillWithNoSubcases() {
+		NumericFill.fill(Collections::emptySet, new int[1], 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testFillNullCase() {
+		NumericFill.fill((Case<Integer>)null, new int[1], 0);
+	}
+
+	@Test
+	public void testFillSpeed() {
+		Case<Integer> c = Any.integer();
+		int count = 5000000;
+		int[] dest = new int[count];
+
+		long sum = 0;
+		for(int pass = 0; pass < 2; pass++) {
+			long start = System.nanoTime();
+			int[] streamed = c.stream(pass, count).mapToInt(Integer::intValue).toArray();
+			long streamNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			NumericFill.fill(c, dest, pass);
+			long fillNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			NumericFill.parallelFill(c, dest, pass);
+			long parallelNanos = System.nanoTime() - start;
+
+			sum += streamed[count - 1] + dest[count - 1];
+			if(pass == 1) {
+				System.out.println(String.format(
+					"Time (%,d integers): %dms streamed, %dms filled, %dms filled in parallel (%d)",
+					count, streamNanos / 1000000, fillNanos / 1000000, parallelNanos / 1000000, sum & 1
+				));
+				System.out.println();
+			}
+		}
+	}
+
+}
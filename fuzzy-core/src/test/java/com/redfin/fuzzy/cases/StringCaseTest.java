@@ -2,6 +2,7 @@ package com.redfin.fuzzy.cases;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import com.redfin.fuzzy.Any;
@@ -77,6 +78,17 @@ public class StringCaseTest {
 		assertAllSubcases(subject.getSubcases(), s -> s.length() == 20);
 	}
 
+	@Test
+	public void testReconfiguringAfterSubcasesAreCached() {
+		StringCase subject = Any.string();
+
+		Set<Subcase<String>> first = subject.getSubcases();
+		assertSame(first, subject.getSubcases());
+
+		subject.withLength(20);
+		assertAllSubcases(subject.getSubcases(), s -> s.length() == 20);
+	}
+
 	@Test
 	public void testWithSourceStringsOf() {
 		Case<String> subject = Any.string()
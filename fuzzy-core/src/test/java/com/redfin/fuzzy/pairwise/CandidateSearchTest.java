@@ -0,0 +1,58 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CandidateSearchTest {
+
+	@Test
+	public void testCoversAllPairs() {
+		int[] sizes = { 3, 4, 2, 5, 3 };
+		List<int[]> rows = new CandidateSearch(sizes, 2, 8, 42).generate();
+
+		assertCovered(sizes, 2, rows);
+		assertTrue(rows.size() >= 5 * 4);
+	}
+
+	@Test
+	public void testCoversAllTriples() {
+		int[] sizes = { 2, 3, 2, 2, 3, 2 };
+		List<int[]> rows = new CandidateSearch(sizes, 3, 8, 42).generate();
+
+		assertCovered(sizes, 3, rows);
+	}
+
+	@Test
+	public void testDeterministicForSeed() {
+		int[] sizes = { 5, 5, 5, 5, 5, 5, 5, 5 };
+
+		List<int[]> first = new CandidateSearch(sizes, 2, 16, 7).generate();
+		List<int[]> second = new CandidateSearch(sizes, 2, 16, 7).generate();
+
+		assertEquals(first.size(), second.size());
+		for(int i = 0; i < first.size(); i++)
+			assertEquals(Arrays.toString(first.get(i)), Arrays.toString(second.get(i)));
+	}
+
+	@Test
+	public void testNoParameters() {
+		assertEquals(0, new CandidateSearch(new int[0], 2, 4, 0).generate().size());
+	}
+
+	private static void assertCovered(int[] sizes, int t, List<int[]> rows) {
+		TupleSet tuples = new TupleSet(sizes, t);
+		int[] columns = TupleSet.firstCombination(t);
+		do {
+			for(int[] row : rows)
+				tuples.cover(tuples.offset(tuples.block(columns)) + tuples.localIndex(columns, row));
+		}
+		while(TupleSet.nextColexCombination(columns, t) < sizes.length);
+
+		assertTrue(tuples.isEmpty());
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ConstraintTest {
+
+	@Test
+	public void testForbid() {
+		Constraint subject = Constraint.forbid(0, 1, 2, 0);
+
+		assertFalse(subject.permits(new int[] { 1, 5, 0 }));
+		assertFalse(subject.permits(new int[] { 1, Constraint.UNASSIGNED, 0 }));
+		assertTrue(subject.permits(new int[] { 1, 5, 1 }));
+		assertTrue(subject.permits(new int[] { 0, 5, 0 }));
+		assertTrue(subject.permits(new int[] { 1, 5, Constraint.UNASSIGNED }));
+	}
+
+	@Test
+	public void testPermitsAll() {
+		int[] row = { 1, 1 };
+
+		assertTrue(Constraint.permitsAll(Collections.emptyList(), row));
+		assertTrue(Constraint.permitsAll(Arrays.asList(Constraint.forbid(0, 0, 1, 0), Constraint.forbid(0, 1, 1, 0)), row));
+		assertFalse(Constraint.permitsAll(Arrays.asList(Constraint.forbid(0, 0, 1, 0), Constraint.forbid(0, 1, 1, 1)), row));
+	}
+
+}
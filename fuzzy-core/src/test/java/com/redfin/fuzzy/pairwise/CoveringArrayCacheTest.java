@@ -0,0 +1,67 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CoveringArrayCacheTest {
+
+	@Test
+	public void testGetComputesOnce() {
+		CoveringArrayCache cache = new CoveringArrayCache(4);
+		AtomicInteger computations = new AtomicInteger();
+
+		CoveringArray first = cache.get(key(3, 5, 2), () -> { computations.incrementAndGet(); return array(0); });
+		CoveringArray second = cache.get(key(3, 5, 2), () -> { computations.incrementAndGet(); return array(1); });
+
+		assertSame(first, second);
+		assertEquals(1, computations.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		CoveringArrayCache cache = new CoveringArrayCache(2);
+		CoveringArray a = cache.get(key(2), () -> array());
+		cache.get(key(3), () -> array());
+
+		// Touch "a" so that "b" becomes the eldest entry.
+		cache.get(key(2), () -> array());
+		cache.get(key(4), () -> array());
+
+		assertEquals(2, cache.size());
+		assertSame(a, cache.get(key(2), () -> array()));
+
+		AtomicInteger computations = new AtomicInteger();
+		cache.get(key(3), () -> { computations.incrementAndGet(); return array(); });
+		assertEquals(1, computations.get());
+	}
+
+	@Test
+	public void testKeys() {
+		assertEquals(key(3, 5, 2), key(3, 5, 2));
+		assertEquals(key(3, 5, 2).hashCode(), key(3, 5, 2).hashCode());
+		assertNotEquals(key(3, 5, 2), key(3, 2, 5));
+		assertNotEquals(key(3, 5, 2), new CoveringArrayCache.Key(new int[] { 3, 5, 2 }, Pairwise.Strategy.GREEDY, 2));
+		assertNotEquals(
+			new CoveringArrayCache.Key(new int[] { 3, 5, 2 }, Pairwise.Strategy.IN_PARAMETER_ORDER, 2),
+			new CoveringArrayCache.Key(new int[] { 3, 5, 2 }, Pairwise.Strategy.IN_PARAMETER_ORDER, 3)
+		);
+		assertNotEquals(
+			new CoveringArrayCache.Key(new int[] { 3, 5, 2 }, Pairwise.Strategy.MINIMIZE, 2, 1, 0),
+			new CoveringArrayCache.Key(new int[] { 3, 5, 2 }, Pairwise.Strategy.MINIMIZE, 2, 1, 1024)
+		);
+	}
+
+	private static CoveringArray array(int... cells) {
+		return new CoveringArray(cells.length, 1, cells);
+	}
+
+	private static CoveringArrayCache.Key key(int... sizes) {
+		return new CoveringArrayCache.Key(sizes, Pairwise.Strategy.IN_PARAMETER_ORDER, 3);
+	}
+
+}
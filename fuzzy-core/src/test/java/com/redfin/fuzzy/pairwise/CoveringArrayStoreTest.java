@@ -0,0 +1,129 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CoveringArrayStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final CoveringArrayCache.Key KEY =
+		new CoveringArrayCache.Key(new int[] { 3, 2 }, Pairwise.Strategy.IN_PARAMETER_ORDER, 2);
+
+	private static final CoveringArray ROWS = new CoveringArray(6, 2, new int[] { 0, 0, 0, 1, 1, 0, 1, 1, 2, 0, 2, 1 });
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		CoveringArrayStore store = new CoveringArrayStore(folder.getRoot().toPath());
+		AtomicInteger computations = new AtomicInteger();
+
+		CoveringArray first = store.get(KEY, () -> { computations.incrementAndGet(); return ROWS; });
+		CoveringArray second = store.get(KEY, () -> { computations.incrementAndGet(); return new CoveringArray(0, 2, new int[0]); });
+
+		assertEquals(1, computations.get());
+		assertEquals(ROWS, first);
+		assertEquals(ROWS, second);
+		assertTrue(Files.exists(folder.getRoot().toPath().resolve("in_parameter_order-t2-3x2.bin")));
+	}
+
+	@Test
+	public void testCreatesDirectory() {
+		Path directory = folder.getRoot().toPath().resolve("nested").resolve("store");
+		new CoveringArrayStore(directory).get(KEY, () -> ROWS);
+
+		assertEquals(ROWS, CoveringArrayStore.read(directory.resolve(CoveringArrayStore.fileName(KEY)), KEY));
+	}
+
+	@Test
+	public void testReadMissingFile() {
+		assertNull(CoveringArrayStore.read(folder.getRoot().toPath().resolve("missing.bin"), KEY));
+	}
+
+	@Test
+	public void testReadRejectsMismatchedShape() {
+		Path file = folder.getRoot().toPath().resolve("array.bin");
+		CoveringArrayStore.write(file, KEY, ROWS);
+
+		CoveringArrayCache.Key other = new CoveringArrayCache.Key(new int[] { 3, 3 }, Pairwise.Strategy.GREEDY, 2);
+		assertNull(CoveringArrayStore.read(file, other));
+		assertEquals(ROWS, CoveringArrayStore.read(file, KEY));
+	}
+
+	@Test
+	public void testPlanningBudgetIsPartOfTheKey() {
+		CoveringArrayCache.Key small = new CoveringArrayCache.Key(new int[] { 3, 2 }, Pairwise.Strategy.MINIMIZE, 2, 7, 0);
+		CoveringArrayCache.Key large = new CoveringArrayCache.Key(new int[] { 3, 2 }, Pairwise.Strategy.MINIMIZE, 2, 7, 64);
+		assertEquals("minimize-t2-s7-3x2.bin", CoveringArrayStore.fileName(small));
+		assertEquals("minimize-t2-s7-b64-3x2.bin", CoveringArrayStore.fileName(large));
+
+		Path file = folder.getRoot().toPath().resolve("array.bin");
+		CoveringArrayStore.write(file, small, ROWS);
+		assertNull(CoveringArrayStore.read(file, large));
+		assertEquals(ROWS, CoveringArrayStore.read(file, small));
+	}
+
+	@Test
+	public void testReadRejectsCorruptFile() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("array.bin");
+		CoveringArrayStore.write(file, KEY, ROWS);
+
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+		assertNull(CoveringArrayStore.read(file, KEY));
+
+		Files.write(file, new byte[0]);
+		assertNull(CoveringArrayStore.read(file, KEY));
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("array.bin");
+		AtomicInteger mismatches = new AtomicInteger();
+
+		List<Thread> threads = new ArrayList<>();
+		for(int i = 0; i < 8; i++) {
+			threads.add(new Thread(() -> {
+				for(int j = 0; j < 20; j++) {
+					CoveringArrayStore.write(file, KEY, ROWS);
+					CoveringArray rows = CoveringArrayStore.read(file, KEY);
+					if(rows != null && !ROWS.equals(rows)) mismatches.incrementAndGet();
+				}
+			}));
+		}
+
+		for(Thread thread : threads) thread.start();
+		for(Thread thread : threads) thread.join();
+
+		assertEquals(0, mismatches.get());
+		assertEquals(ROWS, CoveringArrayStore.read(file, KEY));
+		try(Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+			assertFalse(files.anyMatch(p -> p.toString().endsWith(".tmp")));
+		}
+	}
+
+	@Test
+	public void testLongShapesUseHashedNames() {
+		int[] sizes = new int[100];
+		Arrays.fill(sizes, 10);
+		String name = CoveringArrayStore.fileName(new CoveringArrayCache.Key(sizes, Pairwise.Strategy.GREEDY, 2));
+
+		assertTrue(name.startsWith("greedy-t2-n100-h"));
+		assertTrue(name.endsWith(".bin"));
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class CoveringArrayTest {
+
+	private final CoveringArray subject = CoveringArray.of(
+		Arrays.asList(new int[] { 0, 1, 2 }, new int[] { 1, 0, 2 }),
+		3
+	);
+
+	@Test
+	public void testDimensions() {
+		assertEquals(2, subject.rowCount());
+		assertEquals(3, subject.parameterCount());
+	}
+
+	@Test
+	public void testGet() {
+		assertEquals(0, subject.get(0, 0));
+		assertEquals(2, subject.get(0, 2));
+		assertEquals(1, subject.get(1, 0));
+		assertEquals(0, subject.get(1, 1));
+	}
+
+	@Test
+	public void testCopyRow() {
+		int[] destination = new int[5];
+		subject.copyRow(1, destination, 1);
+		assertArrayEquals(new int[] { 0, 1, 0, 2, 0 }, destination);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetRowOutOfBounds() {
+		subject.get(2, 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetParameterOutOfBounds() {
+		subject.get(0, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedDimensions() {
+		new CoveringArray(2, 2, new int[3]);
+	}
+
+	@Test
+	public void testEquals() {
+		assertEquals(new CoveringArray(2, 3, new int[] { 0, 1, 2, 1, 0, 2 }), subject);
+		assertEquals(new CoveringArray(2, 3, new int[] { 0, 1, 2, 1, 0, 2 }).hashCode(), subject.hashCode());
+		assertNotEquals(new CoveringArray(3, 2, new int[] { 0, 1, 2, 1, 0, 2 }), subject);
+	}
+
+}
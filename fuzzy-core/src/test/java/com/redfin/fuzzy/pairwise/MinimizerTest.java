@@ -0,0 +1,110 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class MinimizerTest {
+
+	@Test
+	public void testNeverLargerThanIpog() {
+		List<Param> params = params(4, 3, 5, 2, 3, 4, 2, 3);
+		int ipog = new Ipog(params, 2).generate().size();
+
+		List<int[]> rows = minimizer(params, 2, 1).generate();
+
+		assertTrue(rows.size() <= ipog);
+		assertCovered(params, 2, rows);
+	}
+
+	@Test
+	public void testThreeWise() {
+		List<Param> params = params(2, 3, 2, 2, 3, 2);
+
+		List<int[]> rows = minimizer(params, 3, 1).generate();
+
+		assertTrue(rows.size() <= new Ipog(params, 3).generate().size());
+		assertCovered(params, 3, rows);
+	}
+
+	@Test
+	public void testDeterministicForSeed() {
+		List<Param> params = params(5, 5, 5, 5, 5, 5, 5);
+
+		List<int[]> first = minimizer(params, 2, 3).generate();
+		List<int[]> second = minimizer(params, 2, 3).generate();
+
+		assertEquals(first.size(), second.size());
+		for(int i = 0; i < first.size(); i++)
+			assertEquals(Arrays.toString(first.get(i)), Arrays.toString(second.get(i)));
+	}
+
+	@Test
+	public void testSpentBudgetReturnsIpog() {
+		List<Param> params = params(4, 3, 5, 2, 3);
+		List<int[]> ipog = new Ipog(params, 2).generate();
+
+		List<int[]> rows = new Minimizer(params, 2, 0, Collections.emptyList(), Minimizer.DEFAULT_ATTEMPTS, 0).generate();
+
+		assertEquals(ipog.size(), rows.size());
+		for(int i = 0; i < ipog.size(); i++)
+			assertEquals(Arrays.toString(ipog.get(i)), Arrays.toString(rows.get(i)));
+	}
+
+	@Test
+	public void testBudgetLimitsRowsBuilt() {
+		List<Param> params = params(5, 5, 5, 5, 5, 5, 5);
+		int ipog = new Ipog(params, 2).generate().size();
+
+		// Every complete array needs at least 25 rows, so a budget of 20 leaves the first attempt unfinished.
+		assertEquals(ipog, minimizer(params, 2, 3, 20).generate().size());
+
+		// A budget that only fits the first attempt gives the same array as that attempt on its own.
+		List<int[]> first = new CandidateSearch(
+			new int[] { 5, 5, 5, 5, 5, 5, 5 },
+			2,
+			CandidateSearch.DEFAULT_CANDIDATES,
+			CandidateSearch.mix(3 + 1)
+		).generate();
+		assertEquals(Math.min(ipog, first.size()), minimizer(params, 2, 3, first.size()).generate().size());
+	}
+
+	private static Minimizer minimizer(List<Param> params, int strength, long seed) {
+		return minimizer(params, strength, seed, Minimizer.DEFAULT_ROW_BUDGET);
+	}
+
+	private static Minimizer minimizer(List<Param> params, int strength, long seed, int rowBudget) {
+		return new Minimizer(params, strength, seed, Collections.emptyList(), Minimizer.DEFAULT_ATTEMPTS, rowBudget);
+	}
+
+	private static List<Param> params(int... sizes) {
+		List<Param> params = new ArrayList<>();
+		for(int i = 0; i < sizes.length; i++) {
+			List<Object> values = new ArrayList<>();
+			for(int v = 0; v < sizes[i]; v++) values.add(v);
+			params.add(new Param(i, values));
+		}
+		return params;
+	}
+
+	private static void assertCovered(List<Param> params, int t, List<int[]> rows) {
+		int[] sizes = new int[params.size()];
+		for(int i = 0; i < sizes.length; i++) sizes[i] = params.get(i).values.size();
+
+		TupleSet tuples = new TupleSet(sizes, t);
+		int[] columns = TupleSet.firstCombination(t);
+		do {
+			for(int[] row : rows)
+				tuples.cover(tuples.offset(tuples.block(columns)) + tuples.localIndex(columns, row));
+		}
+		while(TupleSet.nextColexCombination(columns, t) < sizes.length);
+
+		assertTrue(tuples.isEmpty());
+	}
+
+}
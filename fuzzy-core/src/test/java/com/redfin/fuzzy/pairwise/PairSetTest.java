@@ -0,0 +1,81 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PairSetTest {
+
+	private PairSet subject;
+
+	@Before
+	public void before() {
+		subject = new PairSet(Arrays.asList(
+			new Param(0, Arrays.asList("A", "B")),
+			new Param(1, Arrays.asList("c", "d", "e")),
+			new Param(2, Arrays.asList(1, 2))
+		));
+		subject.registerAll();
+	}
+
+	@Test
+	public void testRegisterAll() {
+		assertEquals(2 * 3 + 2 * 2 + 3 * 2, subject.size());
+		assertEquals(6, subject.size(0, 1));
+		assertEquals(4, subject.size(2, 0));
+		assertEquals(6, subject.size(1, 2));
+		assertEquals(16, subject.toSet().size());
+	}
+
+	@Test
+	public void testCover() {
+		assertTrue(subject.contains(2, 1, 0, 0));
+		assertTrue(subject.cover(0, 0, 2, 1));
+		assertFalse(subject.contains(2, 1, 0, 0));
+		assertFalse(subject.cover(2, 1, 0, 0));
+
+		assertEquals(15, subject.size());
+		assertEquals(3, subject.size(0, 2));
+	}
+
+	@Test
+	public void testCoverRow() {
+		assertEquals(3, subject.cover(new int[] { 1, 2, 0 }));
+		assertEquals(0, subject.cover(new int[] { 1, 2, 0 }));
+		assertEquals(2, subject.cover(new int[] { 1, 2, 1 }));
+
+		assertEquals(11, subject.size());
+		assertFalse(subject.contains(1, 2, 2, 1));
+	}
+
+	@Test
+	public void testConsume() {
+		int[] row = new int[] { -1, -1, -1 };
+		for(int i = 0; i < 6; i++) {
+			assertTrue(subject.consume(0, 1, row));
+			assertEquals(i / 3, row[0]);
+			assertEquals(i % 3, row[1]);
+		}
+
+		assertFalse(subject.consume(0, 1, row));
+		assertEquals(10, subject.size());
+	}
+
+	@Test
+	public void testEmpty() {
+		assertFalse(subject.isEmpty());
+
+		for(int a = 0; a < 2; a++)
+			for(int b = 0; b < 3; b++)
+				for(int c = 0; c < 2; c++)
+					subject.cover(new int[] { a, b, c });
+
+		assertTrue(subject.isEmpty());
+		assertEquals(0, subject.size());
+	}
+
+}
@@ -1,14 +1,18 @@
 package com.redfin.fuzzy.pairwise;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.redfin.fuzzy.FuzzyUtil;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
@@ -139,6 +143,430 @@ public class PairwiseTest {
 		assertEquals(expectedPairs, actualPairs);
 	}
 
+	@Test
+	public void testGenerateInParameterOrderBasicCase() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e", "f", "g"),
+			FuzzyUtil.setOf("1", "2", "3"),
+			FuzzyUtil.setOf("X", "O")
+		);
+
+		Pairwise<?> pw = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER);
+		Stack<List<Object>> testCases = pw.generate();
+
+		// The two largest parameters alone require 4 * 3 test cases.
+		assertTrue(testCases.size() >= 12);
+		assertTrue(testCases.size() < new Pairwise<>(params).generate().size());
+		assertCoversAllPairs(params, testCases);
+	}
+
+	@Test
+	public void testGenerateInParameterOrderSingleVariable() {
+		Pairwise<?> pw = new Pairwise<>(
+			Collections.singletonList(FuzzyUtil.setOf("A", "B", "C")),
+			Pairwise.Strategy.IN_PARAMETER_ORDER
+		);
+
+		Set<Object> actuals = pw.generate().stream().map(tc -> tc.get(0)).collect(Collectors.toSet());
+		assertEquals(FuzzyUtil.setOf("A", "B", "C"), actuals);
+	}
+
+	@Test
+	public void testGenerateInParameterOrderWideCase() {
+		List<Set<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 20; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 2 + (i % 9); j++) values.add(j);
+			params.add(values);
+		}
+
+		Stack<List<Object>> greedy = new Pairwise<>(params).generate();
+		Stack<List<Object>> ipog = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).generate();
+
+		assertCoversAllPairs(params, greedy);
+		assertCoversAllPairs(params, ipog);
+		assertTrue(ipog.size() < greedy.size());
+	}
+
+	@Test
+	public void testGenerateThreeWise() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e"),
+			FuzzyUtil.setOf("1", "2", "3"),
+			FuzzyUtil.setOf("X", "O"),
+			FuzzyUtil.setOf("p", "q", "r", "s")
+		);
+
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER, 3).generate();
+
+		// The three largest parameters alone require 4 * 3 * 3 test cases.
+		assertTrue(testCases.size() >= 36);
+		assertCoversAllTuples(params, testCases, 3);
+	}
+
+	@Test
+	public void testGenerateThreeWiseFifteenParameters() {
+		List<Set<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 15; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 2 + (i % 4); j++) values.add(j);
+			params.add(values);
+		}
+
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER, 3).generate();
+
+		assertCoversAllTuples(params, testCases, 3);
+	}
+
+	@Test
+	public void testGenerateStrengthLargerThanParameters() {
+		List<Set<String>> params = Arrays.asList(FuzzyUtil.setOf("A", "B", "C"), FuzzyUtil.setOf("d", "e"));
+
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER, 4).generate();
+
+		assertEquals(6, testCases.size());
+		assertCoversAllPairs(params, testCases);
+	}
+
+	@Test
+	public void testGenerateReusesArraysOfTheSameShape() {
+		CoveringArrayCache.SHARED.clear();
+
+		Stack<List<Object>> letters = new Pairwise<>(Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e")
+		)).generate();
+		Stack<List<Object>> numbers = new Pairwise<>(Arrays.asList(
+			FuzzyUtil.setOf(1, 2, 3),
+			FuzzyUtil.setOf(4, 5)
+		)).generate();
+
+		assertEquals(1, CoveringArrayCache.SHARED.size());
+		assertEquals(6, letters.size());
+		assertEquals(6, numbers.size());
+	}
+
+	@Test
+	public void testRowsMatchGenerate() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e", "f", "g"),
+			FuzzyUtil.setOf("1", "2", "3")
+		);
+		List<List<String>> values = params.stream().map(ArrayList::new).collect(Collectors.toList());
+
+		for(Pairwise.Strategy strategy : Pairwise.Strategy.values()) {
+			CoveringArrayCache.SHARED.clear();
+
+			List<List<Object>> fromRows = new ArrayList<>();
+			Iterator<int[]> rows = new Pairwise<>(params, strategy).rows();
+			while(rows.hasNext()) {
+				int[] row = rows.next();
+				List<Object> testCase = new ArrayList<>();
+				for(int i = 0; i < row.length; i++) testCase.add(values.get(i).get(row[i]));
+				fromRows.add(testCase);
+			}
+
+			assertEquals(new ArrayList<>(new Pairwise<>(params, strategy).generate()), fromRows);
+		}
+	}
+
+	@Test
+	public void testCoveringArrayMatchesGenerate() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e"),
+			FuzzyUtil.setOf("1", "2", "3")
+		);
+		List<List<String>> values = params.stream().map(ArrayList::new).collect(Collectors.toList());
+
+		CoveringArray array = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).coveringArray();
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).generate();
+
+		assertEquals(3, array.parameterCount());
+		assertEquals(testCases.size(), array.rowCount());
+		for(int row = 0; row < array.rowCount(); row++)
+			for(int i = 0; i < 3; i++)
+				assertEquals(testCases.get(row).get(i), values.get(i).get(array.get(row, i)));
+	}
+
+	@Test
+	public void testGreedyRowsAreLazy() {
+		CoveringArrayCache.SHARED.clear();
+
+		List<Set> params = new ArrayList<>();
+		for(int i = 0; i < 10; i++) params.add(FuzzyUtil.setOf(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+
+		Iterator<int[]> rows = new Pairwise<>(params).rows();
+		assertTrue(rows.hasNext());
+		assertEquals(10, rows.next().length);
+
+		// Nothing is cached until the last row has been built...
+		assertEquals(0, CoveringArrayCache.SHARED.size());
+
+		int count = 1;
+		while(rows.hasNext()) {
+			rows.next();
+			count++;
+		}
+
+		// ...after which the whole array is available to later callers.
+		assertEquals(1, CoveringArrayCache.SHARED.size());
+		assertEquals(count, new Pairwise<>(params).generate().size());
+	}
+
+	@Test
+	public void testGenerateCandidateSearch() {
+		List<Set<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 12; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 2 + (i % 5); j++) values.add(j);
+			params.add(values);
+		}
+
+		Stack<List<Object>> first = new Pairwise<>(params, Pairwise.Strategy.CANDIDATE_SEARCH, 2, 99).generate();
+		CoveringArrayCache.SHARED.clear();
+		Stack<List<Object>> second = new Pairwise<>(params, Pairwise.Strategy.CANDIDATE_SEARCH, 2, 99).generate();
+
+		assertCoversAllPairs(params, first);
+		assertEquals(first, second);
+		assertTrue(first.size() < new Pairwise<>(params).generate().size());
+	}
+
+	@Test
+	public void testGenerateCandidateSearchThreeWise() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e"),
+			FuzzyUtil.setOf("1", "2", "3"),
+			FuzzyUtil.setOf("X", "O"),
+			FuzzyUtil.setOf("p", "q")
+		);
+
+		assertCoversAllTuples(params, new Pairwise<>(params, Pairwise.Strategy.CANDIDATE_SEARCH, 3).generate(), 3);
+	}
+
+	@Test
+	public void testGenerateMinimize() {
+		List<Set<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 12; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 2 + (i % 5); j++) values.add(j);
+			params.add(values);
+		}
+
+		Stack<List<Object>> minimized = new Pairwise<>(params, Pairwise.Strategy.MINIMIZE, 2, 5).generate();
+		Stack<List<Object>> ipog = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).generate();
+
+		assertCoversAllPairs(params, minimized);
+		assertTrue(minimized.size() <= ipog.size());
+
+		// The budget counts test cases rather than time, so the result only depends on the seed.
+		CoveringArrayCache.SHARED.clear();
+		assertEquals(minimized, new Pairwise<>(params, Pairwise.Strategy.MINIMIZE, 2, 5).generate());
+	}
+
+	@Test
+	public void testGenerateMinimizeWithoutBudget() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e"),
+			FuzzyUtil.setOf("1", "2", "3"),
+			FuzzyUtil.setOf("X", "O")
+		);
+
+		// The in-parameter-order array is always built, even when the budget leaves room for nothing else.
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.MINIMIZE).withPlanningBudget(0).generate();
+
+		assertCoversAllPairs(params, testCases);
+		assertEquals(new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).generate(), testCases);
+	}
+
+	@Test
+	public void testPlanningBudgetIsPartOfTheCacheKey() {
+		List<Set<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 15; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 8; j++) values.add(j);
+			params.add(values);
+		}
+
+		CoveringArrayCache.SHARED.clear();
+		Stack<List<Object>> ipog = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER).generate();
+		Stack<List<Object>> withoutBudget =
+			new Pairwise<>(params, Pairwise.Strategy.MINIMIZE, 2, 5).withPlanningBudget(0).generate();
+		Stack<List<Object>> withBudget = new Pairwise<>(params, Pairwise.Strategy.MINIMIZE, 2, 5).generate();
+
+		// A larger budget isn't handed the array cached for a smaller one.
+		assertEquals(ipog, withoutBudget);
+		assertTrue(withBudget.size() < withoutBudget.size());
+
+		CoveringArrayCache.SHARED.clear();
+		assertEquals(withBudget, new Pairwise<>(params, Pairwise.Strategy.MINIMIZE, 2, 5).generate());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePlanningBudget() {
+		new Pairwise<>(Collections.singletonList(FuzzyUtil.setOf("A")), Pairwise.Strategy.MINIMIZE)
+			.withPlanningBudget(-1);
+	}
+
+	@Test
+	public void testGenerateWithConstraints() {
+		List<List<String>> params = Arrays.asList(
+			Arrays.asList("A", "B", "C"),
+			Arrays.asList("d", "e"),
+			Arrays.asList("1", "2", "3"),
+			Arrays.asList("X", "O")
+		);
+
+		// Forbid A with d, and e with 3.
+		List<Constraint> constraints = Arrays.asList(Constraint.forbid(0, 0, 1, 0), Constraint.forbid(1, 1, 2, 2));
+
+		for(Pairwise.Strategy strategy : Pairwise.Strategy.values()) {
+			Stack<List<Object>> testCases = new Pairwise<>(params, strategy).withConstraints(constraints).generate();
+
+			Set<String> pairs = new HashSet<>();
+			for(List<Object> testCase : testCases) {
+				assertTrue(strategy + ": " + testCase, !testCase.get(0).equals("A") || !testCase.get(1).equals("d"));
+				assertTrue(strategy + ": " + testCase, !testCase.get(1).equals("e") || !testCase.get(2).equals("3"));
+
+				for(int i = 0; i < 3; i++)
+					for(int j = i + 1; j < 4; j++)
+						pairs.add(i + ":" + testCase.get(i) + "|" + j + ":" + testCase.get(j));
+			}
+
+			// Every pair that can appear in a valid test case is still covered: 6 + 9 + 6 + 6 + 4 + 6 pairs, less the two
+			// forbidden ones and (A, 3), which would need d or e, both of which are forbidden with it.
+			assertEquals(strategy.toString(), 37 - 3, pairs.size());
+		}
+	}
+
+	@Test
+	public void testGenerateThreeWiseWithConstraints() {
+		List<List<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 6; i++) params.add(Arrays.asList(0, 1, 2));
+
+		// Parameters 0 and 1 may never have the same value.
+		Constraint constraint = row -> row[0] == Constraint.UNASSIGNED || row[0] != row[1];
+		Stack<List<Object>> testCases = new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER, 3)
+			.withConstraints(Collections.singletonList(constraint))
+			.generate();
+
+		Set<List<Object>> triples = new HashSet<>();
+		for(List<Object> testCase : testCases) {
+			assertNotEquals(testCase.get(0), testCase.get(1));
+			triples.add(Arrays.asList(testCase.get(0), testCase.get(1), testCase.get(5)));
+		}
+
+		assertEquals(6 * 3, triples.size());
+	}
+
+	@Test
+	public void testGenerateWithRestrictiveConstraints() {
+		List<List<Integer>> params = new ArrayList<>();
+		for(int i = 0; i < 6; i++) params.add(Arrays.asList(0, 1, 2));
+
+		for(long seed = 0; seed < 20; seed++) {
+			// Forbid enough random pairs that some rows can't be completed, and some pairs can't appear at all.
+			Random random = new Random(seed);
+			List<Constraint> constraints = new ArrayList<>();
+			for(int i = 0; i < 20; i++) {
+				int p1 = random.nextInt(5);
+				int p2 = p1 + 1 + random.nextInt(5 - p1);
+				constraints.add(Constraint.forbid(p1, random.nextInt(3), p2, random.nextInt(3)));
+			}
+
+			// Every pair that appears in at least one permitted test case.
+			Set<List<Integer>> expected = new HashSet<>();
+			int[] row = new int[6];
+			for(int index = 0; index < 729; index++) {
+				for(int i = 0, rest = index; i < 6; i++, rest /= 3) row[i] = rest % 3;
+				if(Constraint.permitsAll(constraints, row))
+					expected.addAll(pairsOf(row));
+			}
+
+			for(Pairwise.Strategy strategy : Pairwise.Strategy.values()) {
+				Stack<List<Object>> testCases = new Pairwise<>(params, strategy, 2, seed)
+					.withConstraints(constraints)
+					.generate();
+
+				Set<List<Integer>> actual = new HashSet<>();
+				for(List<Object> testCase : testCases) {
+					for(int i = 0; i < 6; i++) row[i] = (Integer) testCase.get(i);
+					assertTrue(strategy + ": " + testCase, Constraint.permitsAll(constraints, row));
+					actual.addAll(pairsOf(row));
+				}
+
+				assertEquals(strategy + " with seed " + seed, expected, actual);
+			}
+		}
+	}
+
+	private static List<List<Integer>> pairsOf(int[] row) {
+		List<List<Integer>> pairs = new ArrayList<>();
+		for(int i = 0; i < row.length; i++)
+			for(int j = i + 1; j < row.length; j++)
+				pairs.add(Arrays.asList(i, row[i], j, row[j]));
+		return pairs;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGreedyRequiresStrengthTwo() {
+		new Pairwise<>(Collections.singletonList(FuzzyUtil.setOf("A")), Pairwise.Strategy.GREEDY, 3);
+	}
+
+	private static void assertCoversAllTuples(List<? extends Set<?>> params, List<List<Object>> testCases, int t) {
+		int[] columns = TupleSet.firstCombination(t);
+		do {
+			Set<List<Object>> expected = new HashSet<>();
+			expected.add(new ArrayList<>());
+			for(int c : columns) {
+				Set<List<Object>> next = new HashSet<>();
+				for(List<Object> prefix : expected) {
+					for(Object value : params.get(c)) {
+						List<Object> tuple = new ArrayList<>(prefix);
+						tuple.add(value);
+						next.add(tuple);
+					}
+				}
+				expected = next;
+			}
+
+			Set<List<Object>> actual = new HashSet<>();
+			for(List<Object> tc : testCases) {
+				assertEquals(params.size(), tc.size());
+				List<Object> tuple = new ArrayList<>();
+				for(int c : columns) tuple.add(tc.get(c));
+				actual.add(tuple);
+			}
+
+			assertEquals(expected, actual);
+		}
+		while(TupleSet.nextColexCombination(columns, t) < params.size());
+	}
+
+	private static void assertCoversAllPairs(List<? extends Set<?>> params, List<List<Object>> testCases) {
+		for(int i = 0; i < params.size() - 1; i++) {
+			for(int j = i + 1; j < params.size(); j++) {
+				Set<String> expected = new HashSet<>();
+				for(Object a : params.get(i))
+					for(Object b : params.get(j))
+						expected.add(a + "|" + b);
+
+				Set<String> actual = new HashSet<>();
+				for(List<Object> tc : testCases) {
+					assertEquals(params.size(), tc.size());
+					actual.add(tc.get(i) + "|" + tc.get(j));
+				}
+
+				assertEquals(expected, actual);
+			}
+		}
+	}
+
 	@Test
 	public void benchmark() {
 		List<Set> params = Arrays.asList( // 4400 combinations
@@ -158,6 +586,7 @@ public class PairwiseTest {
 		long start = System.nanoTime();
 
 		for(int i = 0; i < sizes.length; i++) {
+			CoveringArrayCache.SHARED.clear();
 			sizes[i] = (new Pairwise<>(params)).generate().size();
 		}
 
@@ -168,6 +597,68 @@ public class PairwiseTest {
 		System.out.println();
 
 		assertTrue(sizes[0] <= 4400);
+
+		start = System.nanoTime();
+		for(int i = 0; i < sizes.length; i++) {
+			CoveringArrayCache.SHARED.clear();
+			sizes[i] = (new Pairwise<>(params, Pairwise.Strategy.IN_PARAMETER_ORDER)).generate().size();
+		}
+
+		avgTime = (System.nanoTime() - start) / (double)sizes.length;
+
+		System.out.println(String.format("Average time (in parameter order): %.2fms", avgTime * 1e-6));
+		System.out.println(String.format("%,d test cases", sizes[0]));
+		System.out.println();
+
+		assertTrue(sizes[0] <= 4400);
+
+		List<Set> wideParams = new ArrayList<>();
+		for(int i = 0; i < 15; i++) {
+			wideParams.add(FuzzyUtil.setOf(1, 2, 3, 4, 5));
+		}
+
+		start = System.nanoTime();
+		for(int i = 0; i < sizes.length; i++) {
+			CoveringArrayCache.SHARED.clear();
+			sizes[i] = (new Pairwise<>(wideParams, Pairwise.Strategy.IN_PARAMETER_ORDER, 3)).generate().size();
+		}
+
+		avgTime = (System.nanoTime() - start) / (double)sizes.length;
+
+		System.out.println(String.format("Average time (3-wise, 15 parameters): %.2fms", avgTime * 1e-6));
+		System.out.println(String.format("%,d test cases", sizes[0]));
+		System.out.println();
+
+		start = System.nanoTime();
+		for(int i = 0; i < sizes.length; i++) {
+			sizes[i] = (new Pairwise<>(wideParams, Pairwise.Strategy.IN_PARAMETER_ORDER, 3)).generate().size();
+		}
+
+		avgTime = (System.nanoTime() - start) / (double)sizes.length;
+
+		System.out.println(String.format("Average time (3-wise, 15 parameters, cached): %.2fms", avgTime * 1e-6));
+		System.out.println();
+
+		List<Set> veryWideParams = new ArrayList<>();
+		for(int i = 0; i < 30; i++) {
+			Set<Integer> values = new HashSet<>();
+			for(int j = 0; j < 20; j++) values.add(j);
+			veryWideParams.add(values);
+		}
+
+		for(Pairwise.Strategy strategy : Pairwise.Strategy.values()) {
+			CoveringArrayCache.SHARED.clear();
+			start = System.nanoTime();
+			int size = new Pairwise<>(veryWideParams, strategy).generate().size();
+
+			System.out.println(String.format(
+				"Time (%s, 30 parameters x 20 values): %.2fms",
+				strategy,
+				(System.nanoTime() - start) * 1e-6
+			));
+			System.out.println(String.format("%,d test cases", size));
+			System.out.println();
+		}
 	}
 
 }
@@ -0,0 +1,122 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TupleSetTest {
+
+	private TupleSet subject;
+
+	@Before
+	public void before() {
+		subject = new TupleSet(new int[] { 2, 3, 2, 4 }, 3);
+	}
+
+	@Test
+	public void testSize() {
+		assertEquals(3, subject.strength());
+		assertEquals(2 * 3 * 2 + 2 * 3 * 4 + 2 * 2 * 4 + 3 * 2 * 4, subject.size());
+		assertFalse(subject.isEmpty());
+	}
+
+	@Test
+	public void testBlocksAreContiguousAndInColexOrder() {
+		int[][] combinations = { { 0, 1, 2 }, { 0, 1, 3 }, { 0, 2, 3 }, { 1, 2, 3 } };
+		int[] expectedSizes = { 12, 24, 16, 24 };
+
+		int offset = 0;
+		for(int i = 0; i < combinations.length; i++) {
+			assertEquals(i, subject.block(combinations[i]));
+			assertEquals(offset, subject.offset(i));
+			assertEquals(expectedSizes[i], subject.blockSize(i));
+			offset += expectedSizes[i];
+		}
+	}
+
+	@Test
+	public void testBlockOfAndColumns() {
+		int[][] combinations = { { 0, 1, 2 }, { 0, 1, 3 }, { 0, 2, 3 }, { 1, 2, 3 } };
+
+		for(int block = 0; block < combinations.length; block++) {
+			int[] columns = new int[3];
+			subject.columns(block, columns);
+			assertArrayEquals(combinations[block], columns);
+
+			assertEquals(block, subject.blockOf(subject.offset(block)));
+			assertEquals(block, subject.blockOf(subject.offset(block) + subject.blockSize(block) - 1));
+		}
+
+		assertEquals(76, subject.bitCount());
+	}
+
+	@Test
+	public void testLocalIndexRoundTrip() {
+		int[] columns = { 0, 2, 3 };
+		Set<Integer> seen = new HashSet<>();
+
+		int[] row = new int[4];
+		for(int a = 0; a < 2; a++) {
+			for(int c = 0; c < 2; c++) {
+				for(int d = 0; d < 4; d++) {
+					row[0] = a; row[2] = c; row[3] = d;
+					int index = subject.localIndex(columns, row);
+					assertTrue(seen.add(index));
+
+					int[] decoded = new int[4];
+					subject.decode(columns, index, decoded);
+					assertArrayEquals(new int[] { a, 0, c, d }, decoded);
+				}
+			}
+		}
+
+		assertEquals(16, seen.size());
+	}
+
+	@Test
+	public void testCover() {
+		int bit = subject.offset(1) + 5;
+		assertTrue(subject.contains(bit));
+		assertTrue(subject.cover(bit));
+		assertFalse(subject.contains(bit));
+		assertFalse(subject.cover(bit));
+
+		assertEquals(75, subject.size());
+		assertEquals(subject.offset(1) + 6, subject.nextUncovered(bit, subject.offset(2)));
+	}
+
+	@Test
+	public void testNextUncovered() {
+		int start = subject.offset(2);
+		int end = start + subject.blockSize(2);
+		for(int bit = start; bit < end - 1; bit++)
+			subject.cover(bit);
+
+		assertEquals(end - 1, subject.nextUncovered(start, end));
+		subject.cover(end - 1);
+		assertEquals(-1, subject.nextUncovered(start, end));
+		assertEquals(end, subject.nextUncovered(start, end + 1));
+	}
+
+	@Test
+	public void testEmpty() {
+		for(int bit = 0; bit < 76; bit++)
+			subject.cover(bit);
+
+		assertTrue(subject.isEmpty());
+		assertEquals(0, subject.size());
+		assertEquals(-1, subject.nextUncovered(0, 76));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStrengthTooLarge() {
+		new TupleSet(new int[] { 2, 2 }, 3);
+	}
+
+}
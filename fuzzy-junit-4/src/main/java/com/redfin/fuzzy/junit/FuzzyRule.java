@@ -1,8 +1,20 @@
 package com.redfin.fuzzy.junit;
 
+import com.redfin.fuzzy.CaseComposition;
 import com.redfin.fuzzy.CaseCompositionMode;
 import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.FuzzyPlan;
 import com.redfin.fuzzy.FuzzyPreconditions;
+import com.redfin.fuzzy.Shard;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.AssumptionViolatedException;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
@@ -126,7 +138,12 @@ public class FuzzyRule implements TestRule {
 	private final int maxIterations;
 	private final boolean failAfterMaxIterations;
 	private final boolean failImmediately;
-	private final CaseCompositionMode caseCompositionMode;
+	private final CaseComposition caseCompositionMode;
+	private final int startAtIteration;
+	private final int parallelism;
+	private final Shard shard;
+	// Plans captured by earlier runs of each test, by display name; null if plans are not reused.
+	private final ConcurrentMap<String, FuzzyPlan> plans;
 
 	private FuzzyRule(Config config) {
 		testReporter = config.testReporter;
@@ -134,6 +151,10 @@ public class FuzzyRule implements TestRule {
 		failAfterMaxIterations = config.failAfterMaxIterations;
 		failImmediately = config.failImmediately;
 		caseCompositionMode = config.caseCompositionMode;
+		startAtIteration = config.startAtIteration;
+		parallelism = config.parallelism;
+		shard = config.shard;
+		plans = config.reusePlans ? new ConcurrentHashMap<>() : null;
 	}
 
 	@Override
@@ -156,79 +177,227 @@ public class FuzzyRule implements TestRule {
 		public void evaluate() throws Throwable {
 			// Base the randomization seed on the test name so that it runs deterministically but with different
 			// values for each test.
-			Context.init(parent.caseCompositionMode, description.getDisplayName().hashCode());
+			Context.init(
+				parent.caseCompositionMode,
+				description.getDisplayName().hashCode(),
+				parent.startAtIteration,
+				parent.shard != null ? parent.shard : Shard.fromSystemProperties()
+			);
+
+			FuzzyPlan plan = parent.plans == null ? null : parent.plans.get(description.getDisplayName());
+			if(plan != null)
+				Context.reusePlan(plan);
+			if(parent.plans != null)
+				Context.recordPlan();
 
 			parent.testReporter.preTest(description);
 
 			boolean overallSuccess = false;
-			int iterations = 0;
+			int[] iterations = new int[1];
 
 			try {
 				Throwable[] lastFailure = new Throwable[1];
 
-				do {
-					iterations++;
-					if(iterations > parent.maxIterations) {
-						if(parent.failAfterMaxIterations)
-							throw new IllegalStateException(
-								"The test " + description.toString() + " was not able to complete within " +
-								parent.maxIterations + (parent.maxIterations == 1 ? " iteration" : " iterations") +
-								", because the number of subcase permutations is too large. You must take one of " +
-								"the following actions:\n" +
-								"\n" +
-								"* increase the allowed number of iterations;\n" +
-								"* switch to a different case composition mode, such as EACH_SUBCASE_AT_LEAST_ONCE; " +
-								"or\n" +
-								"* reduce the complexity of your subcases, for example by breaking your tests into " +
-								"smaller units."
-							);
-						else
-							break;
-					}
+				if(parent.parallelism > 1)
+					runInParallel(iterations, lastFailure);
+				else
+					runSequentially(iterations, lastFailure);
 
-					parent.testReporter.preIteration(description, iterations - 1);
+				if(lastFailure[0] != null)
+					throw lastFailure[0];
+				else
+					overallSuccess = true;
+			}
+			catch(Context.EmptyShardException e) {
+				// Other shards run all of this test's iterations.
+				iterations[0] = 0;
+				overallSuccess = true;
+				throw new AssumptionViolatedException(e.getMessage());
+			}
+			finally {
+				parent.testReporter.postTest(description, iterations[0], overallSuccess);
 
-					boolean[] success = new boolean[] { true };
-					try {
-						baseStatement.evaluate();
-					}
-					catch(AssertionError failure) {
-						handleTestFailure(iterations, lastFailure, success, failure);
-					}
-					catch(Error e) {
-						throw e;
+				if(parent.plans != null) {
+					FuzzyPlan captured = Context.capturePlan();
+					if(captured != null && captured != plan)
+						parent.plans.put(description.getDisplayName(), captured);
+				}
+
+				Context.cleanUp();
+			}
+		}
+
+		private void runSequentially(int[] iterations, Throwable[] lastFailure) throws Throwable {
+			Shard shard = Context.shard();
+			int index = -1;
+
+			do {
+				if(!withinMaxIterations(++iterations[0]))
+					break;
+
+				index = shard.nextIteration(index < 0 ? parent.startAtIteration : index + 1);
+				parent.testReporter.preIteration(description, index);
+				completeIteration(index, runIteration(), lastFailure);
+			}
+			while(Context.next());
+		}
+
+		private void runInParallel(int[] iterations, Throwable[] lastFailure) throws Throwable {
+			// The first iteration declares the test's generators and plans the others, so it runs on this thread.
+			iterations[0]++;
+			int index = Context.shard().nextIteration(parent.startAtIteration);
+			parent.testReporter.preIteration(description, index);
+			completeIteration(index, runIteration(), lastFailure);
+
+			// The rest are forked in batches, so that only a bounded number of iterations are held at once. Each batch
+			// runs concurrently, and is then reported on this thread in iteration order, exactly as it would have been
+			// had it run sequentially.
+			// Forked iterations all evaluate the same base statement, including @Before/@After and inner rules, on
+			// the one test instance; withParallelism documents that tests must not keep per-iteration state in fields.
+			int batchSize = parent.parallelism * 4;
+			ForkJoinPool pool = new ForkJoinPool(parent.parallelism);
+			try {
+				while(true) {
+					List<Context.Fork> batch = new ArrayList<>(batchSize);
+					int allowed = Math.min(batchSize, parent.maxIterations - iterations[0]);
+
+					Context.Fork fork;
+					while(batch.size() < allowed && (fork = Context.fork()) != null)
+						batch.add(fork);
+
+					// When the batch was cut short by maxIterations, find out whether there would have been more.
+					boolean exceeded = batch.size() == allowed && allowed < batchSize && Context.fork() != null;
+
+					List<Future<Throwable>> outcomes = new ArrayList<>(batch.size());
+					for(Context.Fork f : batch)
+						outcomes.add(pool.submit(() -> runIteration(f)));
+
+					for(int i = 0; i < batch.size(); i++) {
+						Context.Fork f = batch.get(i);
+						Throwable outcome = await(outcomes.get(i));
+
+						iterations[0]++;
+						f.enter();
+						try {
+							parent.testReporter.preIteration(description, f.getIteration());
+							completeIteration(f.getIteration(), outcome, lastFailure);
+						}
+						finally {
+							f.exit();
+						}
 					}
-					catch(InterruptedException e) {
-						Thread.currentThread().interrupt();
-						throw e;
+
+					if(exceeded) {
+						withinMaxIterations(++iterations[0]);
+						return;
 					}
-					catch(Throwable failure) {
-						handleTestFailure(iterations, lastFailure, success, failure);
+					else if(batch.size() < batchSize) {
+						return;
 					}
-
-					parent.testReporter.postIteration(description, iterations - 1, success[0]);
 				}
-				while(Context.next());
+			}
+			finally {
+				// Don't let iterations that were cut short by a failure outlive the test.
+				pool.shutdownNow();
+				try {
+					pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
 
-				if(lastFailure[0] != null)
-					throw lastFailure[0];
-				else
-					overallSuccess = true;
+		/**
+		 * Returns {@code false} if the test should stop before running the given (one-based) iteration because it has
+		 * reached the maximum number of iterations, or throws if that should fail the test.
+		 */
+		private boolean withinMaxIterations(int iteration) {
+			if(iteration <= parent.maxIterations)
+				return true;
+			else if(parent.failAfterMaxIterations)
+				throw new IllegalStateException(
+					"The test " + description.toString() + " was not able to complete within " +
+					parent.maxIterations + (parent.maxIterations == 1 ? " iteration" : " iterations") +
+					", because the number of subcase permutations is too large. You must take one of " +
+					"the following actions:\n" +
+					"\n" +
+					"* increase the allowed number of iterations;\n" +
+					"* switch to a different case composition mode, such as EACH_SUBCASE_AT_LEAST_ONCE; " +
+					"or\n" +
+					"* reduce the complexity of your subcases, for example by breaking your tests into " +
+					"smaller units."
+				);
+			else
+				return false;
+		}
+
+		/**
+		 * Runs the test once in the given fork, returning its failure, if any.
+		 */
+		private Throwable runIteration(Context.Fork fork) {
+			fork.enter();
+			try {
+				return runIteration();
 			}
 			finally {
-				parent.testReporter.postTest(description, iterations, overallSuccess);
-				Context.cleanUp();
+				fork.exit();
+			}
+		}
+
+		/**
+		 * Runs the test once on the current thread, returning its failure, if any.
+		 */
+		private Throwable runIteration() {
+			try {
+				baseStatement.evaluate();
+				return null;
+			}
+			catch(Throwable failure) {
+				return failure;
+			}
+		}
+
+		private static Throwable await(Future<Throwable> outcome) throws Throwable {
+			try {
+				return outcome.get();
+			}
+			catch(ExecutionException e) {
+				throw e.getCause();
+			}
+		}
+
+		private void completeIteration(int index, Throwable outcome, Throwable[] lastFailure) throws Throwable {
+			boolean[] success = new boolean[] { true };
+
+			if(outcome instanceof Context.EmptyShardException) {
+				throw outcome;
+			}
+			else if(outcome instanceof AssertionError) {
+				handleTestFailure(index, lastFailure, success, outcome);
+			}
+			else if(outcome instanceof Error) {
+				throw outcome;
+			}
+			else if(outcome instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+				throw outcome;
 			}
+			else if(outcome != null) {
+				handleTestFailure(index, lastFailure, success, outcome);
+			}
+
+			parent.testReporter.postIteration(description, index, success[0]);
 		}
 
-		private void handleTestFailure(int iterations, Throwable[] lastFailure, boolean[] success, Throwable failure)
+		private void handleTestFailure(int index, Throwable[] lastFailure, boolean[] success, Throwable failure)
 		throws Throwable {
-			failure = parent.testReporter.wrapFailure(description, iterations - 1, failure);
+			failure = parent.testReporter.wrapFailure(description, index, failure);
 
 			lastFailure[0] = failure;
 			success[0] = false;
 
-			parent.testReporter.failure(description, iterations - 1, failure);
+			parent.testReporter.failure(description, index, failure);
 			if(parent.failImmediately)
 				throw failure;
 		}
@@ -243,12 +412,20 @@ public class FuzzyRule implements TestRule {
 	public static class Config {
 		private TestReporter testReporter = TestReporter.DEFAULT;
 
-		private CaseCompositionMode caseCompositionMode = CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES;
+		private CaseComposition caseCompositionMode = CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES;
 		private int maxIterations = 1000;
 		private boolean failAfterMaxIterations = true;
 
 		private boolean failImmediately = true;
 
+		private int startAtIteration = 0;
+
+		private int parallelism = 1;
+
+		private Shard shard = null;
+
+		private boolean reusePlans = false;
+
 		/**
 		 * Sets the test reporter responsible for communicating unit test progress and status. By default, this is
 		 * set to {@link TestReporter#DEFAULT}.
@@ -265,7 +442,8 @@ public class FuzzyRule implements TestRule {
 		/**
 		 * Sets the {@link CaseCompositionMode} for the unit tests executed by this rule. By default,
 		 * the composition mode is {@link CaseCompositionMode#PAIRWISE_PERMUTATIONS_OF_SUBCASES}, which will run the
-		 * test enough times to cover every possible combination of every pair of generators in your test case.
+		 * test enough times to cover every possible combination of every pair of generators in your test case. Use
+		 * {@link #withCaseComposition(CaseComposition)} for compositions that need further configuration.
 		 *
 		 * @param caseCompositionMode the composition mode for the tests. Cannot be {@code null}.
 		 *
@@ -275,7 +453,21 @@ public class FuzzyRule implements TestRule {
 		 * @see #withMaxIterations(int)
 		 */
 		public Config withCaseCompositionMode(CaseCompositionMode caseCompositionMode) {
-			this.caseCompositionMode = FuzzyPreconditions.checkNotNull(caseCompositionMode);
+			return withCaseComposition(caseCompositionMode);
+		}
+
+		/**
+		 * Sets the {@link CaseComposition} for the unit tests executed by this rule. Any of the
+		 * {@linkplain #withCaseCompositionMode(CaseCompositionMode) case composition modes} can be used, as well as
+		 * compositions built from them, such as a {@linkplain CaseCompositionMode#tWise(int) t-wise} composition or
+		 * one {@linkplain CaseComposition#withConstraints with constraints}.
+		 *
+		 * @param caseComposition the case composition for the tests. Cannot be {@code null}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withCaseComposition(CaseComposition caseComposition) {
+			this.caseCompositionMode = FuzzyPreconditions.checkNotNull(caseComposition);
 			return this;
 		}
 
@@ -343,6 +535,140 @@ public class FuzzyRule implements TestRule {
 			return this;
 		}
 
+		/**
+		 * Sets the zero-based index of the first iteration to run for each test; earlier iterations are skipped without
+		 * running the test or generating any values. By default, this is {@code 0}.
+		 *
+		 * <p>Every iteration draws its random values from its own seed, so a skipped-to iteration sees exactly the same
+		 * inputs as it did in a full run. When a test fails, its failure message includes the failing iteration's
+		 * index; set this property to that index (typically while running only that test, for example in a debugger)
+		 * to reproduce the failure without first running every iteration before it.
+		 * </p>
+		 *
+		 * @param startAtIteration the index of the first iteration to run. Cannot be negative.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withStartAtIteration(int startAtIteration) {
+			if(startAtIteration < 0)
+				throw new IllegalArgumentException("The first iteration cannot be negative.");
+
+			this.startAtIteration = startAtIteration;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link Shard} of each test's iterations to run; iterations that belong to other shards are skipped,
+		 * and tests with no iterations in this shard are reported as skipped. By default, the shard is read from the
+		 * {@value Shard#INDEX_PROPERTY} and {@value Shard#COUNT_PROPERTY} system properties when each test starts, and
+		 * every iteration runs if they are not set.
+		 *
+		 * <p>Use shards to split tests with many iterations across several JVMs, such as build tool forks or CI
+		 * machines; running every shard runs each iteration exactly once. The
+		 * {@linkplain TestReporter#SUMMARIZING summarizing} test reporter reports how many iterations each shard ran out
+		 * of the test's total.
+		 * </p>
+		 *
+		 * @param shard the shard to run. Cannot be {@code null}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withShard(Shard shard) {
+			this.shard = FuzzyPreconditions.checkNotNull(shard);
+			return this;
+		}
+
+		/**
+		 * Sets the {@link #withShard(Shard) shard} property to shard number {@code index} (counting from zero) of
+		 * {@code count} shards.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see Shard#of(int, int)
+		 */
+		public Config withShard(int index, int count) { return withShard(Shard.of(index, count)); }
+
+		/**
+		 * Determines if the rule remembers the {@linkplain FuzzyPlan plan} of each test it runs, and reuses it the next
+		 * time it runs a test with the same display name, skipping the work of getting its cases' subcases and composing
+		 * them into iterations. By default, this is {@code false}.
+		 *
+		 * <p>This is useful when the same test method runs many times in one JVM, such as under a repeating rule or a
+		 * soak harness. JUnit creates a new instance of the test class for every test it runs, so the rule must be kept in
+		 * a static field for its plans to outlive a single run:
+		 * </p>
+		 *
+		 * <pre>
+		 *   private static final FuzzyRule FUZZY = FuzzyRule.custom().reusingPlans().build();
+		 *
+		 *   public final &#064;Rule TestRule fuzzyRule = FUZZY;
+		 * </pre>
+		 *
+		 * <p>Plans are only reused by runs that declare generators with the same names and case types, and are assumed
+		 * to build the same cases each time; see {@link FuzzyPlan}.
+		 * </p>
+		 *
+		 * @param reusePlans set to {@code true} to reuse plans.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see #reusingPlans()
+		 */
+		public Config withPlanReuse(boolean reusePlans) {
+			this.reusePlans = reusePlans;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link #withPlanReuse(boolean) planReuse} property to {@code true}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config reusingPlans() { return withPlanReuse(true); }
+
+		/**
+		 * Sets the number of iterations of each test that may run at the same time. By default, this is {@code 1}, and
+		 * iterations run one after another on the test's own thread.
+		 *
+		 * <p>With a higher parallelism, the first iteration of each test still runs on the test's thread, and the rest
+		 * are run by a {@link ForkJoinPool} with that many threads. Every iteration draws its values from its own seed,
+		 * so each one sees the same inputs as it would have sequentially, and the {@linkplain #withTestReporter
+		 * test reporter} is still called on the test's thread, in iteration order, with the iteration's values available
+		 * from {@link Context}; tests pass and fail, and report their failures, exactly as they would sequentially. A
+		 * failing test may, however, have run a few more iterations before the failure was reported.
+		 * </p>
+		 * <p>Every iteration runs on the same instance of the test class, and each one runs the whole statement that
+		 * this rule wraps: the test's {@code @Before} and {@code @After} methods, and any rules applied inside this
+		 * one, run concurrently on that one instance, once per iteration. Do not keep per-iteration state in fields of
+		 * the test class, including fixtures set up in {@code @Before} methods; create it in the test method instead.
+		 * </p>
+		 * <p>Only use this setting for tests whose iterations are independent of each other: for example, tests that do
+		 * not modify static or shared state, that keep their fixtures in local variables, and that create their
+		 * generators inside the test method.
+		 * </p>
+		 *
+		 * @param parallelism the maximum number of iterations to run concurrently. Cannot be less than one.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see #inParallel()
+		 */
+		public Config withParallelism(int parallelism) {
+			if(parallelism < 1)
+				throw new IllegalArgumentException("Fuzzy config requires a parallelism of at least one.");
+
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link #withParallelism(int) parallelism} property to the number of processors available to the
+		 * JVM, so that independent test iterations run concurrently.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config inParallel() { return withParallelism(Runtime.getRuntime().availableProcessors()); }
+
 		/**
 		 * Sets the {@linkplain #withCaseCompositionMode(CaseCompositionMode) case composition mode} to
 		 * {@link CaseCompositionMode#EACH_SUBCASE_AT_LEAST_ONCE}. This mode provides less comprehensive coverage than
@@ -424,6 +750,28 @@ public class FuzzyRule implements TestRule {
 			this.caseCompositionMode = caseCompositionMode;
 		}
 
+		/** @see #withCaseComposition(CaseComposition)
+		 */
+		public void setCaseComposition(CaseComposition caseComposition) {
+			this.caseCompositionMode = caseComposition;
+		}
+
+		/** @see #withStartAtIteration(int)
+		 */
+		public void setStartAtIteration(int startAtIteration) { withStartAtIteration(startAtIteration); }
+
+		/** @see #withPlanReuse(boolean)
+		 */
+		public void setPlanReuse(boolean reusePlans) { withPlanReuse(reusePlans); }
+
+		/** @see #withShard(Shard)
+		 */
+		public void setShard(Shard shard) { withShard(shard); }
+
+		/** @see #withParallelism(int)
+		 */
+		public void setParallelism(int parallelism) { withParallelism(parallelism); }
+
 		/** @see #withFailImmediately(boolean)
 		 */
 		public void setFailImmediately(boolean failImmediately) {
@@ -1,6 +1,7 @@
 package com.redfin.fuzzy.junit;
 
 import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.Shard;
 import org.junit.runner.Description;
 
 public interface TestReporter {
@@ -39,9 +40,13 @@ public interface TestReporter {
 					message.append(": ").append(failure.getMessage());
 
 				message.append("\n\n");
-				message.append("This test failed after generating the following inputs:\n");
+				message.append("This test failed on iteration ").append(Context.currentIteration());
+				message.append(" after generating the following inputs:\n");
 				Context.reportTo(message);
 				message.append("\n");
+				message.append("To rerun the test starting from this iteration, configure the FuzzyRule with ");
+				message.append(".withStartAtIteration(").append(Context.currentIteration()).append("); the rule will ");
+				message.append("then run this iteration and every one after it, for every test that uses the rule.\n");
 
 				Exception wrapped = new Exception(message.toString(), failure);
 				wrapped.setStackTrace(failure.getStackTrace());
@@ -56,11 +61,24 @@ public interface TestReporter {
 	TestReporter SUMMARIZING = new BaseTestReporter() {
 		@Override
 		public void postTest(Description description, int iterations, boolean success) {
-			System.out.println(
-				"Test " + description.toString() +
-				" ran with " + iterations +
-				" iteration" + (iterations == 1 ? "" : "s") + "."
-			);
+			StringBuilder summary = new StringBuilder();
+			summary.append("Test ").append(description.toString());
+			summary.append(" ran with ").append(iterations).append(" iteration").append(iterations == 1 ? "" : "s");
+
+			// When only some of the test's iterations ran, say which, so that shards can be checked for full coverage.
+			Shard shard = Context.shard();
+			int planned = Context.plannedIterations();
+			if(!shard.equals(Shard.ALL)) {
+				summary.append(" (").append(shard);
+				if(planned >= 0)
+					summary.append(", out of ").append(planned).append(" planned across all shards");
+				summary.append(")");
+			}
+			else if(planned >= 0 && planned != iterations) {
+				summary.append(" (out of ").append(planned).append(" planned)");
+			}
+
+			System.out.println(summary.append(".").toString());
 		}
 	};
 
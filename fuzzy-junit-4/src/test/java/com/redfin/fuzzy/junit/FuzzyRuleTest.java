@@ -2,10 +2,23 @@ package com.redfin.fuzzy.junit;
 
 import static org.junit.Assert.*;
 
+import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.Case;
+import com.redfin.fuzzy.CaseCompositionMode;
+import com.redfin.fuzzy.Context;
 import com.redfin.fuzzy.Generator;
+import com.redfin.fuzzy.Shard;
 import com.redfin.fuzzy.FuzzyUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import org.junit.AssumptionViolatedException;
 import org.junit.Test;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
@@ -181,6 +194,7 @@ public class FuzzyRuleTest {
 		catch(InterruptedException e) {
 			// expected
 			assertEquals(1, count[0]);
+			assertTrue(Thread.interrupted());
 		}
 	}
 
@@ -238,4 +252,371 @@ public class FuzzyRuleTest {
 		assertEquals(4, count[0]);
 	}
 
+	@Test
+	public void testCaseComposition() throws Throwable {
+		// The mode stays an enum-typed bean property, so string-to-enum config binding keeps working.
+		FuzzyRule.Config.class.getMethod("setCaseCompositionMode", CaseCompositionMode.class);
+
+		FuzzyRule.Config config = FuzzyRule.custom();
+		config.setCaseComposition(CaseCompositionMode.tWise(3));
+
+		int[] count = new int[] { 0 };
+		config.build().apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<Integer> a = Generator.of(1, 2);
+					Generator<Integer> b = Generator.of(3, 4);
+					Generator<Integer> c = Generator.of(5, 6);
+
+					a.get();
+
+					count[0]++;
+				}
+			},
+			Description.EMPTY
+		).evaluate();
+
+		assertEquals(8, count[0]);
+	}
+
+	@Test
+	public void testStartAtIteration() throws Throwable {
+		List<String> all = runRandomIterations(FuzzyRule.DEFAULT);
+		List<String> replayed = runRandomIterations(FuzzyRule.custom().withStartAtIteration(7).build());
+
+		assertEquals(9, all.size());
+		assertEquals(all.subList(7, 9), replayed);
+	}
+
+	@Test
+	public void testFailureReportsIteration() throws Throwable {
+		List<Integer> indices = new ArrayList<>();
+		FuzzyRule subject = FuzzyRule.custom()
+			.withStartAtIteration(1)
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void preIteration(Description description, int index) { indices.add(index); }
+			})
+			.build();
+
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<Integer> myInt = Generator.named("myInt").of(1, 2, 3);
+					assertFalse(myInt.get() == 3);
+				}
+			},
+			Description.EMPTY
+		);
+
+		try {
+			s.evaluate();
+			fail();
+		}
+		catch(Exception e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("failed on iteration 2 "));
+			assertTrue(e.getMessage(), e.getMessage().contains("starting from this iteration"));
+			assertTrue(e.getMessage(), e.getMessage().contains(".withStartAtIteration(2)"));
+		}
+
+		assertEquals(Arrays.asList(1, 2), indices);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeStartAtIteration() {
+		FuzzyRule.custom().withStartAtIteration(-1);
+	}
+
+	@Test
+	public void testParallelIterationsMatchSequential() throws Throwable {
+		List<String> sequential = runRandomIterations(FuzzyRule.DEFAULT);
+
+		assertEquals(sequential, runRandomIterations(FuzzyRule.custom().withParallelism(3).build()));
+		assertEquals(
+			sequential.subList(7, 9),
+			runRandomIterations(FuzzyRule.custom().withParallelism(3).withStartAtIteration(7).build())
+		);
+	}
+
+	@Test
+	public void testParallelCollectionIterationsMatchSequential() throws Throwable {
+		List<String> sequential = runCollectionIterations(FuzzyRule.DEFAULT);
+
+		assertTrue(sequential.size() > 3);
+		assertEquals(sequential, runCollectionIterations(FuzzyRule.custom().withParallelism(3).build()));
+	}
+
+	@Test
+	public void testParallelFailuresReportedAsSequential() throws Throwable {
+		List<String> sequential = runFailingIterations(FuzzyRule.custom().deferringFailures());
+		List<String> parallel = runFailingIterations(FuzzyRule.custom().deferringFailures().withParallelism(4));
+
+		assertEquals(sequential, parallel);
+		assertTrue(parallel.toString(), parallel.stream().filter(e -> e.startsWith("failure")).count() > 1);
+		assertTrue(parallel.toString(), parallel.get(parallel.size() - 1).startsWith("threw"));
+	}
+
+	@Test
+	public void testParallelFailImmediately() throws Throwable {
+		List<String> sequential = runFailingIterations(FuzzyRule.custom());
+		List<String> parallel = runFailingIterations(FuzzyRule.custom().withParallelism(4));
+
+		assertEquals(sequential, parallel);
+		assertEquals(1, parallel.stream().filter(e -> e.startsWith("failure")).count());
+	}
+
+	@Test
+	public void testParallelMaxIterations() throws Throwable {
+		int total = (int)runFailingIterations(FuzzyRule.custom().deferringFailures()).stream()
+			.filter(e -> e.startsWith("preIteration"))
+			.count();
+
+		for(int maxIterations : new int[] { 1, 2, 9, total - 1, total, total + 1 }) {
+			FuzzyRule.Config config = FuzzyRule.custom().withMaxIterations(maxIterations);
+			assertEquals(
+				runFailingIterations(config.withParallelism(1).deferringFailures()),
+				runFailingIterations(config.withParallelism(4))
+			);
+
+			config.withFailAfterMaxIterations(false);
+			assertEquals(
+				runFailingIterations(config.withParallelism(1)),
+				runFailingIterations(config.withParallelism(4))
+			);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroParallelism() {
+		FuzzyRule.custom().withParallelism(0);
+	}
+
+	@Test
+	public void testShardsPartitionIterations() throws Throwable {
+		assertShardsPartitionIterations(FuzzyRuleTest::runRandomIterations);
+	}
+
+	@Test
+	public void testShardsPartitionCollectionIterations() throws Throwable {
+		assertShardsPartitionIterations(FuzzyRuleTest::runCollectionIterations);
+	}
+
+	private static void assertShardsPartitionIterations(IterationRunner runner) throws Throwable {
+		List<String> all = runner.run(FuzzyRule.DEFAULT);
+
+		List<String> sharded = new ArrayList<>();
+		for(int index = 0; index < 3; index++) {
+			List<String> shard = runner.run(FuzzyRule.custom().withShard(index, 3).build());
+			assertEquals(shard, runner.run(FuzzyRule.custom().withShard(index, 3).withParallelism(2).build()));
+
+			for(int i = 0; i < shard.size(); i++)
+				assertEquals(all.get(index + 3 * i), shard.get(i));
+			sharded.addAll(shard);
+		}
+
+		assertEquals(all.size(), sharded.size());
+	}
+
+	@Test
+	public void testShardReportsAbsoluteIterations() {
+		List<String> all = runFailingIterations(FuzzyRule.custom().deferringFailures());
+		List<String> sharded = runFailingIterations(FuzzyRule.custom().deferringFailures().withShard(1, 2));
+
+		List<String> expected = new ArrayList<>();
+		for(String event : all) {
+			String[] words = event.split("[ \n]");
+			if(!words[0].equals("preIteration") && !words[0].equals("postIteration") && !words[0].equals("failure"))
+				continue;
+
+			if(Integer.parseInt(words[1]) % 2 == 1)
+				expected.add(event);
+		}
+
+		assertEquals(expected, sharded.subList(0, expected.size()));
+	}
+
+	@Test
+	public void testEmptyShardIsSkipped() throws Throwable {
+		List<String> events = new ArrayList<>();
+		FuzzyRule subject = FuzzyRule.custom()
+			.withShard(3, 4)
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void postTest(Description description, int iterations, boolean success) {
+					events.add(iterations + " " + success);
+				}
+			})
+			.build();
+
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator.of(1, 2, 3).get();
+				}
+			},
+			Description.EMPTY
+		);
+
+		try {
+			s.evaluate();
+			fail();
+		}
+		catch(AssumptionViolatedException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("shard 3 of 4"));
+		}
+
+		assertEquals(Collections.singletonList("0 true"), events);
+	}
+
+	@Test
+	public void testShardFromSystemProperties() throws Throwable {
+		System.setProperty(Shard.INDEX_PROPERTY, "1");
+		System.setProperty(Shard.COUNT_PROPERTY, "3");
+		try {
+			assertEquals(
+				runRandomIterations(FuzzyRule.custom().withShard(1, 3).build()),
+				runRandomIterations(FuzzyRule.DEFAULT)
+			);
+		}
+		finally {
+			System.clearProperty(Shard.INDEX_PROPERTY);
+			System.clearProperty(Shard.COUNT_PROPERTY);
+		}
+	}
+
+	@Test
+	public void testReusingPlans() throws Throwable {
+		int[] getSubcasesCalls = new int[1];
+		Case<String> letters = () -> {
+			getSubcasesCalls[0]++;
+			return Any.of("A", "B", "C").getSubcases();
+		};
+
+		FuzzyRule subject = FuzzyRule.custom().reusingPlans().build();
+		List<String> values = new ArrayList<>();
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<String> letter = Generator.named("letter").of(letters);
+					Generator<Integer> number = Generator.named("number").of(Any.integer());
+					values.add(letter.get() + number.get());
+				}
+			},
+			Description.createTestDescription(FuzzyRuleTest.class, "reused")
+		);
+
+		s.evaluate();
+		List<String> first = new ArrayList<>(values);
+		values.clear();
+		s.evaluate();
+
+		assertEquals(first, values);
+		assertEquals(1, getSubcasesCalls[0]);
+
+		// Without reuse, every run plans again.
+		FuzzyRule.custom().build().apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator.named("letter").of(letters).get();
+				}
+			},
+			Description.createTestDescription(FuzzyRuleTest.class, "reused")
+		).evaluate();
+		assertEquals(2, getSubcasesCalls[0]);
+	}
+
+	/**
+	 * Runs a test in which several iterations fail, and returns everything that was reported about it.
+	 */
+	private static List<String> runFailingIterations(FuzzyRule.Config config) {
+		List<String> events = new ArrayList<>();
+		FuzzyRule subject = config
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void preIteration(Description description, int index) { events.add("preIteration " + index); }
+
+				@Override
+				public void postIteration(Description description, int index, boolean success) {
+					events.add("postIteration " + index + " " + success + "\n" + Context.report());
+				}
+
+				@Override
+				public void failure(Description description, int index, Throwable failure) {
+					events.add("failure " + index + " " + failure.getMessage());
+				}
+
+				@Override
+				public void postTest(Description description, int iterations, boolean success) {
+					events.add("postTest " + iterations + " " + success);
+				}
+			})
+			.build();
+
+		try {
+			subject.apply(
+				new Statement() {
+					@Override
+					public void evaluate() throws Throwable {
+						Generator<Integer> number = Generator.named("number").of(1, 2, 3, 4, 5);
+						Generator<Integer> random = Generator.named("random").of(Any.integer());
+						Generator<String> letter = Generator.named("letter").of("A", "B", "C");
+
+						assertFalse(number.get() == 3 && random.get() != null && !letter.get().equals("C"));
+					}
+				},
+				Description.createTestDescription(FuzzyRuleTest.class, "failing")
+			).evaluate();
+		}
+		catch(Throwable t) {
+			events.add("threw " + t.getMessage());
+		}
+
+		return events;
+	}
+
+	private static List<String> runRandomIterations(FuzzyRule subject) throws Throwable {
+		return runIterations(subject, () -> {
+			Generator<String> letter = Generator.of("A", "B", "C");
+			Generator<Integer> number = Generator.of(Any.integer());
+
+			return letter.get() + number.get();
+		});
+	}
+
+	private static List<String> runCollectionIterations(FuzzyRule subject) throws Throwable {
+		return runIterations(subject, () -> {
+			Generator<List<Integer>> list = Generator.of(
+				Any.listOf(Any.integer()).withSizeOf(Any.integer().inRange(1, 5))
+			);
+			Generator<Set<String>> set = Generator.of(Any.setOf(Any.of("A", "B", "C"), Any.string()));
+
+			return list.get() + " " + set.get();
+		});
+	}
+
+	private interface IterationRunner {
+		List<String> run(FuzzyRule subject) throws Throwable;
+	}
+
+	private static List<String> runIterations(FuzzyRule subject, Supplier<String> iteration) throws Throwable {
+		Map<Integer, String> values = new ConcurrentSkipListMap<>();
+
+		subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					values.put(Context.currentIteration(), iteration.get());
+				}
+			},
+			Description.createTestDescription(FuzzyRuleTest.class, "replay")
+		).evaluate();
+
+		return new ArrayList<>(values.values());
+	}
+
 }